@@ -0,0 +1,14 @@
+package com.hujy.rock.benchmark;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 基准测试使用的Spring上下文，只加载rock-lock的自动配置
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 19:05
+ */
+@SpringBootApplication(scanBasePackages = {"com.hujy.rock.benchmark.none"})
+public class BenchmarkApplication {
+}
@@ -0,0 +1,115 @@
+package com.hujy.rock.benchmark;
+
+import org.apache.curator.test.TestingServer;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试环境：redis、zookeeper + Spring上下文
+ * 未指定 -Dredis.address=host:port 时在本地启动一个redis(端口 -Dredis.port，默认6399)；
+ * 未指定 -Dredlock.addresses=host:port,... 时在本地另外启动三个独立redis作为redlock节点(端口从 -Dredlock.port 起，默认6400)；
+ * 未指定 -Dzookeeper.address=host:port 时在进程内启动一个zookeeper(curator TestingServer，随机端口)
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 19:06
+ */
+public final class BenchmarkEnvironment {
+
+    private static final int REDLOCK_NODES = 3;
+
+    private static RedisServer redisServer;
+
+    private static final List<RedisServer> redlockServers = new ArrayList<>();
+
+    private static TestingServer zooKeeperServer;
+
+    private static ConfigurableApplicationContext applicationContext;
+
+    private BenchmarkEnvironment() {
+    }
+
+    public static synchronized void start() {
+        if (applicationContext != null) {
+            return;
+        }
+        String address = System.getProperty("redis.address");
+        if (address == null) {
+            int port = Integer.getInteger("redis.port", 6399);
+            redisServer = RedisServer.builder().port(port).setting("bind 127.0.0.1").build();
+            redisServer.start();
+            address = "127.0.0.1:" + port;
+        }
+        String redlockAddresses = System.getProperty("redlock.addresses");
+        if (redlockAddresses == null) {
+            int port = Integer.getInteger("redlock.port", 6400);
+            List<String> addresses = new ArrayList<>();
+            for (int i = 0; i < REDLOCK_NODES; i++) {
+                RedisServer server = RedisServer.builder().port(port + i).setting("bind 127.0.0.1").build();
+                server.start();
+                redlockServers.add(server);
+                addresses.add("127.0.0.1:" + (port + i));
+            }
+            redlockAddresses = String.join(",", addresses);
+        }
+        String zooKeeperAddress = System.getProperty("zookeeper.address");
+        if (zooKeeperAddress == null) {
+            try {
+                zooKeeperServer = new TestingServer();
+            } catch (Exception e) {
+                stop();
+                throw new IllegalStateException("can't start zookeeper", e);
+            }
+            zooKeeperAddress = zooKeeperServer.getConnectString();
+        }
+        String[] hostAndPort = address.split(":");
+        try {
+            applicationContext = new SpringApplicationBuilder(BenchmarkApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .bannerMode(Banner.Mode.OFF)
+                    .properties("spring.redis.host=" + hostAndPort[0],
+                            "spring.redis.port=" + hostAndPort[1],
+                            "rock.redisson.single.enable=true",
+                            "rock.redisson.single.address=" + address,
+                            "rock.redisson.redlock.enable=true",
+                            "rock.redisson.redlock.addresses=" + redlockAddresses,
+                            "rock.zookeeper.enable=true",
+                            "rock.zookeeper.connect-string=" + zooKeeperAddress)
+                    .run();
+        } catch (RuntimeException e) {
+            // 上下文启动失败时停止已启动的redis，避免占用端口
+            stop();
+            throw e;
+        }
+    }
+
+    public static synchronized void stop() {
+        if (applicationContext != null) {
+            applicationContext.close();
+            applicationContext = null;
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+            redisServer = null;
+        }
+        for (RedisServer server : redlockServers) {
+            server.stop();
+        }
+        redlockServers.clear();
+        if (zooKeeperServer != null) {
+            try {
+                zooKeeperServer.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            zooKeeperServer = null;
+        }
+    }
+}
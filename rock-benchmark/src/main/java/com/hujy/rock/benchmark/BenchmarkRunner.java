@@ -0,0 +1,56 @@
+package com.hujy.rock.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 基准测试入口
+ * 按线程数(-Drock.benchmark.threads，默认1,4,16)依次运行，最后按实现、线程数汇总结果；其余参数同JMH命令行
+ * 例：java -Dredis.address=127.0.0.1:6379 -jar target/benchmarks.jar DistLockBenchmark -f 1 -wi 3 -i 5
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 19:15
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        List<RunResult> results = new ArrayList<>();
+        for (String threads : System.getProperty("rock.benchmark.threads", "1,4,16").split(",")) {
+            Options options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .build();
+            results.addAll(new Runner(options).run());
+        }
+        print(results);
+    }
+
+    private static void print(Collection<RunResult> results) {
+        System.out.println();
+        System.out.printf("%-60s %-30s %8s %14s %10s %s%n", "Benchmark", "Params", "Threads", "Score", "Error", "Unit");
+        for (RunResult result : results) {
+            Map<String, String> params = new TreeMap<>();
+            for (String key : result.getParams().getParamsKeys()) {
+                params.put(key, result.getParams().getParam(key));
+            }
+            System.out.printf("%-60s %-30s %8d %14.3f %10.3f %s%n",
+                    result.getParams().getBenchmark(),
+                    params.isEmpty() ? "-" : params.toString(),
+                    result.getParams().getThreads(),
+                    result.getPrimaryResult().getScore(),
+                    result.getPrimaryResult().getScoreError(),
+                    result.getPrimaryResult().getScoreUnit());
+        }
+    }
+}
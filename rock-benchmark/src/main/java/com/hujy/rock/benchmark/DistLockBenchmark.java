@@ -0,0 +1,79 @@
+package com.hujy.rock.benchmark;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.LockHandle;
+import com.hujy.rock.lock.api.WaitStrategy;
+import com.hujy.rock.lock.exception.DistLockException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各实现一次加锁+释放的耗时
+ * uncontended每个线程使用自己的key，contended所有线程竞争同一个key
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 19:10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DistLockBenchmark {
+
+    private static final String CONTENDED_KEY = "rock:benchmark:contended";
+
+    @Param({"redisson", "lettuce", "local", "redlock", "zookeeper"})
+    private String backend;
+
+    private DistLockApi distLockApi;
+
+    private WaitStrategy waitStrategy;
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+
+        private final String lockKey = "rock:benchmark:" + UUID.randomUUID();
+    }
+
+    @Setup
+    public void setUp() {
+        BenchmarkEnvironment.start();
+        distLockApi = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(backend);
+        waitStrategy = (WaitStrategy) ExtensionLoader.getExtensionLoader(WaitStrategy.class).getExtension(null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkEnvironment.stop();
+    }
+
+    @Benchmark
+    public boolean uncontended(ThreadKey threadKey) throws DistLockException {
+        return lockAndUnlock(threadKey.lockKey);
+    }
+
+    @Benchmark
+    public boolean contended() throws DistLockException {
+        return lockAndUnlock(CONTENDED_KEY);
+    }
+
+    private boolean lockAndUnlock(String lockKey) throws DistLockException {
+        String requestId = UUID.randomUUID().toString();
+        LockHandle handle = distLockApi.acquire(lockKey, requestId, 30, 30, TimeUnit.SECONDS, waitStrategy);
+        if (!handle.isAcquired()) {
+            throw new IllegalStateException("lock timeout: " + lockKey);
+        }
+        return handle.release();
+    }
+}
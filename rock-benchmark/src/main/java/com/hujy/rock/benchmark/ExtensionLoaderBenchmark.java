@@ -0,0 +1,42 @@
+package com.hujy.rock.benchmark;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 扩展点加载器获取已缓存扩展的开销
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 18:58
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExtensionLoaderBenchmark {
+
+    @Setup
+    public void setUp() {
+        // 预先加载扩展类并创建实例
+        ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(NoopDistLock.NAME);
+    }
+
+    @Benchmark
+    public Object getExtensionLoader() {
+        return ExtensionLoader.getExtensionLoader(DistLockApi.class);
+    }
+
+    @Benchmark
+    public Object getExtension() {
+        return ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(NoopDistLock.NAME);
+    }
+}
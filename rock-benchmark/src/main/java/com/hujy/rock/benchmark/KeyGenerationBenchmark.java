@@ -0,0 +1,78 @@
+package com.hujy.rock.benchmark;
+
+import com.hujy.rock.lock.aspect.DistLockAspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 切面解析lockKey的开销：执行计划查找 + key组装
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 18:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyGenerationBenchmark {
+
+    private DistLockAspect aspect;
+
+    private Method constant;
+
+    private Method argument;
+
+    private Method expression;
+
+    private Method multi;
+
+    private Object[] noArgs;
+
+    private Object[] argumentArgs;
+
+    private Object[] expressionArgs;
+
+    private Object[] multiArgs;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        aspect = new DistLockAspect();
+        constant = LockTarget.class.getMethod("constant");
+        argument = LockTarget.class.getMethod("argument", String.class);
+        expression = LockTarget.class.getMethod("expression", LockTarget.Order.class);
+        multi = LockTarget.class.getMethod("multi", String.class, String.class);
+        noArgs = new Object[0];
+        argumentArgs = new Object[]{"10086"};
+        expressionArgs = new Object[]{new LockTarget.Order("10086")};
+        multiArgs = new Object[]{"10086", "10010"};
+    }
+
+    @Benchmark
+    public List<String> constantKey() {
+        return aspect.getPlan(constant).generateKeys(noArgs);
+    }
+
+    @Benchmark
+    public List<String> argumentKey() {
+        return aspect.getPlan(argument).generateKeys(argumentArgs);
+    }
+
+    @Benchmark
+    public List<String> expressionKey() {
+        return aspect.getPlan(expression).generateKeys(expressionArgs);
+    }
+
+    @Benchmark
+    public List<String> multiKey() {
+        return aspect.getPlan(multi).generateKeys(multiArgs);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hujy.rock.benchmark;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.exception.DistLockException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * local实现一次加锁+释放的耗时，以ReentrantLock为基准
+ * distinctKeys每次使用不同的key(共100万个)，衡量条目创建与清理的开销
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 21:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocalDistLockBenchmark {
+
+    private static final int KEY_COUNT = 1 << 20;
+
+    private final String[] keys = new String[KEY_COUNT];
+
+    private DistLockApi distLockApi;
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private final ReentrantLock reentrantLock = new ReentrantLock();
+
+        private final String lockKey = "rock:benchmark:" + UUID.randomUUID();
+
+        private final String requestId = UUID.randomUUID().toString();
+
+        private int next = (int) (Math.random() * KEY_COUNT);
+    }
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "rock:benchmark:" + i;
+        }
+        distLockApi = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LOCAL);
+    }
+
+    @Benchmark
+    public void reentrantLock(Caller caller) {
+        caller.reentrantLock.lock();
+        caller.reentrantLock.unlock();
+    }
+
+    @Benchmark
+    public boolean sameKey(Caller caller) throws DistLockException {
+        return lockAndUnlock(caller.lockKey, caller.requestId);
+    }
+
+    @Benchmark
+    public boolean distinctKeys(Caller caller) throws DistLockException {
+        caller.next = (caller.next + 1) & (KEY_COUNT - 1);
+        return lockAndUnlock(keys[caller.next], caller.requestId);
+    }
+
+    private boolean lockAndUnlock(String lockKey, String requestId) throws DistLockException {
+        if (!distLockApi.lock(lockKey, requestId, 30, 30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("lock timeout: " + lockKey);
+        }
+        return distLockApi.unlock(lockKey, requestId);
+    }
+}
@@ -0,0 +1,306 @@
+package com.hujy.rock.benchmark;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.WaitStrategy;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 分布式锁压测
+ * 固定数量的线程在限定时间内循环 加锁 -> 持有 -> 释放，随机选择key，依次压测每个实现，输出同一格式的汇总表便于对比
+ * 参数(-D)：
+ * rock.load.backends     实现，逗号分隔，默认lettuce,redisson,zookeeper
+ * rock.load.threads      并发数，默认16
+ * rock.load.virtual      是否使用虚拟线程(Java 21+)，默认false，开启时同时开启rock.lock.virtual-thread
+ * rock.load.keys         key的数量，默认1(所有线程竞争同一个key)
+ * rock.load.hold-micros  持锁时间(微秒)，默认0
+ * rock.load.duration     每个实现的压测时间(秒)，默认10，之前先预热rock.load.warm-up秒(默认2)
+ * rock.load.wait-millis  加锁等待时间(毫秒)，默认30000；rock.load.lease-millis 租期(毫秒)，默认30000
+ * rock.load.hgrm-dir     指定时把每个实现的完整延迟分布写入该目录的 backend-*.hgrm
+ * rock.load.wait-strategy 加锁等待策略(ttl/exponential/fixed)，默认使用扩展点默认策略，只对轮询式实现(lettuce)生效
+ * <p>
+ * 统计：acquire为加锁调用耗时；wait为发生竞争(调用时本进程已有其他线程在申请或持有该key)的那部分加锁耗时，
+ * Contended为其占比；hold为获得锁到释放返回；release为释放调用耗时
+ * 互斥校验：每个key记录进程内同时持有的线程数，获得锁时不为1即计一次violation；释放返回false(租期已过)计lost
+ * redis/zookeeper与BenchmarkEnvironment一致，未指定地址时在本地启动
+ * 例：java -Drock.lock.log.enable=false -Drock.load.keys=1,16 -cp target/benchmarks.jar com.hujy.rock.benchmark.LockLoadTest
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:30
+ */
+public class LockLoadTest {
+
+    private static final String KEY_PREFIX = "rock:load:";
+
+    private static final int THREADS = Integer.getInteger("rock.load.threads", 16);
+
+    private static final boolean VIRTUAL = Boolean.getBoolean("rock.load.virtual");
+
+    private static final long HOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(Long.getLong("rock.load.hold-micros", 0L));
+
+    private static final long DURATION_SECONDS = Long.getLong("rock.load.duration", 10L);
+
+    private static final long WARM_UP_SECONDS = Long.getLong("rock.load.warm-up", 2L);
+
+    private static final int WAIT_MILLIS = Integer.getInteger("rock.load.wait-millis", 30000);
+
+    private static final int LEASE_MILLIS = Integer.getInteger("rock.load.lease-millis", 30000);
+
+    private static final String HGRM_DIR = System.getProperty("rock.load.hgrm-dir");
+
+    private static final String WAIT_STRATEGY = System.getProperty("rock.load.wait-strategy", "");
+
+    public static void main(String[] args) throws Exception {
+        if (VIRTUAL && System.getProperty("rock.lock.virtual-thread.enable") == null) {
+            System.setProperty("rock.lock.virtual-thread.enable", "true");
+        }
+        BenchmarkEnvironment.start();
+        List<Result> results = new ArrayList<>();
+        try {
+            for (String keys : System.getProperty("rock.load.keys", "1").split(",")) {
+                for (String backend : System.getProperty("rock.load.backends", "lettuce,redisson,zookeeper").split(",")) {
+                    results.add(run(backend.trim(), Integer.parseInt(keys.trim())));
+                }
+            }
+        } finally {
+            BenchmarkEnvironment.stop();
+        }
+        print(results);
+    }
+
+    /**
+     * 压测一个实现
+     *
+     * @param backend
+     * @param keyCount
+     * @return com.hujy.rock.benchmark.LockLoadTest.Result
+     * @author hujy
+     * @date 2026-10-18 23:32
+     */
+    private static Result run(String backend, int keyCount) throws Exception {
+        DistLockApi distLockApi = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(backend);
+        WaitStrategy waitStrategy = (WaitStrategy) ExtensionLoader.getExtensionLoader(WaitStrategy.class).getExtension(WAIT_STRATEGY);
+        KeyState[] keys = new KeyState[keyCount];
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = new KeyState(KEY_PREFIX + runId + ":" + i);
+        }
+        Result result = new Result(backend, keyCount);
+        System.out.printf("load test -> backend:%s threads:%d%s keys:%d hold:%dus duration:%ds waitStrategy:%s%n", backend, THREADS,
+                VIRTUAL ? "(virtual)" : "", keyCount, TimeUnit.NANOSECONDS.toMicros(HOLD_NANOS), DURATION_SECONDS,
+                waitStrategy.getClass().getSimpleName());
+
+        long warmUpEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARM_UP_SECONDS);
+        long end = warmUpEnd + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        ExecutorService pool = newExecutor();
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                while (true) {
+                    long now = System.nanoTime();
+                    if (now - end >= 0L) {
+                        return;
+                    }
+                    KeyState key = keys[ThreadLocalRandom.current().nextInt(keyCount)];
+                    key.inFlight.incrementAndGet();
+                    try {
+                        operate(distLockApi, waitStrategy, key, now - warmUpEnd >= 0L ? result : null);
+                    } finally {
+                        key.inFlight.decrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(DURATION_SECONDS + WARM_UP_SECONDS + TimeUnit.MILLISECONDS.toSeconds(WAIT_MILLIS) + 60L, TimeUnit.SECONDS);
+        result.complete();
+        if (HGRM_DIR != null) {
+            result.write(HGRM_DIR);
+        }
+        return result;
+    }
+
+    /**
+     * 一次 加锁 -> 持有 -> 释放，预热期间result为null，不记录
+     */
+    private static void operate(DistLockApi distLockApi, WaitStrategy waitStrategy, KeyState key, Result result) {
+        String lockKey = key.lockKey;
+        AtomicInteger holder = key.holders;
+        String requestId = UUID.randomUUID().toString();
+        boolean contended = key.inFlight.get() > 1;
+        long beginNanos = System.nanoTime();
+        boolean locked;
+        try {
+            locked = distLockApi.lock(lockKey, requestId, LEASE_MILLIS, WAIT_MILLIS, TimeUnit.MILLISECONDS, waitStrategy);
+        } catch (Exception e) {
+            if (result != null) {
+                result.errors.increment();
+            }
+            return;
+        }
+        long acquiredNanos = System.nanoTime();
+        if (!locked) {
+            if (result != null) {
+                result.timeouts.increment();
+            }
+            return;
+        }
+        if (holder.incrementAndGet() != 1 && result != null) {
+            result.violations.increment();
+        }
+        if (HOLD_NANOS > 0L) {
+            LockSupport.parkNanos(HOLD_NANOS);
+        }
+        holder.decrementAndGet();
+        long releaseNanos = System.nanoTime();
+        boolean released;
+        try {
+            released = distLockApi.unlock(lockKey, requestId);
+        } catch (Exception e) {
+            if (result != null) {
+                result.errors.increment();
+            }
+            return;
+        }
+        long endNanos = System.nanoTime();
+        if (result == null) {
+            return;
+        }
+        result.acquire.recordValue(acquiredNanos - beginNanos);
+        if (contended) {
+            result.wait.recordValue(acquiredNanos - beginNanos);
+        }
+        result.hold.recordValue(endNanos - acquiredNanos);
+        result.release.recordValue(endNanos - releaseNanos);
+        if (!released) {
+            result.lost.increment();
+        }
+    }
+
+    /**
+     * 虚拟线程通过反射创建，保持Java 8编译
+     */
+    private static ExecutorService newExecutor() throws Exception {
+        if (VIRTUAL) {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        return Executors.newFixedThreadPool(THREADS);
+    }
+
+    private static void print(List<Result> results) {
+        System.out.println();
+        System.out.printf("threads:%d%s hold:%dus duration:%ds, latency in us (p50/p99/p99.9/max)%n", THREADS,
+                VIRTUAL ? "(virtual)" : "", TimeUnit.NANOSECONDS.toMicros(HOLD_NANOS), DURATION_SECONDS);
+        System.out.printf("%-10s %6s %10s %10s %-32s %-32s %-32s %-32s %8s %8s %8s %10s%n", "Backend", "Keys", "Ops/s",
+                "Contended", "Acquire", "Wait", "Hold", "Release", "Timeouts", "Errors", "Lost", "Violations");
+        for (Result r : results) {
+            long ops = r.acquireHistogram.getTotalCount();
+            System.out.printf("%-10s %6d %10.0f %9.1f%% %-32s %-32s %-32s %-32s %8d %8d %8d %10d%n", r.backend, r.keys,
+                    ops / (double) DURATION_SECONDS, ops == 0 ? 0D : r.waitHistogram.getTotalCount() * 100D / ops,
+                    percentiles(r.acquireHistogram), percentiles(r.waitHistogram), percentiles(r.holdHistogram),
+                    percentiles(r.releaseHistogram), r.timeouts.sum(), r.errors.sum(), r.lost.sum(), r.violations.sum());
+        }
+    }
+
+    private static String percentiles(Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return "-";
+        }
+        return String.format("%.0f/%.0f/%.0f/%.0f", histogram.getValueAtPercentile(50) / 1000D,
+                histogram.getValueAtPercentile(99) / 1000D, histogram.getValueAtPercentile(99.9) / 1000D,
+                histogram.getMaxValue() / 1000D);
+    }
+
+    private static class KeyState {
+
+        private final String lockKey;
+
+        /**
+         * 进程内同时持有该key的线程数
+         */
+        private final AtomicInteger holders = new AtomicInteger();
+
+        /**
+         * 进程内正在申请或持有该key的线程数
+         */
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private KeyState(String lockKey) {
+            this.lockKey = lockKey;
+        }
+    }
+
+    /**
+     * 一个实现的压测结果，延迟以纳秒记录
+     */
+    private static class Result {
+
+        private final String backend;
+
+        private final int keys;
+
+        private final Recorder acquire = new Recorder(3);
+
+        private final Recorder wait = new Recorder(3);
+
+        private final Recorder hold = new Recorder(3);
+
+        private final Recorder release = new Recorder(3);
+
+        private final LongAdder timeouts = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder lost = new LongAdder();
+
+        private final LongAdder violations = new LongAdder();
+
+        private Histogram acquireHistogram;
+
+        private Histogram waitHistogram;
+
+        private Histogram holdHistogram;
+
+        private Histogram releaseHistogram;
+
+        private Result(String backend, int keys) {
+            this.backend = backend;
+            this.keys = keys;
+        }
+
+        private void complete() {
+            acquireHistogram = acquire.getIntervalHistogram();
+            waitHistogram = wait.getIntervalHistogram();
+            holdHistogram = hold.getIntervalHistogram();
+            releaseHistogram = release.getIntervalHistogram();
+        }
+
+        /**
+         * 写入完整延迟分布(微秒)，可用HdrHistogram的plotFiles.html对比
+         */
+        private void write(String dir) throws FileNotFoundException {
+            String[] names = {"acquire", "wait", "hold", "release"};
+            Histogram[] histograms = {acquireHistogram, waitHistogram, holdHistogram, releaseHistogram};
+            for (int i = 0; i < names.length; i++) {
+                String file = dir + "/" + backend + "-" + keys + "keys-" + names[i] + ".hgrm";
+                try (PrintStream out = new PrintStream(file)) {
+                    histograms[i].outputPercentileDistribution(out, 1000D);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hujy.rock.benchmark;
+
+import com.hujy.rock.lock.annotation.DistLock;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * key生成基准测试使用的加锁方法
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 18:52
+ */
+public class LockTarget {
+
+    @DistLock(lockType = NoopDistLock.NAME, lockKey = "order")
+    public void constant() {
+    }
+
+    @DistLock(lockType = NoopDistLock.NAME, lockKey = "#id", lockPrefix = "order")
+    public void argument(String id) {
+    }
+
+    @DistLock(lockType = NoopDistLock.NAME, lockKey = "#order.id", lockPrefix = "order", lockSuffix = "pay")
+    public void expression(Order order) {
+    }
+
+    @DistLock(lockType = NoopDistLock.NAME, lockKey = "{#from, #to}", lockPrefix = "account")
+    public void multi(String from, String to) {
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Order {
+
+        private String id;
+    }
+}
@@ -0,0 +1,27 @@
+package com.hujy.rock.benchmark;
+
+import com.hujy.rock.lock.api.DistLockApi;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 空实现，用于测量锁实现以外的开销
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 18:50
+ */
+public class NoopDistLock implements DistLockApi {
+
+    public static final String NAME = "noop";
+
+    @Override
+    public boolean lock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) {
+        return true;
+    }
+
+    @Override
+    public boolean unlock(String lockKey, String requestId) {
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.hujy.rock.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.impl.DistLockWrapper;
+import com.hujy.rock.lock.exception.DistLockException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DistLockWrapper装饰一次加锁+释放的开销
+ * logLevel为INFO时计入日志事件的创建(不输出到appender)，为WARN时日志关闭
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 19:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WrapperBenchmark {
+
+    private static final String LOCK_KEY = "order:10086";
+
+    private static final String REQUEST_ID = "6f1c1d0e-4c2b-4a57-9a4e-4f0e8c3b2a11";
+
+    @Param({"INFO", "WARN"})
+    private String logLevel;
+
+    private DistLockApi direct;
+
+    private DistLockApi wrapped;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(DistLockWrapper.class)).setLevel(Level.toLevel(logLevel));
+        direct = new NoopDistLock();
+        wrapped = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(NoopDistLock.NAME);
+    }
+
+    @Benchmark
+    public boolean direct() throws DistLockException {
+        return direct.lock(LOCK_KEY, REQUEST_ID, 30, 5, TimeUnit.SECONDS) & direct.unlock(LOCK_KEY, REQUEST_ID);
+    }
+
+    @Benchmark
+    public boolean wrapped() throws DistLockException {
+        return wrapped.lock(LOCK_KEY, REQUEST_ID, 30, 5, TimeUnit.SECONDS) & wrapped.unlock(LOCK_KEY, REQUEST_ID);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hujy.rock.common.extension;
+
+import java.lang.annotation.*;
+
+/**
+ * wrapper激活条件与顺序
+ * 未标注的wrapper总是生效，order为0
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 20:05
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface Activate {
+
+    /**
+     * 顺序，越小越靠外层(越先执行)；相同时按类名排序
+     */
+    int order() default 0;
+
+    /**
+     * 只包装这些名称的扩展实现，为空时包装全部
+     */
+    String[] names() default {};
+
+    /**
+     * 开关属性名，属性值为false时不生效
+     */
+    String property() default "";
+
+    /**
+     * 未配置开关属性时是否生效
+     */
+    boolean matchIfMissing() default true;
+}
@@ -10,6 +10,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 @Slf4j
@@ -31,12 +34,29 @@ public class ExtensionLoader<T> {
      */
     private static final Map<Class<?>, ExtensionLoader<?>> EXTENSION_LOADER = new ConcurrentHashMap<>();
 
+    /**
+     * 创建ExtensionLoader时使用的锁
+     */
+    private static final Lock EXTENSION_LOADER_LOCK = new ReentrantLock();
+
     /**
      * 缓存扩展点实现类的实例对象
      * (Class -> instance)
      */
     private static final ConcurrentMap<Class<?>, Object> EXTENSION_INSTANCES = new ConcurrentHashMap<>();
 
+    /**
+     * wrapper排序：order小的在前，相同时按类名
+     */
+    private static final Comparator<Class<?>> WRAPPER_ORDER = Comparator
+            .<Class<?>>comparingInt(ExtensionLoader::getOrder)
+            .thenComparing(Class::getName);
+
+    /**
+     * 读取@Activate开关属性，默认读系统属性，运行在Spring中时由容器替换为Environment
+     */
+    private static volatile Function<String, String> propertyResolver = System::getProperty;
+
 
     /**
      * 缓存实现的name与class
@@ -91,12 +111,15 @@ public class ExtensionLoader<T> {
             return extensionLoader;
         }
         // 通过double check方式创建ExtensionLoader实例
-        synchronized (EXTENSION_LOADER) {
+        EXTENSION_LOADER_LOCK.lock();
+        try {
             extensionLoader = EXTENSION_LOADER.get(extension);
             if (extensionLoader == null) {
                 extensionLoader = new ExtensionLoader(extension);
                 EXTENSION_LOADER.put(extension, extensionLoader);
             }
+        } finally {
+            EXTENSION_LOADER_LOCK.unlock();
         }
         return extensionLoader;
     }
@@ -122,12 +145,15 @@ public class ExtensionLoader<T> {
         }
         Object instance = holder.get();
         if (instance == null) {
-            synchronized (holder) {
+            holder.getLock().lock();
+            try {
                 instance = holder.get();
                 if (instance == null) {
                     instance = createExtension(name);
                     holder.set(instance);
                 }
+            } finally {
+                holder.getLock().unlock();
             }
         }
         return (T) instance;
@@ -144,7 +170,8 @@ public class ExtensionLoader<T> {
     private T createExtension(String name) {
         Class<?> clazz = getExtensionClasses().get(name);
         if (clazz == null) {
-            throw new IllegalStateException();
+            throw new IllegalStateException("No such extension " + extension.getName() + " by name " + name
+                    + ", available: " + getExtensionClasses().keySet());
         }
         try {
             T instance = (T) EXTENSION_INSTANCES.get(clazz);
@@ -152,11 +179,10 @@ public class ExtensionLoader<T> {
                 EXTENSION_INSTANCES.putIfAbsent(clazz, clazz.newInstance());
                 instance = (T) EXTENSION_INSTANCES.get(clazz);
             }
-            Set<Class<?>> wrapperClasses = cachedWrapperClasses;
-            if (wrapperClasses != null && wrapperClasses.size() > 0) {
-                for (Class<?> wrapperClass : wrapperClasses) {
-                    instance = (T) wrapperClass.getConstructor(extension).newInstance(instance);
-                }
+            List<Class<?>> wrapperClasses = getActivateWrapperClasses(name);
+            // 倒序包装，排在最前的wrapper在最外层
+            for (int i = wrapperClasses.size() - 1; i >= 0; i--) {
+                instance = (T) wrapperClasses.get(i).getConstructor(extension).newInstance(instance);
             }
             return instance;
         } catch (Throwable t) {
@@ -167,6 +193,64 @@ public class ExtensionLoader<T> {
     }
 
 
+    /**
+     * 设置@Activate开关属性的读取方式
+     *
+     * @param resolver
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 20:10
+     */
+    public static void setPropertyResolver(Function<String, String> resolver) {
+        propertyResolver = Objects.requireNonNull(resolver);
+    }
+
+    /**
+     * 获取对指定扩展实现生效的wrapper，按order排序
+     *
+     * @param name
+     * @return java.util.List<java.lang.Class < ?>>
+     * @author hujy
+     * @date 2026-10-18 20:12
+     */
+    private List<Class<?>> getActivateWrapperClasses(String name) {
+        Set<Class<?>> wrapperClasses = cachedWrapperClasses;
+        if (wrapperClasses == null || wrapperClasses.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Class<?>> activated = new ArrayList<>(wrapperClasses.size());
+        for (Class<?> wrapperClass : wrapperClasses) {
+            if (isActive(wrapperClass, name)) {
+                activated.add(wrapperClass);
+            }
+        }
+        activated.sort(WRAPPER_ORDER);
+        return activated;
+    }
+
+    private static boolean isActive(Class<?> wrapperClass, String name) {
+        Activate activate = wrapperClass.getAnnotation(Activate.class);
+        if (activate == null) {
+            return true;
+        }
+        if (activate.names().length > 0 && !Arrays.asList(activate.names()).contains(name)) {
+            return false;
+        }
+        if (activate.property().isEmpty()) {
+            return true;
+        }
+        String value = propertyResolver.apply(activate.property());
+        if (value == null || value.trim().isEmpty()) {
+            return activate.matchIfMissing();
+        }
+        return !"false".equalsIgnoreCase(value.trim());
+    }
+
+    private static int getOrder(Class<?> wrapperClass) {
+        Activate activate = wrapperClass.getAnnotation(Activate.class);
+        return activate != null ? activate.order() : 0;
+    }
+
     /**
      * 加载默认的扩展点实现
      *
@@ -188,7 +272,8 @@ public class ExtensionLoader<T> {
     private Map<String, Class<?>> getExtensionClasses() {
         Map<String, Class<?>> classes = cachedClasses.get();
         if (classes == null) {
-            synchronized (cachedClasses) {
+            cachedClasses.getLock().lock();
+            try {
                 classes = cachedClasses.get();
                 if (classes == null) {
                     try {
@@ -198,6 +283,8 @@ public class ExtensionLoader<T> {
                     }
                     cachedClasses.set(classes);
                 }
+            } finally {
+                cachedClasses.getLock().unlock();
             }
         }
         return classes;
@@ -1,5 +1,8 @@
 package com.hujy.rock.common.extension;
 
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Helper Class for hold a value.
  */
@@ -7,6 +10,11 @@ public class Holder<T> {
 
     private volatile T value;
 
+    /**
+     * 初始化value时使用的锁，虚拟线程在ReentrantLock上等待不会占住载体线程
+     */
+    private final Lock lock = new ReentrantLock();
+
     public void set(T value) {
         this.value = value;
     }
@@ -14,4 +22,8 @@ public class Holder<T> {
     public T get() {
         return value;
     }
+
+    public Lock getLock() {
+        return lock;
+    }
 }
@@ -1,6 +1,8 @@
 package com.hujy.rock.lock.annotation;
 
 
+import com.hujy.rock.lock.constant.DistLockMode;
+
 import java.lang.annotation.*;
 import java.util.concurrent.TimeUnit;
 
@@ -16,6 +18,8 @@ public @interface DistLock {
 
     /**
      * lock key
+     * SpEL结果为集合或数组时同时锁定每个元素对应的key，全部获得后才执行方法；
+     * 集群模式下可使用hash tag(如 {account}:1)使这些key位于同一slot，一次脚本调用即可完成加锁
      */
     String lockKey();
 
@@ -39,11 +43,44 @@ public @interface DistLock {
      */
     String lockType() default "";
 
+    /**
+     * 锁模式，读多写少的key可使用READ/WRITE，读者之间并行执行。
+     * 同一个key只能使用一种模式(排他或读写)。
+     */
+    DistLockMode mode() default DistLockMode.EXCLUSIVE;
+
+    /**
+     * 是否使用公平锁，等待者按申请顺序获得锁，避免热点key上个别等待者一直抢不到锁直到超时。
+     * 仅支持排他模式的同步方法。
+     */
+    boolean fair() default false;
+
     /**
      * 是否使用乐观锁。
+     * 只尝试加锁一次，不等待(忽略waitTime)；失败时调用fallbackMethod，未配置时抛出DistLockAcquireException，
+     * 热点key上的请求立即失败，不占用请求线程等待
      */
     boolean optimistic() default false;
 
+    /**
+     * 加锁失败时调用的同一个bean上的方法名，参数列表与被注解方法相同，返回值可赋值给被注解方法的返回值类型。
+     * 异步方法的fallback返回CompletionStage/Mono/Flux；未配置时非乐观锁加锁失败返回null
+     */
+    String fallbackMethod() default "";
+
+    /**
+     * 是否生成fencing token。
+     * 每次加锁成功得到同一个key单调递增的token，可通过DistLockContext.getFencingToken()读取或由@FencingToken参数注入；
+     * 租期在方法执行期间过期时，下游存储可按token拒绝旧持有者的写入。仅支持非公平排他模式的同步方法，redisson与lettuce实现
+     */
+    boolean fencing() default false;
+
+    /**
+     * 加锁等待策略的名称(ttl/exponential/fixed，默认ttl)，决定申请失败后多久再次申请。
+     * 仅lettuce实现的普通排他锁(非公平、非fencing，含异步方法)生效，其他实现由客户端或服务端通知唤醒等待者
+     */
+    String waitStrategy() default "";
+
     /**
      * 锁最长等待时间。
      */
@@ -51,6 +88,7 @@ public @interface DistLock {
 
     /**
      * 锁过期时间。
+     * -1表示由看门狗续期，持有期间不会过期，方法返回后停止续期。
      */
     int expireTime() default 30;
 
@@ -58,4 +96,10 @@ public @interface DistLock {
      * 时间单位
      */
     TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * 是否先在本地排队。
+     * 同一个JVM内相同key的线程只有队头去竞争分布式锁，其余线程在本地等待
+     */
+    boolean localQueue() default false;
 }
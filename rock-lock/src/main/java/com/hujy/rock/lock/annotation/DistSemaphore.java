@@ -0,0 +1,66 @@
+package com.hujy.rock.lock.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式信号量注解
+ * 限制同一个key在整个集群内同时执行的数量，用于保护下游；只需限流而不需要互斥时使用，代替@DistLock+分片key
+ * 获得许可后执行方法，返回后归还；等待超时返回null
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 22:10
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DistSemaphore {
+
+    /**
+     * semaphore key，支持SpEL，须解析为单个key
+     */
+    String key();
+
+    /**
+     * key前缀
+     */
+    String prefix() default "";
+
+    /**
+     * key后缀
+     */
+    String suffix() default "";
+
+    /**
+     * 分隔符
+     */
+    String separator() default ":";
+
+    /**
+     * 许可数量，即同时执行的上限
+     */
+    int permits();
+
+    /**
+     * 实现策略的名称（默认使用Redisson）
+     */
+    String semaphoreType() default "";
+
+    /**
+     * 获取许可的最长等待时间。
+     * -1表示一直等待。
+     */
+    int waitTime() default 5;
+
+    /**
+     * 许可租期，持有者未归还时到期自动回收。
+     * -1表示不过期，持有者进程异常退出时许可不会归还，慎用。
+     */
+    int leaseTime() default 30;
+
+    /**
+     * 时间单位
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,17 @@
+package com.hujy.rock.lock.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 注入fencing token的方法参数
+ * 参数类型为long或Long，调用方传入的值被替换为本次加锁得到的token；所在方法须标注@DistLock(fencing = true)
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:30
+ */
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface FencingToken {
+}
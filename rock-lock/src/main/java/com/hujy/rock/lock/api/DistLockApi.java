@@ -5,6 +5,13 @@ import com.hujy.rock.common.extension.SPI;
 import com.hujy.rock.lock.constant.DistLockType;
 import com.hujy.rock.lock.exception.DistLockException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -28,6 +35,46 @@ public interface DistLockApi {
      */
     boolean lock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException;
 
+    /**
+     * 按指定的等待策略加锁
+     * 申请失败后由waitStrategy决定下一次申请前的等待时间；默认忽略等待策略，由实现自己的等待机制唤醒
+     * @author hujy
+     * @date 2026-10-18 23:52
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @param waitStrategy
+     * @return boolean
+     */
+    default boolean lock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                         WaitStrategy waitStrategy) throws DistLockException {
+        return lock(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    /**
+     * 加锁并返回持有凭证，通过凭证释放
+     * 未获得锁时返回LockHandle.FAILED，调用方无需再发出释放请求；
+     * 默认以lock加锁、以unlock释放，实现可在凭证中保留释放所需的资源
+     * @author hujy
+     * @date 2026-10-19 00:42
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @param waitStrategy
+     * @return com.hujy.rock.lock.api.LockHandle
+     */
+    default LockHandle acquire(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                               WaitStrategy waitStrategy) throws DistLockException {
+        if (!lock(lockKey, requestId, expireTime, waitTime, unit, waitStrategy)) {
+            return LockHandle.FAILED;
+        }
+        return () -> unlock(lockKey, requestId);
+    }
+
     /**
      * 释放锁
      * @author hujy
@@ -37,4 +84,271 @@ public interface DistLockApi {
      * @return void
      */
     boolean unlock(String lockKey, String requestId) throws DistLockException;
+
+    /**
+     * 加锁并返回fencing token
+     * 同一个key每次加锁成功得到的token单调递增，下游存储拒绝token小于已见最大值的写入，即可识别租期已过的旧持有者；
+     * 释放使用unlock；默认不支持
+     * @author hujy
+     * @date 2026-10-18 23:25
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @return long 加锁成功返回token(从1开始)，失败返回0
+     */
+    default long fencedLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        throw new DistLockException("fencing token is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * 预热，应用启动时对每个被使用的实现调用一次
+     * 建立连接、预加载脚本，避免首批请求承担初始化开销；默认不做任何事
+     * @author hujy
+     * @date 2026-10-18 20:40
+     * @return void
+     */
+    default void warmUp() throws DistLockException {
+    }
+
+    /**
+     * 锁的持有者是否只由requestId标识(每次调用唯一)
+     * 为true时加锁异常后可以按requestId补偿释放，不会误释放其他调用持有的锁；
+     * 以线程标识持有者的实现(可重入)返回false，补偿释放可能释放外层调用的锁
+     * @author hujy
+     * @date 2026-10-19 13:10
+     * @return boolean
+     */
+    default boolean isRequestOwned() {
+        return false;
+    }
+
+    /**
+     * 异步加锁
+     * 持有者以requestId标识，不绑定调用线程；默认实现在公共线程池中执行同步加锁
+     * @author hujy
+     * @date 2026-10-18 14:02
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @return java.util.concurrent.CompletionStage<java.lang.Boolean>
+     */
+    default CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return lock(lockKey, requestId, expireTime, waitTime, unit);
+            } catch (DistLockException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * 按指定的等待策略异步加锁，默认在公共线程池中执行同步加锁
+     * @author hujy
+     * @date 2026-10-18 23:53
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @param waitStrategy
+     * @return java.util.concurrent.CompletionStage<java.lang.Boolean>
+     */
+    default CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                                               WaitStrategy waitStrategy) {
+        return lockAsync(lockKey, requestId, expireTime, waitTime, unit, waitStrategy, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 按指定的等待策略异步加锁
+     * 没有原生异步命令的实现在executor中执行同步加锁，等待期间占用executor的线程而不是公共线程池
+     * @author hujy
+     * @date 2026-10-19 13:40
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @param waitStrategy
+     * @param executor
+     * @return java.util.concurrent.CompletionStage<java.lang.Boolean>
+     */
+    default CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                                               WaitStrategy waitStrategy, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return lock(lockKey, requestId, expireTime, waitTime, unit, waitStrategy);
+            } catch (DistLockException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 异步释放锁
+     * @author hujy
+     * @date 2026-10-18 14:03
+     * @param lockKey
+     * @param requestId
+     * @return java.util.concurrent.CompletionStage<java.lang.Boolean>
+     */
+    default CompletionStage<Boolean> unlockAsync(String lockKey, String requestId) {
+        return unlockAsync(lockKey, requestId, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 异步释放锁，没有原生异步命令的实现在executor中执行同步释放
+     * @author hujy
+     * @date 2026-10-19 13:41
+     * @param lockKey
+     * @param requestId
+     * @param executor
+     * @return java.util.concurrent.CompletionStage<java.lang.Boolean>
+     */
+    default CompletionStage<Boolean> unlockAsync(String lockKey, String requestId, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return unlock(lockKey, requestId);
+            } catch (DistLockException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 同时锁定多个key，全部成功才返回true，任一失败时释放已获得的锁
+     * lockKeys须已排序，默认实现按顺序逐个加锁，所有调用方顺序一致即不会死锁
+     * @author hujy
+     * @date 2026-10-18 16:50
+     * @param lockKeys
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @return boolean
+     */
+    default boolean multiLock(List<String> lockKeys, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        long beginTime = System.currentTimeMillis();
+        long leaseMillis = expireTime < 0 ? expireTime : Math.min(unit.toMillis(expireTime), Integer.MAX_VALUE);
+        List<String> acquired = new ArrayList<>(lockKeys.size());
+        boolean success = false;
+        try {
+            for (String lockKey : lockKeys) {
+                // 所有key共用一个等待时间
+                long waitMillis = waitTime < 0 ? waitTime
+                        : Math.max(0L, Math.min(unit.toMillis(waitTime), Integer.MAX_VALUE) - (System.currentTimeMillis() - beginTime));
+                if (!lock(lockKey, requestId, (int) leaseMillis, (int) waitMillis, TimeUnit.MILLISECONDS)) {
+                    return false;
+                }
+                acquired.add(lockKey);
+            }
+            success = true;
+            return true;
+        } finally {
+            if (!success) {
+                multiUnlock(acquired, requestId);
+            }
+        }
+    }
+
+    /**
+     * 释放多个key的锁，全部释放成功才返回true
+     * @author hujy
+     * @date 2026-10-18 16:51
+     * @param lockKeys
+     * @param requestId
+     * @return boolean
+     */
+    default boolean multiUnlock(List<String> lockKeys, String requestId) throws DistLockException {
+        boolean released = true;
+        for (String lockKey : lockKeys) {
+            released &= unlock(lockKey, requestId);
+        }
+        return released;
+    }
+
+    /**
+     * 加读锁，读锁之间共享，与写锁互斥；默认实现退化为排他锁
+     * @author hujy
+     * @date 2026-10-18 17:32
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @return boolean
+     */
+    default boolean readLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        return lock(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    /**
+     * 释放读锁
+     * @author hujy
+     * @date 2026-10-18 17:33
+     * @param lockKey
+     * @param requestId
+     * @return boolean
+     */
+    default boolean readUnlock(String lockKey, String requestId) throws DistLockException {
+        return unlock(lockKey, requestId);
+    }
+
+    /**
+     * 加写锁，与读锁、写锁均互斥；默认实现退化为排他锁
+     * @author hujy
+     * @date 2026-10-18 17:33
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @return boolean
+     */
+    default boolean writeLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        return lock(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    /**
+     * 释放写锁
+     * @author hujy
+     * @date 2026-10-18 17:34
+     * @param lockKey
+     * @param requestId
+     * @return boolean
+     */
+    default boolean writeUnlock(String lockKey, String requestId) throws DistLockException {
+        return unlock(lockKey, requestId);
+    }
+
+    /**
+     * 公平加锁，等待者按申请顺序获得锁；默认实现退化为排他锁
+     * @author hujy
+     * @date 2026-10-18 18:05
+     * @param lockKey
+     * @param requestId
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @return boolean
+     */
+    default boolean fairLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        return lock(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    /**
+     * 释放公平锁
+     * @author hujy
+     * @date 2026-10-18 18:06
+     * @param lockKey
+     * @param requestId
+     * @return boolean
+     */
+    default boolean fairUnlock(String lockKey, String requestId) throws DistLockException {
+        return unlock(lockKey, requestId);
+    }
 }
@@ -0,0 +1,42 @@
+package com.hujy.rock.lock.api;
+
+import com.hujy.rock.common.extension.SPI;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.exception.DistLockException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式信号量扩展点接口
+ * 每个许可以permitId标识，租期到期未归还的许可自动回收
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 22:12
+ */
+@SPI(DistLockType.REDISSON)
+public interface DistSemaphoreApi {
+
+    /**
+     * 获取许可
+     * @author hujy
+     * @date 2026-10-18 22:13
+     * @param semaphoreKey
+     * @param permits 许可总数
+     * @param leaseTime 租期，-1表示不过期
+     * @param waitTime 等待时间，-1表示一直等待
+     * @param unit
+     * @return java.lang.String 许可标识，等待超时返回null
+     */
+    String acquire(String semaphoreKey, int permits, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException;
+
+    /**
+     * 归还许可
+     * @author hujy
+     * @date 2026-10-18 22:14
+     * @param semaphoreKey
+     * @param permitId
+     * @return boolean 许可已过期被回收时返回false
+     */
+    boolean release(String semaphoreKey, String permitId) throws DistLockException;
+}
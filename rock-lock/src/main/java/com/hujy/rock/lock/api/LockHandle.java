@@ -0,0 +1,46 @@
+package com.hujy.rock.lock.api;
+
+import com.hujy.rock.lock.exception.DistLockException;
+
+/**
+ * 一次加锁的结果
+ * 记录是否获得锁以及释放所需的持有者与实现资源(如redisson的RLock与线程id)，释放时不再按lockKey重新查找；
+ * 未获得锁时为FAILED，释放不访问任何存储
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 00:40
+ */
+@FunctionalInterface
+public interface LockHandle {
+
+    /**
+     * 未获得锁
+     */
+    LockHandle FAILED = new LockHandle() {
+        @Override
+        public boolean isAcquired() {
+            return false;
+        }
+
+        @Override
+        public boolean release() {
+            return false;
+        }
+    };
+
+    /**
+     * 是否获得锁
+     */
+    default boolean isAcquired() {
+        return true;
+    }
+
+    /**
+     * 释放锁，只能调用一次
+     * @author hujy
+     * @date 2026-10-19 00:41
+     * @return boolean 释放前锁已不再由自己持有(租期已过)时返回false
+     */
+    boolean release() throws DistLockException;
+}
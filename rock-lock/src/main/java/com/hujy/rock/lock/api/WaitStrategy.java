@@ -0,0 +1,33 @@
+package com.hujy.rock.lock.api;
+
+import com.hujy.rock.common.extension.SPI;
+import com.hujy.rock.lock.constant.WaitStrategyType;
+
+/**
+ * 加锁等待策略扩展点接口
+ * 轮询式实现(lettuce)申请失败后据此决定下一次申请前最多等待多久，已订阅释放通知时收到通知会提前结束等待
+ * 实现须无状态、线程安全，同一个策略对象被所有加锁调用共用
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:50
+ */
+@SPI(WaitStrategyType.TTL)
+public interface WaitStrategy {
+
+    /**
+     * 持有者剩余租期未知：锁不存在(刚好释放)、没有过期时间或申请方式不返回租期
+     */
+    long UNKNOWN_TTL = -2L;
+
+    /**
+     * 下一次申请前的等待时间
+     * @author hujy
+     * @date 2026-10-18 23:51
+     * @param attempt 已失败的重试次数，从1开始
+     * @param ttl 持有者剩余租期(毫秒)，未知时为UNKNOWN_TTL
+     * @param notified 是否已订阅锁释放通知
+     * @return long 等待时间(毫秒)，不小于1
+     */
+    long nextDelay(int attempt, long ttl, boolean notified);
+}
@@ -1,19 +1,27 @@
 package com.hujy.rock.lock.api.impl;
 
 
+import com.hujy.rock.common.extension.Activate;
 import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.LockHandle;
+import com.hujy.rock.lock.api.WaitStrategy;
 import com.hujy.rock.lock.exception.DistLockException;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 实现类装饰器
+ * 打印加解锁日志，rock.lock.log.enable=false 时不包装
  *
  * @author hujy
  * @date 2019-10-21 11:06
  */
 @Slf4j
+@Activate(order = 100, property = "rock.lock.log.enable")
 public class DistLockWrapper implements DistLockApi {
 
     private DistLockApi distLockApi;
@@ -28,9 +36,131 @@ public class DistLockWrapper implements DistLockApi {
         return distLockApi.lock(lockKey, requestId, expireTime, waitTime, unit);
     }
 
+    @Override
+    public boolean lock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                        WaitStrategy waitStrategy) throws DistLockException {
+        log.info("lock -> lockKey:{} requestId:{} expireTime:{} waitTime:{} waitStrategy:{}", lockKey, requestId, expireTime,
+                waitTime, waitStrategy.getClass().getSimpleName());
+        return distLockApi.lock(lockKey, requestId, expireTime, waitTime, unit, waitStrategy);
+    }
+
+    @Override
+    public LockHandle acquire(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                              WaitStrategy waitStrategy) throws DistLockException {
+        log.info("acquire -> lockKey:{} requestId:{} expireTime:{} waitTime:{} waitStrategy:{}", lockKey, requestId, expireTime,
+                waitTime, waitStrategy.getClass().getSimpleName());
+        LockHandle handle = distLockApi.acquire(lockKey, requestId, expireTime, waitTime, unit, waitStrategy);
+        if (!handle.isAcquired()) {
+            return handle;
+        }
+        return () -> {
+            log.info("release -> lockKey:{} requestId:{}", lockKey, requestId);
+            return handle.release();
+        };
+    }
+
     @Override
     public boolean unlock(String lockKey, String requestId) throws DistLockException {
         log.info("unlock -> lockKey:{} requestId:{}", lockKey, requestId);
         return distLockApi.unlock(lockKey, requestId);
     }
+
+    @Override
+    public long fencedLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        log.info("fencedLock -> lockKey:{} requestId:{} expireTime:{} waitTime:{}", lockKey, requestId, expireTime, waitTime);
+        return distLockApi.fencedLock(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    @Override
+    public void warmUp() throws DistLockException {
+        log.info("warmUp -> {}", distLockApi.getClass().getSimpleName());
+        distLockApi.warmUp();
+    }
+
+    @Override
+    public boolean isRequestOwned() {
+        return distLockApi.isRequestOwned();
+    }
+
+    @Override
+    public CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) {
+        log.info("lockAsync -> lockKey:{} requestId:{} expireTime:{} waitTime:{}", lockKey, requestId, expireTime, waitTime);
+        return distLockApi.lockAsync(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    @Override
+    public CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                                              WaitStrategy waitStrategy) {
+        log.info("lockAsync -> lockKey:{} requestId:{} expireTime:{} waitTime:{} waitStrategy:{}", lockKey, requestId, expireTime,
+                waitTime, waitStrategy.getClass().getSimpleName());
+        return distLockApi.lockAsync(lockKey, requestId, expireTime, waitTime, unit, waitStrategy);
+    }
+
+    @Override
+    public CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                                              WaitStrategy waitStrategy, Executor executor) {
+        log.info("lockAsync -> lockKey:{} requestId:{} expireTime:{} waitTime:{} waitStrategy:{}", lockKey, requestId, expireTime,
+                waitTime, waitStrategy.getClass().getSimpleName());
+        return distLockApi.lockAsync(lockKey, requestId, expireTime, waitTime, unit, waitStrategy, executor);
+    }
+
+    @Override
+    public CompletionStage<Boolean> unlockAsync(String lockKey, String requestId) {
+        log.info("unlockAsync -> lockKey:{} requestId:{}", lockKey, requestId);
+        return distLockApi.unlockAsync(lockKey, requestId);
+    }
+
+    @Override
+    public CompletionStage<Boolean> unlockAsync(String lockKey, String requestId, Executor executor) {
+        log.info("unlockAsync -> lockKey:{} requestId:{}", lockKey, requestId);
+        return distLockApi.unlockAsync(lockKey, requestId, executor);
+    }
+
+    @Override
+    public boolean multiLock(List<String> lockKeys, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        log.info("multiLock -> lockKeys:{} requestId:{} expireTime:{} waitTime:{}", lockKeys, requestId, expireTime, waitTime);
+        return distLockApi.multiLock(lockKeys, requestId, expireTime, waitTime, unit);
+    }
+
+    @Override
+    public boolean multiUnlock(List<String> lockKeys, String requestId) throws DistLockException {
+        log.info("multiUnlock -> lockKeys:{} requestId:{}", lockKeys, requestId);
+        return distLockApi.multiUnlock(lockKeys, requestId);
+    }
+
+    @Override
+    public boolean readLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        log.info("readLock -> lockKey:{} requestId:{} expireTime:{} waitTime:{}", lockKey, requestId, expireTime, waitTime);
+        return distLockApi.readLock(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    @Override
+    public boolean readUnlock(String lockKey, String requestId) throws DistLockException {
+        log.info("readUnlock -> lockKey:{} requestId:{}", lockKey, requestId);
+        return distLockApi.readUnlock(lockKey, requestId);
+    }
+
+    @Override
+    public boolean writeLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        log.info("writeLock -> lockKey:{} requestId:{} expireTime:{} waitTime:{}", lockKey, requestId, expireTime, waitTime);
+        return distLockApi.writeLock(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    @Override
+    public boolean writeUnlock(String lockKey, String requestId) throws DistLockException {
+        log.info("writeUnlock -> lockKey:{} requestId:{}", lockKey, requestId);
+        return distLockApi.writeUnlock(lockKey, requestId);
+    }
+
+    @Override
+    public boolean fairLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        log.info("fairLock -> lockKey:{} requestId:{} expireTime:{} waitTime:{}", lockKey, requestId, expireTime, waitTime);
+        return distLockApi.fairLock(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    @Override
+    public boolean fairUnlock(String lockKey, String requestId) throws DistLockException {
+        log.info("fairUnlock -> lockKey:{} requestId:{}", lockKey, requestId);
+        return distLockApi.fairUnlock(lockKey, requestId);
+    }
 }
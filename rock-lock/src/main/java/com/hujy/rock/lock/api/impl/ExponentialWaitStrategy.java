@@ -0,0 +1,44 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.WaitStrategy;
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 指数退避等待
+ * 第n次重试前等待 exponential-base * 2^(n-1)，不超过max-interval，并在其后一半范围内随机抖动，
+ * 同一时刻失败的大量等待者错开重试时间，不会同时打到redis；适合持锁时间差异很大、又无法订阅释放通知的场景
+ * 持有者剩余租期已知且更短时在租期到期后立即重试
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:58
+ */
+public class ExponentialWaitStrategy implements WaitStrategy {
+
+    private final long base;
+
+    private final long maxInterval;
+
+    public ExponentialWaitStrategy() {
+        DistLockConfigProperties.Wait properties = ApplicationContextConfig.getClass(DistLockConfigProperties.class).getWait();
+        this.base = Math.max(1L, properties.getExponentialBase());
+        this.maxInterval = Math.max(base, properties.getMaxInterval());
+    }
+
+    @Override
+    public long nextDelay(int attempt, long ttl, boolean notified) {
+        int shift = Math.min(Math.max(attempt, 1) - 1, Long.SIZE - 2);
+        // 先比较再移位，避免溢出
+        long delay = base > (maxInterval >> shift) ? maxInterval : base << shift;
+        // equal jitter：[delay/2, delay]
+        long half = delay >>> 1;
+        delay = half + ThreadLocalRandom.current().nextLong(delay - half + 1L);
+        if (ttl >= 0L) {
+            delay = Math.min(delay, ttl + 1L);
+        }
+        return Math.max(1L, delay);
+    }
+}
@@ -0,0 +1,31 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.WaitStrategy;
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+
+/**
+ * 固定间隔等待
+ * 未订阅释放通知时每 rock.lock.wait.interval 重试一次；已订阅时只需兜底锁过期、通知丢失，每 rock.lock.wait.max-interval 重试一次
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:55
+ */
+public class FixedWaitStrategy implements WaitStrategy {
+
+    private final long interval;
+
+    private final long maxInterval;
+
+    public FixedWaitStrategy() {
+        DistLockConfigProperties.Wait properties = ApplicationContextConfig.getClass(DistLockConfigProperties.class).getWait();
+        this.interval = Math.max(1L, properties.getInterval());
+        this.maxInterval = Math.max(interval, properties.getMaxInterval());
+    }
+
+    @Override
+    public long nextDelay(int attempt, long ttl, boolean notified) {
+        return notified ? maxInterval : interval;
+    }
+}
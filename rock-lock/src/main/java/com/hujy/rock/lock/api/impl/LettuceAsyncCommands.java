@@ -0,0 +1,34 @@
+package com.hujy.rock.lock.api.impl;
+
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * lettuce非阻塞命令
+ * 单独成类，只有reactor在classpath中时才会加载
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 14:31
+ */
+class LettuceAsyncCommands {
+
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    LettuceAsyncCommands(ReactiveRedisConnectionFactory connectionFactory) {
+        this.reactiveStringRedisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    CompletableFuture<Boolean> setIfAbsent(String key, String value, long expireMillis) {
+        return reactiveStringRedisTemplate.opsForValue().setIfAbsent(key, value, Duration.ofMillis(expireMillis)).toFuture();
+    }
+
+    <T> CompletableFuture<T> execute(RedisScript<T> script, List<String> keys, List<?> args) {
+        return reactiveStringRedisTemplate.execute(script, keys, args).next().toFuture();
+    }
+}
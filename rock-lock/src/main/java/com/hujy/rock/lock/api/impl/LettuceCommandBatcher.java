@@ -0,0 +1,292 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * lettuce加解锁命令自动批量
+ * 并发的加锁(SET NX PX)与解锁(EVALSHA)请求进入队列，由单个线程取出后在独立连接上连续写出、只flush一次，
+ * 每个请求的结果单独回调；上一批在途时新请求继续积累，并发越高批次越大，另可设置凑批窗口换取更大的批次
+ * 仅支持单机redis，集群、哨兵模式下不启用
+ * 调用方等待超时或被中断后，加锁命令仍可能在redis上成功，此时以requestId补发解锁，不留下无人持有的锁
+ * 由LettuceLockConfig创建为bean，容器关闭时关闭连接
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 21:10
+ */
+@Slf4j
+public class LettuceCommandBatcher {
+
+    private static final String NO_SCRIPT = "NOSCRIPT";
+
+    private final RedisClient redisClient;
+
+    private final StatefulRedisConnection<String, String> connection;
+
+    private final RedisAsyncCommands<String, String> commands;
+
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+
+    private final int maxBatchSize;
+
+    private final long windowNanos;
+
+    private final long timeoutMillis;
+
+    private final String unlockScript;
+
+    private final String unlockSha;
+
+    private final Thread worker;
+
+    private volatile boolean closed;
+
+    private LettuceCommandBatcher(RedisClient redisClient, DistLockConfigProperties.Lettuce.Batch batch, long timeoutMillis) {
+        this.redisClient = redisClient;
+        this.connection = redisClient.connect();
+        this.connection.setAutoFlushCommands(false);
+        this.commands = connection.async();
+        this.maxBatchSize = Math.max(1, batch.getMaxSize());
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(batch.getWindowMicros());
+        this.timeoutMillis = timeoutMillis;
+        this.unlockScript = LettuceDistLock.UNLOCK_LUA;
+        this.unlockSha = new DefaultRedisScript<>(unlockScript, Long.class).getSha1();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rock-lock-batcher-");
+        threadFactory.setDaemon(true);
+        this.worker = threadFactory.newThread(this::run);
+        this.worker.start();
+    }
+
+    /**
+     * 创建批量器，连接工厂不是单机lettuce时返回null
+     *
+     * @param connectionFactory
+     * @param batch
+     * @return com.hujy.rock.lock.api.impl.LettuceCommandBatcher
+     * @author hujy
+     * @date 2026-10-18 21:12
+     */
+    public static LettuceCommandBatcher create(RedisConnectionFactory connectionFactory, DistLockConfigProperties.Lettuce.Batch batch) {
+        if (!(connectionFactory instanceof LettuceConnectionFactory)) {
+            log.warn("lettuce command batch is only supported by LettuceConnectionFactory, disabled");
+            return null;
+        }
+        LettuceConnectionFactory lettuceConnectionFactory = (LettuceConnectionFactory) connectionFactory;
+        if (lettuceConnectionFactory.isClusterAware() || lettuceConnectionFactory.isRedisSentinelAware()) {
+            log.warn("lettuce command batch is only supported by standalone redis, disabled");
+            return null;
+        }
+        RedisStandaloneConfiguration standalone = lettuceConnectionFactory.getStandaloneConfiguration();
+        LettuceClientConfiguration clientConfiguration = lettuceConnectionFactory.getClientConfiguration();
+        RedisURI.Builder builder = RedisURI.builder()
+                .withHost(standalone.getHostName())
+                .withPort(standalone.getPort())
+                .withDatabase(standalone.getDatabase())
+                .withSsl(clientConfiguration.isUseSsl())
+                .withVerifyPeer(clientConfiguration.isVerifyPeer())
+                .withStartTls(clientConfiguration.isStartTls())
+                .withTimeout(clientConfiguration.getCommandTimeout());
+        standalone.getPassword().map(String::new).ifPresent(builder::withPassword);
+        RedisURI redisURI = builder.build();
+        // 与spring共用ClientResources(事件循环线程)，批量器只多占一个连接
+        RedisClient redisClient = clientConfiguration.getClientResources()
+                .map(clientResources -> RedisClient.create(clientResources, redisURI))
+                .orElseGet(() -> RedisClient.create(redisURI));
+        return new LettuceCommandBatcher(redisClient, batch, clientConfiguration.getCommandTimeout().toMillis());
+    }
+
+    /**
+     * 停止批量线程，未发出的命令以异常结束，关闭连接与客户端
+     * 共用spring的ClientResources时只关闭本客户端，不影响spring的连接
+     *
+     * @return void
+     * @author hujy
+     * @date 2026-10-19 11:05
+     */
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        RedisSystemException e = new RedisSystemException("lettuce command batcher closed", null);
+        for (Command command; (command = queue.poll()) != null; ) {
+            command.result.completeExceptionally(e);
+        }
+        connection.close();
+        redisClient.shutdown();
+    }
+
+    /**
+     * SET key value NX PX leaseMillis
+     *
+     * @param key
+     * @param value
+     * @param leaseMillis
+     * @return boolean
+     * @author hujy
+     * @date 2026-10-18 21:15
+     */
+    boolean setIfAbsent(String key, String value, long leaseMillis) {
+        return "OK".equals(submit(new Command(key, new String[]{value}, leaseMillis)));
+    }
+
+    /**
+     * 执行解锁脚本
+     *
+     * @param key
+     * @param requestId
+     * @param channel
+     * @return boolean
+     * @author hujy
+     * @date 2026-10-18 21:16
+     */
+    boolean unlock(String key, String requestId, String channel) {
+        return Objects.equals(1L, submit(new Command(key, new String[]{requestId, channel}, -1L)));
+    }
+
+    private Object submit(Command command) {
+        if (closed) {
+            throw new RedisSystemException("lettuce command batcher closed", null);
+        }
+        queue.add(command);
+        try {
+            return command.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RedisSystemException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            abandon(command);
+            throw new QueryTimeoutException("Redis command timed out after " + timeoutMillis + " ms");
+        } catch (InterruptedException e) {
+            abandon(command);
+            Thread.currentThread().interrupt();
+            throw new RedisSystemException("Redis command interrupted", e);
+        }
+    }
+
+    /**
+     * 调用方已放弃等待，加锁命令之后成功时补发解锁
+     * 加锁的value为本次加锁唯一的requestId，解锁脚本只删除value一致的锁，不会误删他人的锁
+     *
+     * @param command
+     * @return void
+     * @author hujy
+     * @date 2026-10-19 11:00
+     */
+    private void abandon(Command command) {
+        if (command.leaseMillis < 0) {
+            return;
+        }
+        command.result.thenAccept(value -> {
+            if ("OK".equals(value) && !closed) {
+                log.warn("lock acquired after the caller gave up, releasing -> lockKey:{} requestId:{}", command.key, command.args[0]);
+                queue.add(new Command(command.key, new String[]{command.args[0], LettuceReleaseSubscriber.getChannelName(command.key)}, -1L));
+            }
+        });
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>(maxBatchSize);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                if (windowNanos > 0) {
+                    // 等待一个窗口，让更多请求进入同一批；park可能提前返回(遗留的unpark许可)，直到窗口结束或凑满
+                    long deadline = System.nanoTime() + windowNanos;
+                    for (long remaining = windowNanos; remaining > 0L && batch.size() < maxBatchSize && !closed;
+                         remaining = deadline - System.nanoTime()) {
+                        LockSupport.parkNanos(remaining);
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                    }
+                }
+                for (Command command : batch) {
+                    dispatch(command);
+                }
+                connection.flushCommands();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("lettuce command batch flush failed", e);
+                for (Command command : batch) {
+                    command.result.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(Command command) {
+        RedisFuture<?> future;
+        if (command.leaseMillis >= 0) {
+            future = commands.set(command.key, command.args[0], SetArgs.Builder.nx().px(command.leaseMillis));
+        } else if (command.eval) {
+            future = commands.eval(unlockScript, ScriptOutputType.INTEGER, new String[]{command.key}, command.args);
+        } else {
+            future = commands.evalsha(unlockSha, ScriptOutputType.INTEGER, new String[]{command.key}, command.args);
+        }
+        future.whenComplete((value, e) -> {
+            if (e == null) {
+                command.result.complete(value);
+            } else if (!command.eval && command.leaseMillis < 0 && String.valueOf(e.getMessage()).startsWith(NO_SCRIPT)) {
+                // 脚本被清除，本次改用EVAL重新排队
+                command.eval = true;
+                queue.add(command);
+            } else {
+                command.result.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * 排队中的命令，leaseMillis不小于0为加锁，否则为解锁
+     */
+    private static final class Command {
+
+        private final String key;
+
+        private final String[] args;
+
+        private final long leaseMillis;
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private volatile boolean eval;
+
+        private Command(String key, String[] args, long leaseMillis) {
+            this.key = key;
+            this.args = args;
+            this.leaseMillis = leaseMillis;
+        }
+    }
+}
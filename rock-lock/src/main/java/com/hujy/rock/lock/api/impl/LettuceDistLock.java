@@ -1,18 +1,55 @@
 package com.hujy.rock.lock.api.impl;
 
+import com.hujy.rock.common.extension.ExtensionLoader;
 import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.WaitStrategy;
 import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.lettuce.LettuceLockConfig;
+import com.hujy.rock.lock.config.lettuce.LockListenerContainer;
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
 import com.hujy.rock.lock.exception.DistLockException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ClassUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 /**
  * lettuce实现分布式锁
+ * 普通锁可重入：同一线程已持有某个key(lock或fencedLock获得)时，再次lock同一个key只增加进程内的持有计数，
+ * 剩余租期足够时不访问redis；每次加锁各自以requestId释放，计数归零时才以最外层的requestId释放redis中的锁
+ * fencedLock同样可重入，嵌套在fencedLock内时沿用外层的token；外层由lock获得、没有token时抛出DistLockException
+ * 读写锁、公平锁、多key锁不可重入
+ * 申请失败后由WaitStrategy决定下一次申请前最多等待多久，普通锁的重试同时取回持有者的剩余租期供策略参考
  *
  * @author hujy
  * @version 1.0
@@ -21,67 +58,1050 @@ import java.util.concurrent.TimeUnit;
 public class LettuceDistLock implements DistLockApi {
     /**
      * 释放锁的Lua脚本
-     * requestId一致才能释放锁
+     * requestId一致才能释放锁，释放后向锁频道发布通知唤醒等待者
      */
-    private static final String UNLOCK_LUA = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    static final String UNLOCK_LUA = "if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "redis.call('del', KEYS[1]); "
+            + "redis.call('publish', ARGV[2], 0); "
+            + "return 1 "
+            + "else return 0 end";
+
+    /**
+     * 重入时确认持有并延长租期的Lua脚本
+     * 锁仍由ARGV[1](最外层的requestId)持有时返回1，剩余租期小于ARGV[2]时延长到ARGV[2]
+     */
+    private static final String REENTER_LUA = "if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then "
+            + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "end "
+            + "return 1 "
+            + "else return 0 end";
+
+    /**
+     * 重试加锁的Lua脚本
+     * 加锁成功返回-1；否则返回持有者剩余租期(毫秒)，锁已不存在或没有过期时间时返回-2
+     */
+    private static final String TRY_LOCK_LUA = "if redis.call('set', KEYS[1], ARGV[1], 'nx', 'px', ARGV[2]) then "
+            + "return -1 "
+            + "end "
+            + "local ttl = redis.call('pttl', KEYS[1]) "
+            + "if ttl < 0 then return -2 end "
+            + "return ttl";
+
+    /**
+     * 加锁并生成fencing token的Lua脚本，KEYS[2]为token计数器
+     * 加锁成功返回递增后的token，失败返回0
+     */
+    private static final String FENCED_LOCK_LUA = "if redis.call('set', KEYS[1], ARGV[1], 'nx', 'px', ARGV[2]) then "
+            + "local token = redis.call('incr', KEYS[2]) "
+            + "return token "
+            + "end "
+            + "return 0";
+
+    /**
+     * 多key加锁的Lua脚本
+     * 任一key已被持有时不做修改，返回该key的下标；否则全部加锁，返回0
+     */
+    private static final String MULTI_LOCK_LUA = "for i, key in ipairs(KEYS) do "
+            + "if redis.call('exists', key) == 1 then return i end "
+            + "end "
+            + "for i, key in ipairs(KEYS) do "
+            + "redis.call('set', key, ARGV[1], 'px', ARGV[2]) "
+            + "end "
+            + "return 0";
+
+    /**
+     * 多key释放锁的Lua脚本
+     * ARGV[2]为频道前缀，返回释放的key数量
+     */
+    private static final String MULTI_UNLOCK_LUA = "local count = 0 "
+            + "for i, key in ipairs(KEYS) do "
+            + "if redis.call('get', key) == ARGV[1] then "
+            + "redis.call('del', key); "
+            + "redis.call('publish', ARGV[2] .. key, 0); "
+            + "count = count + 1 "
+            + "end "
+            + "end "
+            + "return count";
+
+    /**
+     * 清理过期读者的Lua片段
+     * 读模式下每个读者字段的值为其租约到期时间，早于ARGV[3](当前时间)的读者已崩溃或未续期，删除其字段；
+     * 没有剩余读者时删除key
+     */
+    private static final String PRUNE_READERS_LUA = "if redis.call('hget', KEYS[1], 'mode') == 'read' then "
+            + "local fields = redis.call('hgetall', KEYS[1]) "
+            + "for i = 1, #fields, 2 do "
+            + "if fields[i] ~= 'mode' and tonumber(fields[i + 1]) < tonumber(ARGV[3]) then "
+            + "redis.call('hdel', KEYS[1], fields[i]) "
+            + "end "
+            + "end "
+            + "if redis.call('hlen', KEYS[1]) <= 1 then redis.call('del', KEYS[1]) end "
+            + "end ";
+
+    /**
+     * 读锁的Lua脚本
+     * 读写锁为hash结构：mode字段为read或write，其余字段为持有者的requestId，值为租约到期时间；
+     * KEYS[2]为写者等待标记，存在时新的读者不能加入，避免读者源源不断时写者饿死
+     * 未被持有或处于读模式时加入读者，key的租期取所有读者中最长的
+     */
+    private static final String READ_LOCK_LUA = PRUNE_READERS_LUA
+            + "local mode = redis.call('hget', KEYS[1], 'mode') "
+            + "if mode == 'write' then return 0 end "
+            + "if redis.call('exists', KEYS[2]) == 1 then return 0 end "
+            + "if mode == false then redis.call('hset', KEYS[1], 'mode', 'read') end "
+            + "redis.call('hset', KEYS[1], ARGV[1], tonumber(ARGV[3]) + tonumber(ARGV[2])) "
+            + "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then "
+            + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "end "
+            + "return 1";
+
+    /**
+     * 写锁的Lua脚本，未被持有时才能获得
+     * 被持有时设置写者等待标记(存活ARGV[4]毫秒，每次重试刷新)，获得锁时删除自己设置的标记
+     */
+    private static final String WRITE_LOCK_LUA = PRUNE_READERS_LUA
+            + "if redis.call('exists', KEYS[1]) == 1 then "
+            + "redis.call('set', KEYS[2], ARGV[1], 'px', ARGV[4]) "
+            + "return 0 "
+            + "end "
+            + "redis.call('hset', KEYS[1], 'mode', 'write') "
+            + "redis.call('hset', KEYS[1], ARGV[1], tonumber(ARGV[3]) + tonumber(ARGV[2])) "
+            + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "if redis.call('get', KEYS[2]) == ARGV[1] then redis.call('del', KEYS[2]) end "
+            + "return 1";
+
+    /**
+     * 写锁等待超时后删除自己设置的写者等待标记，锁空闲时通知被标记挡住的读者
+     */
+    private static final String WRITE_DEQUEUE_LUA = "if redis.call('get', KEYS[2]) == ARGV[1] then "
+            + "redis.call('del', KEYS[2]); "
+            + "if redis.call('exists', KEYS[1]) == 0 then redis.call('publish', ARGV[2], 1) end "
+            + "end "
+            + "return 1";
+
+    /**
+     * 释放读锁或写锁的Lua脚本
+     * 同时清理过期读者，最后一个持有者离开时删除key，并通知唤醒全部等待者
+     */
+    private static final String READ_WRITE_UNLOCK_LUA = "if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then return 0 end "
+            + "redis.call('hdel', KEYS[1], ARGV[1]) "
+            + PRUNE_READERS_LUA
+            + "if redis.call('hlen', KEYS[1]) <= 1 then "
+            + "redis.call('del', KEYS[1]); "
+            + "redis.call('publish', ARGV[2], 1) "
+            + "end "
+            + "return 1";
+
+    /**
+     * 公平锁的Lua脚本
+     * KEYS[2]为等待队列(list)，KEYS[3]为等待者的超时时间(zset)；ARGV[3]为等待者的存活时长，ARGV[4]为当前时间
+     * 先移除队头已超时的等待者；锁空闲且队列为空或自己位于队头时获得锁，否则入队并刷新自己的超时时间
+     */
+    private static final String FAIR_LOCK_LUA = "local now = tonumber(ARGV[4]) "
+            + "while true do "
+            + "local first = redis.call('lindex', KEYS[2], 0) "
+            + "if first == false then break end "
+            + "local timeout = redis.call('zscore', KEYS[3], first) "
+            + "if timeout ~= false and tonumber(timeout) > now then break end "
+            + "redis.call('lpop', KEYS[2]); "
+            + "redis.call('zrem', KEYS[3], first) "
+            + "end "
+            + "local first = redis.call('lindex', KEYS[2], 0) "
+            + "if redis.call('exists', KEYS[1]) == 0 and (first == false or first == ARGV[1]) then "
+            + "if first == ARGV[1] then "
+            + "redis.call('lpop', KEYS[2]); "
+            + "redis.call('zrem', KEYS[3], ARGV[1]) "
+            + "end "
+            + "redis.call('set', KEYS[1], ARGV[1], 'px', ARGV[2]) "
+            + "return 1 "
+            + "end "
+            + "if redis.call('zscore', KEYS[3], ARGV[1]) == false then "
+            + "redis.call('rpush', KEYS[2], ARGV[1]) "
+            + "end "
+            + "redis.call('zadd', KEYS[3], now + tonumber(ARGV[3]), ARGV[1]) "
+            + "redis.call('pexpire', KEYS[2], ARGV[3]) "
+            + "redis.call('pexpire', KEYS[3], ARGV[3]) "
+            + "return 0";
+
+    /**
+     * 等待超时后退出公平锁队列的Lua脚本，位于队头且锁空闲时通知下一个等待者
+     */
+    private static final String FAIR_DEQUEUE_LUA = "local first = redis.call('lindex', KEYS[2], 0) "
+            + "redis.call('lrem', KEYS[2], 0, ARGV[1]) "
+            + "redis.call('zrem', KEYS[3], ARGV[1]) "
+            + "if first == ARGV[1] and redis.call('exists', KEYS[1]) == 0 then "
+            + "redis.call('publish', ARGV[2], 1) "
+            + "end "
+            + "return 1";
+
+    /**
+     * 释放公平锁的Lua脚本，唤醒全部等待者，由队头获得锁
+     */
+    private static final String FAIR_UNLOCK_LUA = "if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "redis.call('del', KEYS[1]); "
+            + "redis.call('publish', ARGV[2], 1); "
+            + "return 1 "
+            + "else return 0 end";
+
+    private static final String FAIR_QUEUE_PREFIX = "rock_lock__queue:";
+
+    private static final String FAIR_TIMEOUT_PREFIX = "rock_lock__timeout:";
+
+    static final String WRITER_WAITING_PREFIX = "rock_lock__writer:";
+
+    /**
+     * 写者等待标记的存活时长(毫秒)，等待中的写者每次重试时刷新
+     * 须大于兜底重试间隔，写者异常退出后最多阻塞新的读者这么久
+     */
+    private static final long WRITER_WAITING_TIMEOUT = 5000L;
+
+    /**
+     * 公平锁等待者的存活时长(毫秒)，等待者每次重试时刷新
+     * 须大于兜底重试间隔，等待者异常退出后最多阻塞队列这么久
+     */
+    private static final long FAIR_QUEUE_TIMEOUT = 5000L;
+
+    /**
+     * 申请成功，与TRY_LOCK_LUA的返回值一致
+     */
+    private static final long ACQUIRED = -1L;
 
     private static StringRedisTemplate stringRedisTemplate;
 
     private static DefaultRedisScript<Long> unlockLuaScript;
 
+    private static DefaultRedisScript<Long> reenterLuaScript = new DefaultRedisScript<>(REENTER_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> tryLockLuaScript = new DefaultRedisScript<>(TRY_LOCK_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> fencedLockLuaScript = new DefaultRedisScript<>(FENCED_LOCK_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> multiLockLuaScript = new DefaultRedisScript<>(MULTI_LOCK_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> multiUnlockLuaScript = new DefaultRedisScript<>(MULTI_UNLOCK_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> readLockLuaScript = new DefaultRedisScript<>(READ_LOCK_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> writeLockLuaScript = new DefaultRedisScript<>(WRITE_LOCK_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> writeDequeueLuaScript = new DefaultRedisScript<>(WRITE_DEQUEUE_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> readWriteUnlockLuaScript = new DefaultRedisScript<>(READ_WRITE_UNLOCK_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> fairLockLuaScript = new DefaultRedisScript<>(FAIR_LOCK_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> fairDequeueLuaScript = new DefaultRedisScript<>(FAIR_DEQUEUE_LUA, Long.class);
+
+    private static DefaultRedisScript<Long> fairUnlockLuaScript = new DefaultRedisScript<>(FAIR_UNLOCK_LUA, Long.class);
+
+    /**
+     * 当前线程同步持有的普通锁，同一调用链上再次对同一个key加锁时据此识别为重入
+     * (lockKey -> hold)
+     */
+    private static final ThreadLocal<Map<String, Hold>> THREAD_HOLDS = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * 持有中的普通锁，最外层加锁与每次重入各一个条目，释放时据此找到所属的持有
+     * (requestId:lockKey -> hold)
+     */
+    private static final Map<String, Hold> HOLDS = new ConcurrentHashMap<>();
+
+    /**
+     * 未指定等待策略的加锁(多key锁、读写锁、公平锁、fencing)使用的默认等待策略
+     */
+    private static WaitStrategy defaultWaitStrategy;
+
+    /**
+     * 是否为集群，集群模式下多key脚本按slot分批执行
+     */
+    private static boolean cluster;
+
+    /**
+     * 锁释放通知订阅，监听容器不存在时退化为定时重试
+     */
+    private static LettuceReleaseSubscriber releaseSubscriber;
+
+    /**
+     * 非阻塞命令，连接工厂不支持reactive时为null，异步接口退回默认实现
+     */
+    private static LettuceAsyncCommands asyncCommands;
+
+    /**
+     * 异步加锁的重试调度与回调线程，不占用调用方与lettuce的IO线程
+     */
+    private static ScheduledExecutorService asyncScheduler;
+
+    /**
+     * 续期expireTime为-1的锁
+     */
+    private static LettuceLeaseWatchdog watchdog;
+
+    /**
+     * 加解锁命令批量器，未开启或不支持时为null
+     */
+    private static LettuceCommandBatcher batcher;
 
     static {
         stringRedisTemplate = ApplicationContextConfig.getClass(StringRedisTemplate.class);
+        defaultWaitStrategy = (WaitStrategy) ExtensionLoader.getExtensionLoader(WaitStrategy.class).getExtension(null);
         unlockLuaScript = new DefaultRedisScript<>();
         unlockLuaScript.setScriptText(UNLOCK_LUA);
         unlockLuaScript.setResultType(Long.class);
+        ApplicationContext applicationContext = ApplicationContextConfig.getApplicationContext();
+        if (applicationContext.containsBean(LettuceLockConfig.LOCK_LISTENER_CONTAINER)) {
+            releaseSubscriber = new LettuceReleaseSubscriber(applicationContext.getBean(
+                    LettuceLockConfig.LOCK_LISTENER_CONTAINER, LockListenerContainer.class).getContainer());
+        }
+        RedisConnectionFactory connectionFactory = stringRedisTemplate.getConnectionFactory();
+        RedisConnection connection = connectionFactory.getConnection();
+        try {
+            cluster = connection instanceof RedisClusterConnection;
+        } finally {
+            connection.close();
+        }
+        DistLockConfigProperties.Lettuce lettuceProperties = ApplicationContextConfig.getClass(DistLockConfigProperties.class).getLettuce();
+        watchdog = new LettuceLeaseWatchdog(stringRedisTemplate, lettuceProperties.getWatchdogTimeout(), cluster);
+        if (applicationContext.containsBean(LettuceLockConfig.LOCK_COMMAND_BATCHER)) {
+            // 单机lettuce以外的连接工厂不创建批量器
+            Object commandBatcher = applicationContext.getBean(LettuceLockConfig.LOCK_COMMAND_BATCHER);
+            batcher = commandBatcher instanceof LettuceCommandBatcher ? (LettuceCommandBatcher) commandBatcher : null;
+        }
+        if (connectionFactory instanceof ReactiveRedisConnectionFactory
+                && ClassUtils.isPresent("reactor.core.publisher.Mono", LettuceDistLock.class.getClassLoader())) {
+            asyncCommands = new LettuceAsyncCommands((ReactiveRedisConnectionFactory) connectionFactory);
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rock-lock-async-");
+            threadFactory.setDaemon(true);
+            asyncScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        }
+    }
+
+
+    /**
+     * 建立连接并把所有脚本SCRIPT LOAD到redis(集群模式下为所有节点)，之后的EVALSHA不会因NOSCRIPT退回EVAL
+     */
+    @Override
+    public void warmUp() {
+        List<RedisScript<?>> scripts = Arrays.asList(unlockLuaScript, reenterLuaScript, tryLockLuaScript, fencedLockLuaScript, multiLockLuaScript, multiUnlockLuaScript,
+                readLockLuaScript, writeLockLuaScript, writeDequeueLuaScript, readWriteUnlockLuaScript, fairLockLuaScript,
+                fairDequeueLuaScript, fairUnlockLuaScript, LettuceLeaseWatchdog.RENEW_SCRIPT);
+        stringRedisTemplate.execute((RedisCallback<Void>) connection -> {
+            for (RedisScript<?> script : scripts) {
+                connection.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
     }
 
+    /**
+     * 持有者为requestId，解锁脚本校验持有者，嵌套调用的重入计数也按requestId登记
+     */
+    @Override
+    public boolean isRequestOwned() {
+        return true;
+    }
 
     @Override
     public boolean lock(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
-        long beginTime = System.currentTimeMillis();
-        while (true) {
-            // 申请获得锁
-            boolean acquire = tryAcquire(lockKey, requestId, leaseTime, unit);
-            if (acquire) {
-                return true;
+        return lock(lockKey, requestId, leaseTime, waitTime, unit, defaultWaitStrategy);
+    }
+
+    @Override
+    public boolean lock(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit,
+                        WaitStrategy waitStrategy) throws DistLockException {
+        if (reenter(lockKey, requestId, leaseTime, unit)) {
+            return true;
+        }
+        boolean permit = acquireLock(lockKey, requestId, leaseTime, waitTime, unit, waitStrategy,
+                LettuceDistLock::tryAcquire, LettuceDistLock::tryAcquireWithTtl);
+        if (permit) {
+            hold(lockKey, requestId, leaseTime, unit);
+        }
+        return permit;
+    }
+
+    @Override
+    public long fencedLock(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        if (reenter(lockKey, requestId, leaseTime, unit)) {
+            Hold hold = HOLDS.get(holdKey(lockKey, requestId));
+            if (hold != null && hold.token > 0L) {
+                return hold.token;
             }
+            unlock(lockKey, requestId);
+            throw new DistLockException("fencedLock cannot be nested in a lock without fencing token, lockKey:" + lockKey);
+        }
+        List<String> keys = Arrays.asList(lockKey, RedisKeys.fencingKey(lockKey));
+        long[] token = new long[1];
+        boolean permit = acquireLock(lockKey, requestId, leaseTime, waitTime, unit, (key, id, leaseMillis) -> {
+            Long result = stringRedisTemplate.execute(fencedLockLuaScript, keys, id, String.valueOf(leaseMillis));
+            token[0] = result != null ? result : 0L;
+            return attempted(token[0] > 0);
+        });
+        if (!permit) {
+            return 0L;
+        }
+        hold(lockKey, requestId, leaseTime, unit).token = token[0];
+        return token[0];
+    }
 
-            if (waitTime != -1) {
-                long remainingWaitTime = unit.toMillis(waitTime) - (System.currentTimeMillis() - beginTime);
-                // 如果waitTime到了，还没有获得锁，直接返回false
-                if (remainingWaitTime <= 0L) {
-                    return false;
-                }
+    @Override
+    public boolean readLock(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        List<String> keys = getReadWriteKeys(lockKey);
+        return acquireLock(lockKey, requestId, leaseTime, waitTime, unit, (key, id, leaseMillis) -> attempted(Objects.equals(1L,
+                stringRedisTemplate.execute(readLockLuaScript, keys, id, String.valueOf(leaseMillis),
+                        String.valueOf(System.currentTimeMillis())))));
+    }
+
+    @Override
+    public boolean writeLock(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        List<String> keys = getReadWriteKeys(lockKey);
+        boolean permit = false;
+        try {
+            permit = acquireLock(lockKey, requestId, leaseTime, waitTime, unit, (key, id, leaseMillis) -> attempted(Objects.equals(1L,
+                    stringRedisTemplate.execute(writeLockLuaScript, keys, id, String.valueOf(leaseMillis),
+                            String.valueOf(System.currentTimeMillis()), String.valueOf(WRITER_WAITING_TIMEOUT)))));
+            return permit;
+        } finally {
+            if (!permit) {
+                // 等待超时或中断，撤销写者等待标记
+                stringRedisTemplate.execute(writeDequeueLuaScript, keys, requestId, LettuceReleaseSubscriber.getChannelName(lockKey));
             }
-            // 避免请求过于频繁
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                throw new DistLockException("Lettuce加锁异常:" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean readUnlock(String lockKey, String requestId) {
+        return readWriteUnlock(lockKey, requestId);
+    }
+
+    @Override
+    public boolean writeUnlock(String lockKey, String requestId) {
+        return readWriteUnlock(lockKey, requestId);
+    }
+
+    private boolean readWriteUnlock(String lockKey, String requestId) {
+        watchdog.cancel(lockKey, requestId);
+        Object result = stringRedisTemplate.execute(readWriteUnlockLuaScript, Collections.singletonList(lockKey),
+                requestId, LettuceReleaseSubscriber.getChannelName(lockKey), String.valueOf(System.currentTimeMillis()));
+        return Objects.equals(1L, result);
+    }
+
+    /**
+     * 读写锁的锁key、写者等待标记
+     * 标记key以锁key为hash tag，集群模式下与锁key位于同一slot
+     *
+     * @param lockKey
+     * @return java.util.List<java.lang.String>
+     * @author hujy
+     * @date 2026-10-19 10:40
+     */
+    private static List<String> getReadWriteKeys(String lockKey) {
+        return Arrays.asList(lockKey, RedisKeys.sameSlot(WRITER_WAITING_PREFIX, lockKey));
+    }
+
+    @Override
+    public boolean fairLock(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        List<String> keys = getFairKeys(lockKey);
+        boolean permit = false;
+        try {
+            permit = acquireLock(lockKey, requestId, leaseTime, waitTime, unit, (key, id, leaseMillis) -> attempted(Objects.equals(1L,
+                    stringRedisTemplate.execute(fairLockLuaScript, keys, id, String.valueOf(leaseMillis),
+                            String.valueOf(FAIR_QUEUE_TIMEOUT), String.valueOf(System.currentTimeMillis())))));
+            return permit;
+        } finally {
+            if (!permit) {
+                // 等待超时或中断，退出队列
+                stringRedisTemplate.execute(fairDequeueLuaScript, keys, requestId, LettuceReleaseSubscriber.getChannelName(lockKey));
             }
         }
     }
 
+    @Override
+    public boolean fairUnlock(String lockKey, String requestId) {
+        watchdog.cancel(lockKey, requestId);
+        Object result = stringRedisTemplate.execute(fairUnlockLuaScript, Collections.singletonList(lockKey),
+                requestId, LettuceReleaseSubscriber.getChannelName(lockKey));
+        return Objects.equals(1L, result);
+    }
+
     /**
-     * 申请获得锁
+     * 公平锁的锁key、等待队列、超时集合
+     * 队列key以锁key为hash tag，集群模式下与锁key位于同一slot
+     *
+     * @param lockKey
+     * @return java.util.List<java.lang.String>
+     * @author hujy
+     * @date 2026-10-18 18:12
+     */
+    private static List<String> getFairKeys(String lockKey) {
+        return Arrays.asList(lockKey, RedisKeys.sameSlot(FAIR_QUEUE_PREFIX, lockKey), RedisKeys.sameSlot(FAIR_TIMEOUT_PREFIX, lockKey));
+    }
+
+    private boolean acquireLock(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit,
+                            Acquirer acquirer) throws DistLockException {
+        return acquireLock(lockKey, requestId, leaseTime, waitTime, unit, defaultWaitStrategy, acquirer, acquirer);
+    }
+
+    /**
+     * 加锁流程，申请失败后订阅锁释放通知，收到通知或等待策略给出的间隔到期后再次申请
      *
      * @param lockKey
      * @param requestId
-     * @param expireTime
+     * @param leaseTime
+     * @param waitTime
      * @param unit
+     * @param waitStrategy
+     * @param acquirer 首次申请
+     * @param retrier 之后每次重试
      * @return boolean
      * @author hujy
+     * @date 2026-10-18 17:40
+     */
+    private boolean acquireLock(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit,
+                            WaitStrategy waitStrategy, Acquirer acquirer, Acquirer retrier) throws DistLockException {
+        long beginTime = System.currentTimeMillis();
+        long leaseMillis = leaseMillis(leaseTime, unit);
+        // 申请获得锁
+        if (acquirer.tryAcquire(lockKey, requestId, leaseMillis) == ACQUIRED) {
+            return acquired(lockKey, requestId, leaseTime);
+        }
+        if (waitTime == 0) {
+            return false;
+        }
+
+        // 订阅锁释放通知，收到通知或重试间隔到期后再次申请
+        LettuceReleaseSubscriber.ReleaseEntry entry = releaseSubscriber != null ? releaseSubscriber.subscribe(lockKey) : null;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long mark = entry != null ? entry.mark() : 0L;
+                long ttl = retrier.tryAcquire(lockKey, requestId, leaseMillis);
+                if (ttl == ACQUIRED) {
+                    return acquired(lockKey, requestId, leaseTime);
+                }
+
+                long interval = waitStrategy.nextDelay(attempt, ttl, entry != null);
+                if (waitTime != -1) {
+                    long remainingWaitTime = unit.toMillis(waitTime) - (System.currentTimeMillis() - beginTime);
+                    // 如果waitTime到了，还没有获得锁，直接返回false
+                    if (remainingWaitTime <= 0L) {
+                        return false;
+                    }
+                    interval = Math.min(interval, remainingWaitTime);
+                }
+                if (entry != null) {
+                    entry.await(mark, interval, TimeUnit.MILLISECONDS);
+                } else {
+                    Thread.sleep(interval);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistLockException("Lettuce加锁异常:" + e.getMessage(), e);
+        } finally {
+            if (entry != null) {
+                releaseSubscriber.unsubscribe(entry);
+            }
+        }
+    }
+
+    /**
+     * 申请获得锁
+     * 首次申请不需要剩余租期(失败后订阅通知并立即重试)，使用可批量的SET NX
+     *
+     * @param lockKey
+     * @param requestId
+     * @param leaseMillis
+     * @return long 获得锁返回ACQUIRED，否则返回WaitStrategy.UNKNOWN_TTL
+     * @author hujy
      * @date 2019-10-21 11:12
      */
-    private Boolean tryAcquire(String lockKey, String requestId, int expireTime, TimeUnit unit) {
-        return stringRedisTemplate.opsForValue().setIfAbsent(lockKey, requestId, Duration.ofMillis(unit.toMillis(expireTime)));
+    private static long tryAcquire(String lockKey, String requestId, long leaseMillis) {
+        if (batcher != null) {
+            return attempted(batcher.setIfAbsent(lockKey, requestId, leaseMillis));
+        }
+        return attempted(Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, requestId, Duration.ofMillis(leaseMillis))));
+    }
+
+    /**
+     * 重试申请获得锁，失败时同时取回持有者的剩余租期
+     *
+     * @param lockKey
+     * @param requestId
+     * @param leaseMillis
+     * @return long 获得锁返回ACQUIRED，否则为持有者剩余租期(毫秒)或WaitStrategy.UNKNOWN_TTL
+     * @author hujy
+     * @date 2026-10-18 23:59
+     */
+    private static long tryAcquireWithTtl(String lockKey, String requestId, long leaseMillis) {
+        Long result = stringRedisTemplate.execute(tryLockLuaScript, Collections.singletonList(lockKey), requestId, String.valueOf(leaseMillis));
+        return result != null ? result : WaitStrategy.UNKNOWN_TTL;
+    }
+
+    /**
+     * 不返回剩余租期的申请结果
+     */
+    private static long attempted(boolean acquired) {
+        return acquired ? ACQUIRED : WaitStrategy.UNKNOWN_TTL;
+    }
+
+    /**
+     * 当前线程已持有该key时重入，持有计数加一
+     * 剩余租期不小于本次租期时不访问redis；否则(或本次需要看门狗续期而之前没有)确认锁仍由自己持有并延长租期
+     *
+     * @param lockKey
+     * @param requestId
+     * @param leaseTime
+     * @param unit
+     * @return boolean 未持有或锁已过期时返回false，按普通加锁处理
+     * @author hujy
+     * @date 2026-10-18 23:40
+     */
+    private static boolean reenter(String lockKey, String requestId, int leaseTime, TimeUnit unit) {
+        Map<String, Hold> holds = THREAD_HOLDS.get();
+        Hold hold = holds.get(lockKey);
+        if (hold == null) {
+            return false;
+        }
+        if (!hold.retain()) {
+            // 已在其他线程释放
+            holds.remove(lockKey, hold);
+            return false;
+        }
+        boolean reentered = false;
+        try {
+            long leaseMillis = leaseMillis(leaseTime, unit);
+            long now = System.currentTimeMillis();
+            boolean extend = leaseTime == -1 ? hold.deadline != Long.MAX_VALUE : hold.deadline - now < leaseMillis;
+            if (extend) {
+                Long result = stringRedisTemplate.execute(reenterLuaScript, Collections.singletonList(lockKey),
+                        hold.owner, String.valueOf(leaseMillis));
+                if (!Objects.equals(1L, result)) {
+                    holds.remove(lockKey, hold);
+                    return false;
+                }
+                if (leaseTime == -1) {
+                    watchdog.register(lockKey, hold.owner);
+                    hold.deadline = Long.MAX_VALUE;
+                } else {
+                    hold.deadline = Math.max(hold.deadline, now + leaseMillis);
+                }
+            }
+            HOLDS.put(holdKey(lockKey, requestId), hold);
+            reentered = true;
+            return true;
+        } finally {
+            if (!reentered && hold.release() == 0) {
+                // 期间外层已释放
+                release(lockKey, hold.owner);
+            }
+        }
+    }
+
+    /**
+     * 登记当前线程获得的锁
+     */
+    private static Hold hold(String lockKey, String requestId, int leaseTime, TimeUnit unit) {
+        long deadline = leaseTime == -1 ? Long.MAX_VALUE : System.currentTimeMillis() + unit.toMillis(leaseTime);
+        Hold hold = new Hold(lockKey, requestId, Thread.currentThread(), deadline);
+        THREAD_HOLDS.get().put(lockKey, hold);
+        HOLDS.put(holdKey(lockKey, requestId), hold);
+        return hold;
+    }
+
+    private static String holdKey(String lockKey, String requestId) {
+        return requestId + ":" + lockKey;
+    }
+
+    /**
+     * 单次加锁申请，获得锁返回ACQUIRED，否则返回持有者剩余租期(毫秒)或WaitStrategy.UNKNOWN_TTL
+     */
+    @FunctionalInterface
+    private interface Acquirer {
+        long tryAcquire(String lockKey, String requestId, long leaseMillis);
+    }
+
+    /**
+     * 租期(毫秒)，-1时使用看门狗租期
+     */
+    private static long leaseMillis(int leaseTime, TimeUnit unit) {
+        return leaseTime == -1 ? watchdog.getWatchdogTimeout() : unit.toMillis(leaseTime);
+    }
+
+    /**
+     * 加锁成功，expireTime为-1时交给看门狗续期
+     */
+    private static boolean acquired(String lockKey, String requestId, int leaseTime) {
+        if (leaseTime == -1) {
+            watchdog.register(lockKey, requestId);
+        }
+        return true;
     }
 
     @Override
     public boolean unlock(String lockKey, String requestId) {
-        Object result = stringRedisTemplate.execute(unlockLuaScript, Collections.singletonList(lockKey), requestId);
+        Hold hold = HOLDS.remove(holdKey(lockKey, requestId));
+        if (hold != null && hold.release() > 0) {
+            // 外层或其他重入仍持有
+            return true;
+        }
+        return release(lockKey, hold != null ? hold.owner : requestId);
+    }
+
+    /**
+     * 释放redis中的锁
+     *
+     * @param lockKey
+     * @param owner 最外层加锁的requestId
+     * @return boolean
+     * @author hujy
+     * @date 2026-10-18 23:42
+     */
+    private static boolean release(String lockKey, String owner) {
+        watchdog.cancel(lockKey, owner);
+        if (batcher != null) {
+            return batcher.unlock(lockKey, owner, LettuceReleaseSubscriber.getChannelName(lockKey));
+        }
+        Object result = stringRedisTemplate.execute(unlockLuaScript, Collections.singletonList(lockKey),
+                owner, LettuceReleaseSubscriber.getChannelName(lockKey));
         return Objects.equals(1L, result);
     }
+
+    @Override
+    public boolean multiLock(List<String> lockKeys, String requestId, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        long beginTime = System.currentTimeMillis();
+        long leaseMillis = leaseMillis(leaseTime, unit);
+        List<List<String>> groups = groupBySlot(lockKeys);
+
+        // 订阅阻塞加锁的key的释放通知
+        String blockedKey = null;
+        LettuceReleaseSubscriber.ReleaseEntry entry = null;
+        int attempt = 0;
+        try {
+            while (true) {
+                long mark = entry != null ? entry.mark() : 0L;
+                String heldKey = tryAcquire(groups, requestId, leaseMillis);
+                if (heldKey == null) {
+                    for (String lockKey : lockKeys) {
+                        acquired(lockKey, requestId, leaseTime);
+                    }
+                    return true;
+                }
+                if (waitTime == 0) {
+                    return false;
+                }
+                if (releaseSubscriber != null && !heldKey.equals(blockedKey)) {
+                    if (entry != null) {
+                        releaseSubscriber.unsubscribe(entry);
+                    }
+                    // 订阅后立即重试一次，避免错过订阅前的释放
+                    blockedKey = heldKey;
+                    entry = releaseSubscriber.subscribe(heldKey);
+                    continue;
+                }
+
+                long interval = defaultWaitStrategy.nextDelay(++attempt, WaitStrategy.UNKNOWN_TTL, entry != null);
+                if (waitTime != -1) {
+                    long remainingWaitTime = unit.toMillis(waitTime) - (System.currentTimeMillis() - beginTime);
+                    if (remainingWaitTime <= 0L) {
+                        return false;
+                    }
+                    interval = Math.min(interval, remainingWaitTime);
+                }
+                if (entry != null) {
+                    entry.await(mark, interval, TimeUnit.MILLISECONDS);
+                } else {
+                    Thread.sleep(interval);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistLockException("Lettuce加锁异常:" + e.getMessage(), e);
+        } finally {
+            if (entry != null) {
+                releaseSubscriber.unsubscribe(entry);
+            }
+        }
+    }
+
+    /**
+     * 逐批申请多key锁，每批全部成功或全部失败，任一批失败时回滚已加锁的批次
+     *
+     * @param groups
+     * @param requestId
+     * @param leaseMillis
+     * @return java.lang.String 被他人持有的key，全部加锁成功时为null
+     * @author hujy
+     * @date 2026-10-18 17:05
+     */
+    private String tryAcquire(List<List<String>> groups, String requestId, long leaseMillis) {
+        for (int i = 0; i < groups.size(); i++) {
+            List<String> keys = groups.get(i);
+            Long result = stringRedisTemplate.execute(multiLockLuaScript, keys, requestId, String.valueOf(leaseMillis));
+            if (result != null && result != 0L) {
+                for (int j = 0; j < i; j++) {
+                    release(groups.get(j), requestId);
+                }
+                return keys.get(result.intValue() - 1);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean multiUnlock(List<String> lockKeys, String requestId) {
+        for (String lockKey : lockKeys) {
+            watchdog.cancel(lockKey, requestId);
+        }
+        long released = 0;
+        for (List<String> keys : groupBySlot(lockKeys)) {
+            released += release(keys, requestId);
+        }
+        return released == lockKeys.size();
+    }
+
+    private long release(List<String> keys, String requestId) {
+        Long result = stringRedisTemplate.execute(multiUnlockLuaScript, keys, requestId, LettuceReleaseSubscriber.CHANNEL_PREFIX);
+        return result != null ? result : 0L;
+    }
+
+    /**
+     * 按slot分批，非集群模式下只有一批
+     * 带有相同hash tag(如 {order}:1、{order}:2)的key位于同一slot，只需一次脚本调用
+     *
+     * @param lockKeys
+     * @return java.util.List<java.util.List<java.lang.String>>
+     * @author hujy
+     * @date 2026-10-18 17:02
+     */
+    private static List<List<String>> groupBySlot(List<String> lockKeys) {
+        if (!cluster) {
+            return Collections.singletonList(lockKeys);
+        }
+        Map<Integer, List<String>> slots = new LinkedHashMap<>();
+        for (String lockKey : lockKeys) {
+            slots.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(lockKey), slot -> new ArrayList<>()).add(lockKey);
+        }
+        return new ArrayList<>(slots.values());
+    }
+
+    @Override
+    public CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit) {
+        return lockAsync(lockKey, requestId, leaseTime, waitTime, unit, defaultWaitStrategy);
+    }
+
+    @Override
+    public CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int leaseTime, int waitTime, TimeUnit unit,
+                                              WaitStrategy waitStrategy, Executor executor) {
+        try {
+            if (reenter(lockKey, requestId, leaseTime, unit)) {
+                return CompletableFuture.completedFuture(true);
+            }
+        } catch (RuntimeException e) {
+            CompletableFuture<Boolean> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new DistLockException("Lettuce加锁异常:" + e.getMessage(), e));
+            return failed;
+        }
+        if (asyncCommands == null) {
+            // 在executor中阻塞加锁，不经过重入：executor的线程不属于调用方，其上登记的持有会被无关的请求重入
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return acquireLock(lockKey, requestId, leaseTime, waitTime, unit, waitStrategy,
+                            LettuceDistLock::tryAcquire, LettuceDistLock::tryAcquireWithTtl);
+                } catch (DistLockException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+        long deadline = waitTime == -1 ? Long.MAX_VALUE : System.currentTimeMillis() + unit.toMillis(waitTime);
+        return new AsyncAcquisition(lockKey, requestId, leaseTime, leaseMillis(leaseTime, unit), waitTime == 0, deadline,
+                waitStrategy).start();
+    }
+
+    @Override
+    public CompletionStage<Boolean> unlockAsync(String lockKey, String requestId, Executor executor) {
+        if (asyncCommands == null) {
+            return DistLockApi.super.unlockAsync(lockKey, requestId, executor);
+        }
+        Hold hold = HOLDS.remove(holdKey(lockKey, requestId));
+        if (hold != null && hold.release() > 0) {
+            return CompletableFuture.completedFuture(true);
+        }
+        String owner = hold != null ? hold.owner : requestId;
+        watchdog.cancel(lockKey, owner);
+        return asyncCommands.execute(unlockLuaScript, Collections.singletonList(lockKey),
+                Arrays.asList(owner, LettuceReleaseSubscriber.getChannelName(lockKey)))
+                .thenApply(result -> Objects.equals(1L, result));
+    }
+
+    /**
+     * 一次普通锁的持有，包括其中的重入
+     */
+    private static final class Hold {
+
+        private final String lockKey;
+
+        /**
+         * 最外层加锁的requestId，即redis中的value
+         */
+        private final String owner;
+
+        /**
+         * 获得锁的线程
+         */
+        private final Thread thread;
+
+        /**
+         * 持有计数，最外层与每次重入各计一次，异步方法可能在其他线程释放
+         */
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        /**
+         * 租期截止时间(毫秒时间戳)，看门狗续期时为Long.MAX_VALUE
+         */
+        private volatile long deadline;
+
+        /**
+         * fencedLock获得时的fencing token，嵌套的fencedLock沿用；lock获得时为0
+         */
+        private volatile long token;
+
+        private Hold(String lockKey, String owner, Thread thread, long deadline) {
+            this.lockKey = lockKey;
+            this.owner = owner;
+            this.thread = thread;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 计数加一，已全部释放时返回false
+         */
+        private boolean retain() {
+            while (true) {
+                int current = count.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (count.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 计数减一，返回剩余计数；归零时从获得锁的线程的持有表中移除(在其他线程归零时由该线程下次加锁时移除)
+         */
+        private int release() {
+            int remaining = count.decrementAndGet();
+            if (remaining == 0 && thread == Thread.currentThread()) {
+                THREAD_HOLDS.get().remove(lockKey, this);
+            }
+            return remaining;
+        }
+    }
+
+    /**
+     * 一次异步加锁过程
+     * 与同步加锁相同：失败后订阅释放通知，收到通知或等待策略给出的间隔到期后再次申请，全程不阻塞线程
+     */
+    private static final class AsyncAcquisition {
+
+        private final String lockKey;
+
+        private final String requestId;
+
+        private final int leaseTime;
+
+        private final long leaseMillis;
+
+        private final boolean tryOnce;
+
+        private final long deadline;
+
+        private final WaitStrategy waitStrategy;
+
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private LettuceReleaseSubscriber.ReleaseEntry entry;
+
+        /**
+         * 已失败的重试次数，各次申请在调度线程上依次执行
+         */
+        private int retries;
+
+        private AsyncAcquisition(String lockKey, String requestId, int leaseTime, long leaseMillis, boolean tryOnce, long deadline,
+                                 WaitStrategy waitStrategy) {
+            this.lockKey = lockKey;
+            this.requestId = requestId;
+            this.leaseTime = leaseTime;
+            this.leaseMillis = leaseMillis;
+            this.tryOnce = tryOnce;
+            this.deadline = deadline;
+            this.waitStrategy = waitStrategy;
+        }
+
+        private CompletionStage<Boolean> start() {
+            asyncCommands.setIfAbsent(lockKey, requestId, leaseMillis)
+                    .whenCompleteAsync((acquired, e) -> onAttempt(e == null ? attempted(Boolean.TRUE.equals(acquired)) : null, e),
+                            asyncScheduler);
+            return result;
+        }
+
+        /**
+         * 重试申请，失败时同时取回持有者的剩余租期
+         */
+        private void attempt() {
+            asyncCommands.execute(tryLockLuaScript, Collections.singletonList(lockKey), Arrays.asList(requestId, String.valueOf(leaseMillis)))
+                    .whenCompleteAsync(this::onAttempt, asyncScheduler);
+        }
+
+        private void onAttempt(Long ttl, Throwable e) {
+            if (e != null) {
+                finish(null, e);
+                return;
+            }
+            if (ttl != null && ttl == ACQUIRED) {
+                finish(acquired(lockKey, requestId, leaseTime), null);
+                return;
+            }
+            long remainingWaitTime = deadline - System.currentTimeMillis();
+            if (tryOnce || remainingWaitTime <= 0L) {
+                finish(false, null);
+                return;
+            }
+            if (entry == null && releaseSubscriber != null) {
+                // 订阅后立即重试一次，避免错过订阅前的释放
+                entry = releaseSubscriber.subscribe(lockKey);
+                attempt();
+                return;
+            }
+            AtomicBoolean woken = new AtomicBoolean();
+            BooleanSupplier wake = () -> {
+                if (woken.compareAndSet(false, true)) {
+                    asyncScheduler.execute(this::attempt);
+                    return true;
+                }
+                return false;
+            };
+            if (entry != null) {
+                entry.awaitAsync(wake);
+            }
+            asyncScheduler.schedule(() -> {
+                if (wake.getAsBoolean() && entry != null) {
+                    entry.cancelAsync(wake);
+                }
+            }, Math.min(waitStrategy.nextDelay(++retries, ttl != null ? ttl : WaitStrategy.UNKNOWN_TTL, entry != null),
+                    remainingWaitTime), TimeUnit.MILLISECONDS);
+        }
+
+        private void finish(Boolean acquired, Throwable e) {
+            if (entry != null) {
+                releaseSubscriber.unsubscribe(entry);
+            }
+            if (e != null) {
+                result.completeExceptionally(new DistLockException("Lettuce加锁异常:" + e.getMessage(), e));
+            } else {
+                result.complete(acquired);
+            }
+        }
+    }
 }
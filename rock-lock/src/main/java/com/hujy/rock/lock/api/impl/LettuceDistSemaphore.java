@@ -0,0 +1,170 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.DistSemaphoreApi;
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.lettuce.LettuceLockConfig;
+import com.hujy.rock.lock.config.lettuce.LockListenerContainer;
+import com.hujy.rock.lock.exception.DistLockException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * lettuce实现分布式信号量
+ * 许可保存在zset中，member为permitId，score为租期截止时间(毫秒时间戳)；
+ * 每次获取前先移除已到期的许可，持有数小于许可总数时加入，key的过期时间取最晚的截止时间
+ * 截止时间由客户端时钟计算，与公平锁一致，各实例间的时钟偏差会计入租期
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 22:30
+ */
+public class LettuceDistSemaphore implements DistSemaphoreApi {
+
+    /**
+     * 不过期许可的截止时间，Lua中可精确表示
+     */
+    private static final long NO_EXPIRE = 1L << 52;
+
+    /**
+     * 获取许可的Lua脚本
+     * ARGV[1]许可总数，ARGV[2]permitId，ARGV[3]当前时间，ARGV[4]截止时间(不过期时为NO_EXPIRE)
+     * 获得许可返回-1；否则返回最早到期的许可还剩多少毫秒，全部不过期时返回-2
+     */
+    private static final String ACQUIRE_LUA = "local now = tonumber(ARGV[3]) "
+            + "redis.call('zremrangebyscore', KEYS[1], '-inf', now) "
+            + "if redis.call('zcard', KEYS[1]) < tonumber(ARGV[1]) then "
+            + "redis.call('zadd', KEYS[1], ARGV[4], ARGV[2]) "
+            + "local last = tonumber(redis.call('zrange', KEYS[1], -1, -1, 'withscores')[2]) "
+            + "if last >= " + NO_EXPIRE + " then "
+            + "redis.call('persist', KEYS[1]) "
+            + "else "
+            + "redis.call('pexpire', KEYS[1], math.ceil(last - now)) "
+            + "end "
+            + "return -1 "
+            + "end "
+            + "local first = tonumber(redis.call('zrange', KEYS[1], 0, 0, 'withscores')[2]) "
+            + "if first >= " + NO_EXPIRE + " then return -2 end "
+            + "return math.ceil(first - now)";
+
+    /**
+     * 归还许可的Lua脚本，归还后向频道发布通知唤醒一个等待者
+     */
+    private static final String RELEASE_LUA = "if redis.call('zrem', KEYS[1], ARGV[1]) == 1 then "
+            + "redis.call('publish', ARGV[2], 0); "
+            + "return 1 "
+            + "else return 0 end";
+
+    /**
+     * 无法订阅归还通知时的重试间隔(毫秒)
+     */
+    private static final long RETRY_INTERVAL = 100L;
+
+    /**
+     * 已订阅归还通知时的兜底重试间隔(毫秒)，许可到期回收不会发布通知，按最早到期时间提前重试
+     */
+    private static final long NOTIFIED_RETRY_INTERVAL = 1000L;
+
+    private final DefaultRedisScript<Long> acquireLuaScript = new DefaultRedisScript<>(ACQUIRE_LUA, Long.class);
+
+    private final DefaultRedisScript<Long> releaseLuaScript = new DefaultRedisScript<>(RELEASE_LUA, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 许可归还通知订阅，监听容器不存在时退化为定时重试
+     */
+    private LettuceReleaseSubscriber releaseSubscriber;
+
+    public LettuceDistSemaphore() {
+        this.stringRedisTemplate = ApplicationContextConfig.getClass(StringRedisTemplate.class);
+        ApplicationContext applicationContext = ApplicationContextConfig.getApplicationContext();
+        if (applicationContext.containsBean(LettuceLockConfig.LOCK_LISTENER_CONTAINER)) {
+            this.releaseSubscriber = new LettuceReleaseSubscriber(applicationContext.getBean(
+                    LettuceLockConfig.LOCK_LISTENER_CONTAINER, LockListenerContainer.class).getContainer());
+        }
+    }
+
+    @Override
+    public String acquire(String semaphoreKey, int permits, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        long beginTime = System.currentTimeMillis();
+        String permitId = UUID.randomUUID().toString();
+        long leaseMillis = leaseTime == -1 ? -1L : unit.toMillis(leaseTime);
+        List<String> keys = Collections.singletonList(semaphoreKey);
+        long expiresIn = tryAcquire(keys, permits, permitId, leaseMillis);
+        if (expiresIn == -1L) {
+            return permitId;
+        }
+        if (waitTime == 0) {
+            return null;
+        }
+
+        // 订阅归还通知，收到通知、最早的许可到期或重试间隔到期后再次申请
+        LettuceReleaseSubscriber.ReleaseEntry entry = releaseSubscriber != null ? releaseSubscriber.subscribe(semaphoreKey) : null;
+        try {
+            while (true) {
+                long mark = entry != null ? entry.mark() : 0L;
+                expiresIn = tryAcquire(keys, permits, permitId, leaseMillis);
+                if (expiresIn == -1L) {
+                    return permitId;
+                }
+
+                long interval = entry != null ? NOTIFIED_RETRY_INTERVAL : RETRY_INTERVAL;
+                if (expiresIn >= 0L) {
+                    interval = Math.min(interval, expiresIn + 1L);
+                }
+                if (waitTime != -1) {
+                    long remainingWaitTime = unit.toMillis(waitTime) - (System.currentTimeMillis() - beginTime);
+                    if (remainingWaitTime <= 0L) {
+                        return null;
+                    }
+                    interval = Math.min(interval, remainingWaitTime);
+                }
+                if (entry != null) {
+                    entry.await(mark, interval, TimeUnit.MILLISECONDS);
+                } else {
+                    Thread.sleep(interval);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistLockException("Lettuce获取许可异常:" + e.getMessage(), e);
+        } finally {
+            if (entry != null) {
+                releaseSubscriber.unsubscribe(entry);
+            }
+        }
+    }
+
+    /**
+     * 申请一个许可
+     *
+     * @param keys
+     * @param permits
+     * @param permitId
+     * @param leaseMillis
+     * @return long 获得许可返回-1，否则为最早到期的许可剩余毫秒数，全部不过期时为-2
+     * @author hujy
+     * @date 2026-10-18 22:35
+     */
+    private long tryAcquire(List<String> keys, int permits, String permitId, long leaseMillis) {
+        long now = System.currentTimeMillis();
+        long deadline = leaseMillis == -1L ? NO_EXPIRE : now + leaseMillis;
+        Long result = stringRedisTemplate.execute(acquireLuaScript, keys, String.valueOf(permits), permitId,
+                String.valueOf(now), String.valueOf(deadline));
+        return Objects.requireNonNull(result);
+    }
+
+    @Override
+    public boolean release(String semaphoreKey, String permitId) {
+        Long result = stringRedisTemplate.execute(releaseLuaScript, Collections.singletonList(semaphoreKey),
+                permitId, LettuceReleaseSubscriber.getChannelName(semaphoreKey));
+        return Objects.equals(1L, result);
+    }
+}
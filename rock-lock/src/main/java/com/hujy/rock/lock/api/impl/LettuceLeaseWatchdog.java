@@ -0,0 +1,194 @@
+package com.hujy.rock.lock.api.impl;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * lettuce锁续期看门狗
+ * 未指定过期时间的锁以watchdogTimeout为租期，JVM内持有的所有租约由一个定时任务每 watchdogTimeout/3 批量续期一次，
+ * 每批一个Lua脚本，集群模式下按slot分批；释放锁时注销租约，停止续期
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 16:20
+ */
+@Slf4j
+class LettuceLeaseWatchdog {
+
+    /**
+     * 批量续期的Lua脚本
+     * KEYS为锁key，ARGV[1]为租期，ARGV[2]为当前时间，ARGV[i+2]为KEYS[i]的requestId，返回每个key是否续期成功
+     * 读写锁为hash结构，以requestId字段是否存在判断持有，续期时同时刷新该持有者的租约到期时间；
+     * 读锁的key可能还有租期更长的其他读者，只延长不缩短
+     */
+    private static final String RENEW_LUA = "local result = {} "
+            + "for i, key in ipairs(KEYS) do "
+            + "local id = ARGV[i + 2] "
+            + "result[i] = 0 "
+            + "if redis.call('type', key).ok == 'hash' then "
+            + "if redis.call('hexists', key, id) == 1 then "
+            + "redis.call('hset', key, id, tonumber(ARGV[2]) + tonumber(ARGV[1])) "
+            + "if redis.call('pttl', key) < tonumber(ARGV[1]) then redis.call('pexpire', key, ARGV[1]) end "
+            + "result[i] = 1 "
+            + "end "
+            + "elseif redis.call('get', key) == id then "
+            + "redis.call('pexpire', key, ARGV[1]); result[i] = 1 "
+            + "end "
+            + "end "
+            + "return result";
+
+    /**
+     * 单个脚本续期的key数量上限，避免脚本执行时间过长
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
+    static final DefaultRedisScript<List<Long>> RENEW_SCRIPT = listScript(RENEW_LUA);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final long watchdogTimeout;
+
+    private final boolean cluster;
+
+    /**
+     * 持有中的租约，读锁同一个key可有多个持有者
+     */
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    LettuceLeaseWatchdog(StringRedisTemplate stringRedisTemplate, long watchdogTimeout, boolean cluster) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.watchdogTimeout = watchdogTimeout;
+        this.cluster = cluster;
+    }
+
+    long getWatchdogTimeout() {
+        return watchdogTimeout;
+    }
+
+    /**
+     * 登记租约
+     *
+     * @param lockKey
+     * @param requestId
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 16:22
+     */
+    void register(String lockKey, String requestId) {
+        leases.add(new Lease(lockKey, requestId));
+        if (scheduler == null) {
+            start();
+        }
+    }
+
+    /**
+     * 注销租约，停止续期
+     *
+     * @param lockKey
+     * @param requestId
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 16:23
+     */
+    void cancel(String lockKey, String requestId) {
+        leases.remove(new Lease(lockKey, requestId));
+    }
+
+    private synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rock-lock-watchdog-");
+        threadFactory.setDaemon(true);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long period = Math.max(1L, watchdogTimeout / 3);
+        executor.scheduleWithFixedDelay(this::renew, period, period, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    /**
+     * 批量续期所有租约，续期失败(锁已过期或被他人持有)的租约不再续期
+     */
+    private void renew() {
+        if (leases.isEmpty()) {
+            return;
+        }
+        try {
+            for (List<Lease> batch : partition()) {
+                renew(batch);
+            }
+        } catch (Exception e) {
+            log.error("lock renew failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void renew(List<Lease> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        Object[] args = new Object[batch.size() + 2];
+        args[0] = String.valueOf(watchdogTimeout);
+        args[1] = String.valueOf(System.currentTimeMillis());
+        for (int i = 0; i < batch.size(); i++) {
+            keys.add(batch.get(i).getLockKey());
+            args[i + 2] = batch.get(i).getRequestId();
+        }
+        List<Long> result = stringRedisTemplate.execute(RENEW_SCRIPT, keys, args);
+        for (int i = 0; i < batch.size(); i++) {
+            if (result == null || !Objects.equals(1L, result.get(i))) {
+                leases.remove(batch.get(i));
+            }
+        }
+    }
+
+    /**
+     * 返回整数数组的脚本，lettuce将数组元素反序列化为Long
+     * 类型参数在运行期擦除，这里的转换只改变编译期类型
+     */
+    @SuppressWarnings("unchecked")
+    private static DefaultRedisScript<List<Long>> listScript(String script) {
+        return new DefaultRedisScript<>(script, (Class<List<Long>>) (Class<?>) List.class);
+    }
+
+    /**
+     * 按批次划分租约，集群模式下同一批次的key位于同一个slot
+     */
+    private List<List<Lease>> partition() {
+        Map<Integer, List<Lease>> slots = new HashMap<>();
+        List<List<Lease>> batches = new ArrayList<>();
+        for (Lease lease : leases) {
+            int slot = cluster ? ClusterSlotHashUtil.calculateSlot(lease.getLockKey()) : 0;
+            List<Lease> batch = slots.get(slot);
+            if (batch == null || batch.size() >= MAX_BATCH_SIZE) {
+                batch = new ArrayList<>();
+                slots.put(slot, batch);
+                batches.add(batch);
+            }
+            batch.add(lease);
+        }
+        return batches;
+    }
+
+    @Value
+    private static class Lease {
+
+        String lockKey;
+
+        String requestId;
+    }
+}
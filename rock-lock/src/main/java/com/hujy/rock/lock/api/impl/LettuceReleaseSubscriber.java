@@ -0,0 +1,242 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.config.lettuce.LettuceLockConfig;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 锁释放通知订阅
+ * 同一个key的本地等待者共享一个频道订阅，最后一个等待者离开时取消订阅
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 11:32
+ */
+class LettuceReleaseSubscriber {
+
+    /**
+     * 锁释放频道前缀
+     */
+    static final String CHANNEL_PREFIX = LettuceLockConfig.LOCK_CHANNEL + ":";
+
+    private static final byte[] WAKE_ALL = "1".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisMessageListenerContainer container;
+
+    /**
+     * 缓存key与等待者
+     * (lockKey -> entry)
+     */
+    private final ConcurrentMap<String, ReleaseEntry> entries = new ConcurrentHashMap<>();
+
+    LettuceReleaseSubscriber(RedisMessageListenerContainer container) {
+        this.container = container;
+    }
+
+    /**
+     * 锁释放频道
+     *
+     * @param lockKey
+     * @return java.lang.String
+     * @author hujy
+     * @date 2026-10-18 11:33
+     */
+    static String getChannelName(String lockKey) {
+        return CHANNEL_PREFIX + lockKey;
+    }
+
+    /**
+     * 登记等待者，第一个等待者负责订阅频道
+     *
+     * @param lockKey
+     * @return com.hujy.rock.lock.api.impl.LettuceReleaseSubscriber.ReleaseEntry
+     * @author hujy
+     * @date 2026-10-18 11:35
+     */
+    ReleaseEntry subscribe(String lockKey) {
+        while (true) {
+            ReleaseEntry entry = entries.computeIfAbsent(lockKey, ReleaseEntry::new);
+            entry.lock.lock();
+            try {
+                // 最后一个等待者刚刚离开，重新创建
+                if (entry.closed) {
+                    continue;
+                }
+                if (entry.waiters++ == 0) {
+                    container.addMessageListener(entry, entry.topic);
+                }
+                return entry;
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 注销等待者，最后一个等待者负责取消订阅
+     *
+     * @param entry
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 11:36
+     */
+    void unsubscribe(ReleaseEntry entry) {
+        entry.lock.lock();
+        try {
+            if (--entry.waiters > 0) {
+                return;
+            }
+            entry.closed = true;
+            // 取消订阅完成后才移除，同一个key的新等待者在此之前阻塞在entry.lock上；
+            // 监听容器的增删监听器不是原子的，新订阅与取消订阅并发时频道可能被退订而新监听器仍在，之后的释放通知全部丢失
+            container.removeMessageListener(entry, entry.topic);
+            entries.remove(entry.lockKey, entry);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * 单个key的等待者集合，每条释放消息唤醒一个等待者，读写锁、公平锁的释放消息唤醒全部等待者
+     */
+    static final class ReleaseEntry implements MessageListener {
+
+        private final String lockKey;
+
+        private final ChannelTopic topic;
+
+        /**
+         * 同步等待者的唤醒信号
+         */
+        private final ReentrantLock signalLock = new ReentrantLock();
+
+        private final Condition released = signalLock.newCondition();
+
+        /**
+         * 待领取的单个唤醒
+         */
+        private int permits;
+
+        /**
+         * 唤醒全部等待者的次数，等待者在每次申请前记录，避免错过申请期间到达的通知
+         */
+        private volatile long generation;
+
+        /**
+         * 异步等待者，返回false表示已被定时重试唤醒过
+         */
+        private final Queue<BooleanSupplier> asyncWaiters = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 订阅与取消订阅会访问网络，使用ReentrantLock而不是synchronized，避免虚拟线程占住载体线程
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private int waiters;
+
+        private boolean closed;
+
+        private ReleaseEntry(String lockKey) {
+            this.lockKey = lockKey;
+            this.topic = new ChannelTopic(getChannelName(lockKey));
+        }
+
+        /**
+         * 消息为0时唤醒一个等待者；为1时唤醒全部等待者(读写锁释放后多个读者可同时获得锁)
+         */
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            boolean all = Arrays.equals(WAKE_ALL, message.getBody());
+            BooleanSupplier waiter;
+            while ((waiter = asyncWaiters.poll()) != null) {
+                if (waiter.getAsBoolean() && !all) {
+                    return;
+                }
+            }
+            signalLock.lock();
+            try {
+                if (all) {
+                    generation++;
+                    released.signalAll();
+                } else {
+                    permits++;
+                    released.signal();
+                }
+            } finally {
+                signalLock.unlock();
+            }
+        }
+
+        /**
+         * 记录当前的唤醒位置，在申请锁之前调用
+         *
+         * @return long
+         * @author hujy
+         * @date 2026-10-18 18:30
+         */
+        long mark() {
+            return generation;
+        }
+
+        /**
+         * 等待锁释放通知或超时
+         *
+         * @param mark 申请锁之前记录的唤醒位置
+         * @param timeout
+         * @param unit
+         * @return boolean 是否收到通知
+         * @author hujy
+         * @date 2026-10-18 11:38
+         */
+        boolean await(long mark, long timeout, TimeUnit unit) throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            signalLock.lock();
+            try {
+                while (true) {
+                    if (generation != mark) {
+                        return true;
+                    }
+                    if (permits > 0) {
+                        permits--;
+                        return true;
+                    }
+                    if (nanos <= 0L) {
+                        return false;
+                    }
+                    nanos = released.awaitNanos(nanos);
+                }
+            } finally {
+                signalLock.unlock();
+            }
+        }
+
+        /**
+         * 登记异步等待者，收到释放通知时回调
+         *
+         * @param waiter
+         * @return void
+         * @author hujy
+         * @date 2026-10-18 14:25
+         */
+        void awaitAsync(BooleanSupplier waiter) {
+            asyncWaiters.add(waiter);
+        }
+
+        void cancelAsync(BooleanSupplier waiter) {
+            asyncWaiters.remove(waiter);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.exception.DistLockException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 进程内实现分布式锁
+ * 语义与redis实现一致：持有者以requestId标识、租期到期自动失效、只有持有者能释放、限时等待；
+ * expireTime为-1时持有期间不会过期(进程即持有者，无需看门狗)
+ * 适用于单实例部署、测试与本地开发，不产生任何网络IO
+ * <p>
+ * 每个key一个条目，只在被持有或有等待者时存在，释放时无等待者即移除，map大小以同时持有的key数量为界；
+ * 条目不在任何全局锁下创建或移除，不同key之间互不影响；
+ * 持有者未释放且租期已过的条目由加锁的线程顺带清理，每个清理间隔最多一次，不使用后台线程
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 21:40
+ */
+public class LocalDistLock implements DistLockApi {
+
+    /**
+     * 过期条目清理间隔
+     */
+    private static final long CLEANUP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long NO_EXPIRE = Long.MAX_VALUE;
+
+    /**
+     * (lockKey -> entry)
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 下次清理的时间(System.nanoTime)
+     */
+    private final AtomicLong nextCleanUp = new AtomicLong(System.nanoTime() + CLEANUP_INTERVAL);
+
+    @Override
+    public boolean lock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        long beginTime = System.nanoTime();
+        long now = beginTime;
+        cleanUpIfDue(now);
+        long leaseNanos = expireTime < 0 ? NO_EXPIRE : unit.toNanos(expireTime);
+        long waitNanos = waitTime < 0 ? Long.MAX_VALUE : unit.toNanos(waitTime);
+        try {
+            while (true) {
+                Entry entry = entries.get(lockKey);
+                if (entry == null) {
+                    // 无竞争时一次putIfAbsent即获得锁
+                    entry = new Entry(requestId, deadline(now, leaseNanos));
+                    if (entries.putIfAbsent(lockKey, entry) == null) {
+                        return true;
+                    }
+                    continue;
+                }
+                entry.lock();
+                try {
+                    if (entry.removed) {
+                        continue;
+                    }
+                    if (entry.owner == null || now - entry.deadline >= 0) {
+                        entry.owner = requestId;
+                        entry.deadline = deadline(now, leaseNanos);
+                        return true;
+                    }
+                    long remaining = waitNanos == Long.MAX_VALUE ? Long.MAX_VALUE : waitNanos - (now - beginTime);
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    // 最多等到当前持有者的租期结束
+                    if (entry.released == null) {
+                        entry.released = entry.newCondition();
+                    }
+                    entry.waiters++;
+                    try {
+                        entry.released.awaitNanos(Math.min(remaining, entry.deadline - now));
+                    } catch (InterruptedException e) {
+                        entry.waiters--;
+                        if (entry.owner == null) {
+                            // 被唤醒后中断，把释放通知交给下一个等待者，没有等待者时移除条目
+                            release(lockKey, entry);
+                        }
+                        throw e;
+                    }
+                    entry.waiters--;
+                } finally {
+                    entry.unlock();
+                }
+                now = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistLockException("local加锁异常:" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean unlock(String lockKey, String requestId) {
+        Entry entry = entries.get(lockKey);
+        if (entry == null) {
+            return false;
+        }
+        entry.lock();
+        try {
+            if (entry.removed || !requestId.equals(entry.owner)) {
+                return false;
+            }
+            // 租期已过说明锁已失效，与redis一致返回false
+            boolean held = System.nanoTime() - entry.deadline < 0;
+            release(lockKey, entry);
+            return held;
+        } finally {
+            entry.unlock();
+        }
+    }
+
+    /**
+     * 释放条目，有等待者时唤醒一个，否则从map中移除，须持有entry.lock
+     */
+    private void release(String lockKey, Entry entry) {
+        entry.owner = null;
+        if (entry.waiters > 0) {
+            entry.released.signal();
+        } else {
+            entry.removed = true;
+            entries.remove(lockKey, entry);
+        }
+    }
+
+    /**
+     * 到达清理时间时由抢到的一个线程清理
+     */
+    private void cleanUpIfDue(long now) {
+        long next = nextCleanUp.get();
+        if (now - next >= 0 && nextCleanUp.compareAndSet(next, now + CLEANUP_INTERVAL)) {
+            cleanUp(now);
+        }
+    }
+
+    /**
+     * 清理无等待者且租期已过或未被持有的条目
+     */
+    void cleanUp(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> mapEntry = iterator.next();
+            Entry entry = mapEntry.getValue();
+            if (!entry.tryLock()) {
+                continue;
+            }
+            try {
+                if (!entry.removed && entry.waiters == 0 && (entry.owner == null || now - entry.deadline >= 0)) {
+                    release(mapEntry.getKey(), entry);
+                }
+            } finally {
+                entry.unlock();
+            }
+        }
+    }
+
+    /**
+     * 不过期时截止时间为 now + Long.MAX_VALUE，按差值比较时同样不会到期
+     */
+    private static long deadline(long now, long leaseNanos) {
+        return now + leaseNanos;
+    }
+
+    /**
+     * key的持有状态，条目本身即为保护这些字段的锁，除初次发布外所有字段都在锁内读写
+     */
+    private static final class Entry extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 释放通知，第一次有等待者时创建
+         */
+        private Condition released;
+
+        private String owner;
+
+        /**
+         * 租期截止时间(System.nanoTime)
+         */
+        private long deadline;
+
+        private int waiters;
+
+        /**
+         * 已从map中移除，持有旧引用的线程须重新获取
+         */
+        private boolean removed;
+
+        private Entry(String owner, long deadline) {
+            this.owner = owner;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.hujy.rock.lock.api.impl;
+
+/**
+ * 锁的辅助key
+ * 辅助key以锁key为hash tag，集群模式下与锁key位于同一slot，可在同一个脚本中访问
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:20
+ */
+final class RedisKeys {
+
+    /**
+     * fencing token计数器前缀
+     * 计数器不设置过期时间：过期后token从1重新开始，保存已见最大token的下游会拒绝之后所有的写入
+     */
+    private static final String FENCING_PREFIX = "rock_lock__fencing:";
+
+    private RedisKeys() {
+    }
+
+    /**
+     * 与锁key位于同一slot的辅助key
+     *
+     * @param prefix
+     * @param lockKey
+     * @return java.lang.String
+     * @author hujy
+     * @date 2026-10-18 23:21
+     */
+    static String sameSlot(String prefix, String lockKey) {
+        return prefix + (hasHashTag(lockKey) ? lockKey : "{" + lockKey + "}");
+    }
+
+    /**
+     * fencing token计数器
+     *
+     * @param lockKey
+     * @return java.lang.String
+     * @author hujy
+     * @date 2026-10-18 23:22
+     */
+    static String fencingKey(String lockKey) {
+        return sameSlot(FENCING_PREFIX, lockKey);
+    }
+
+    private static boolean hasHashTag(String key) {
+        int start = key.indexOf('{');
+        if (start < 0) {
+            return false;
+        }
+        int end = key.indexOf('}', start + 1);
+        return end > start + 1;
+    }
+}
@@ -2,11 +2,27 @@ package com.hujy.rock.lock.api.impl;
 
 
 import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.LockHandle;
+import com.hujy.rock.lock.api.WaitStrategy;
 import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
 import com.hujy.rock.lock.exception.DistLockException;
+import org.redisson.RedissonMultiLock;
 import org.redisson.api.RLock;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.util.ReflectionUtils;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -17,15 +33,133 @@ import java.util.concurrent.TimeUnit;
  */
 public class RedissonDistLock implements DistLockApi {
 
+    /**
+     * 锁仍由当前线程持有时返回fencing token，ARGV[1]为redisson锁hash中当前线程的字段名
+     * token记录在锁hash的rock_lock__fencing字段中，重入时沿用；最外层释放时redisson删除整个hash，token随之清除
+     */
+    private static final String FENCED_LUA = "if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then return 0 end "
+            + "local token = redis.call('hget', KEYS[1], 'rock_lock__fencing') "
+            + "if token then return tonumber(token) end "
+            + "token = redis.call('incr', KEYS[2]) "
+            + "redis.call('hset', KEYS[1], 'rock_lock__fencing', token) "
+            + "return token";
+
     private RedissonClient redissonClient;
 
+    /**
+     * redisson锁hash中持有者字段名的前缀(连接管理器id:)，后接线程id；无法获取时为null，不支持fencing token
+     */
+    private String lockNamePrefix;
+
+    /**
+     * 虚拟线程模式
+     */
+    private boolean virtualThread;
+
     public RedissonDistLock() {
-        this.redissonClient = ApplicationContextConfig.getClass(RedissonClient.class);
+        this(ApplicationContextConfig.getClass(RedissonClient.class),
+                ApplicationContextConfig.getClass(DistLockConfigProperties.class).getVirtualThread().isEnable());
+    }
+
+    RedissonDistLock(RedissonClient redissonClient, boolean virtualThread) {
+        this.redissonClient = redissonClient;
+        this.virtualThread = virtualThread;
+        this.lockNamePrefix = resolveLockNamePrefix(redissonClient);
+    }
+
+    /**
+     * 检查所有节点连通，连接池在此之前已由RedissonClient建立
+     */
+    @Override
+    public void warmUp() throws DistLockException {
+        if (!redissonClient.getNodesGroup().pingAll()) {
+            throw new DistLockException("redisson ping failed");
+        }
     }
 
     @Override
     public boolean lock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        return tryLock(redissonClient.getLock(lockKey), expireTime, waitTime, unit);
+    }
+
+    /**
+     * 凭证保留RLock与加锁线程id，释放时直接unlock，不再重新获取RLock、查询是否由当前线程持有
+     */
+    @Override
+    public LockHandle acquire(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                              WaitStrategy waitStrategy) throws DistLockException {
         RLock lock = redissonClient.getLock(lockKey);
+        if (!tryLock(lock, expireTime, waitTime, unit)) {
+            return LockHandle.FAILED;
+        }
+        long threadId = Thread.currentThread().getId();
+        return () -> unlock(lock, threadId);
+    }
+
+    /**
+     * redisson的加锁脚本无法扩展，获得锁后再执行一次脚本：确认锁仍由当前线程持有时递增token
+     * 锁在两次调用之间已过期时释放并视为加锁失败，保证返回的token一定晚于之前的所有持有者
+     * 同一线程嵌套调用时redisson锁本身可重入，脚本返回外层已生成的token
+     */
+    @Override
+    public long fencedLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        if (lockNamePrefix == null) {
+            throw new DistLockException("fencing token is not supported by " + redissonClient.getClass().getName());
+        }
+        RLock lock = redissonClient.getLock(lockKey);
+        if (!tryLock(lock, expireTime, waitTime, unit)) {
+            return 0L;
+        }
+        Long token;
+        try {
+            token = redissonClient.getScript(StringCodec.INSTANCE).eval(lockKey, RScript.Mode.READ_WRITE, FENCED_LUA,
+                    RScript.ReturnType.INTEGER, Arrays.<Object>asList(lockKey, RedisKeys.fencingKey(lockKey)),
+                    lockNamePrefix + Thread.currentThread().getId());
+        } catch (RuntimeException e) {
+            unlock(lock);
+            throw new DistLockException("redisson获取fencing token异常:" + e.getMessage(), e);
+        }
+        if (token == null || token <= 0L) {
+            unlock(lock);
+            return 0L;
+        }
+        return token;
+    }
+
+    @Override
+    public boolean readLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        return tryLock(redissonClient.getReadWriteLock(lockKey).readLock(), expireTime, waitTime, unit);
+    }
+
+    @Override
+    public boolean readUnlock(String lockKey, String requestId) {
+        return unlock(redissonClient.getReadWriteLock(lockKey).readLock());
+    }
+
+    @Override
+    public boolean writeLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        return tryLock(redissonClient.getReadWriteLock(lockKey).writeLock(), expireTime, waitTime, unit);
+    }
+
+    @Override
+    public boolean writeUnlock(String lockKey, String requestId) {
+        return unlock(redissonClient.getReadWriteLock(lockKey).writeLock());
+    }
+
+    @Override
+    public boolean fairLock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        return tryLock(redissonClient.getFairLock(lockKey), expireTime, waitTime, unit);
+    }
+
+    @Override
+    public boolean fairUnlock(String lockKey, String requestId) {
+        return unlock(redissonClient.getFairLock(lockKey));
+    }
+
+    private boolean tryLock(RLock lock, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        if (virtualThread) {
+            return parkingLock(lock, expireTime, waitTime, unit);
+        }
         try {
             return lock.tryLock(waitTime, expireTime, unit);
         } catch (Exception e) {
@@ -33,13 +167,155 @@ public class RedissonDistLock implements DistLockApi {
         }
     }
 
+    /**
+     * redisson的tryLock在netty promise上以Object.wait等待，虚拟线程会占住载体线程
+     * 改为异步加锁，在CompletableFuture上挂起等待
+     *
+     * @param lock
+     * @param expireTime
+     * @param waitTime
+     * @param unit
+     * @return boolean
+     * @author hujy
+     * @date 2026-10-18 15:40
+     */
+    private boolean parkingLock(RLock lock, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        long threadId = Thread.currentThread().getId();
+        CompletableFuture<Boolean> future = lock.tryLockAsync(waitTime, expireTime, unit, threadId).toCompletableFuture();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 等待被中断但加锁最终成功时，立即释放
+            future.thenAccept(acquired -> {
+                if (acquired) {
+                    lock.unlockAsync(threadId);
+                }
+            });
+            throw new DistLockException("redisson加锁异常:" + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new DistLockException("redisson加锁异常:" + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 连接管理器id，不同redisson版本中getId()的返回值类型不同(UUID/String)，反射调用
+     */
+    private static String resolveLockNamePrefix(RedissonClient redissonClient) {
+        Method getConnectionManager = ReflectionUtils.findMethod(redissonClient.getClass(), "getConnectionManager");
+        if (getConnectionManager == null) {
+            return null;
+        }
+        Object connectionManager = ReflectionUtils.invokeMethod(getConnectionManager, redissonClient);
+        Method getId = connectionManager != null ? ReflectionUtils.findMethod(connectionManager.getClass(), "getId") : null;
+        if (getId == null) {
+            return null;
+        }
+        return ReflectionUtils.invokeMethod(getId, connectionManager) + ":";
+    }
+
     @Override
     public boolean unlock(String lockKey, String requestId) {
-        RLock lock = redissonClient.getLock(lockKey);
-        if (lock != null && lock.isHeldByCurrentThread()) {
-            lock.unlock();
+        return unlock(redissonClient.getLock(lockKey));
+    }
+
+    private boolean unlock(RLock lock) {
+        return unlock(lock, Thread.currentThread().getId());
+    }
+
+    /**
+     * 释放锁，一次调用完成
+     * 未持有锁时redisson以IllegalMonitorStateException结束，不必先查询isHeldByCurrentThread；
+     * 在CompletableFuture上等待，虚拟线程不会占住载体线程
+     *
+     * @param lock
+     * @param threadId 加锁线程id
+     * @return boolean 锁已不由该线程持有(租期已过)时返回false
+     * @author hujy
+     * @date 2026-10-19 00:45
+     */
+    private static boolean unlock(RLock lock, long threadId) {
+        try {
+            lock.unlockAsync(threadId).toCompletableFuture().join();
             return true;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IllegalMonitorStateException) {
+                return false;
+            }
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
+
+    @Override
+    public boolean multiLock(List<String> lockKeys, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        return tryLock(new RedissonMultiLock(getLocks(lockKeys)), expireTime, waitTime, unit);
+    }
+
+    @Override
+    public boolean multiUnlock(List<String> lockKeys, String requestId) {
+        List<RLock> locks = new ArrayList<>(lockKeys.size());
+        for (RLock lock : getLocks(lockKeys)) {
+            if (lock.isHeldByCurrentThread()) {
+                locks.add(lock);
+            }
+        }
+        if (locks.isEmpty()) {
+            return false;
+        }
+        // 并行释放
+        new RedissonMultiLock(locks.toArray(new RLock[0])).unlock();
+        return locks.size() == lockKeys.size();
+    }
+
+    private RLock[] getLocks(List<String> lockKeys) {
+        RLock[] locks = new RLock[lockKeys.size()];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = redissonClient.getLock(lockKeys.get(i));
+        }
+        return locks;
+    }
+
+    @Override
+    public CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) {
+        RLock lock = redissonClient.getLock(lockKey);
+        return lock.tryLockAsync(waitTime, expireTime, unit, getOwnerId(requestId));
+    }
+
+    /**
+     * redisson有原生的异步命令，不占用executor
+     */
+    @Override
+    public CompletionStage<Boolean> lockAsync(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit,
+                                              WaitStrategy waitStrategy, Executor executor) {
+        return lockAsync(lockKey, requestId, expireTime, waitTime, unit);
+    }
+
+    @Override
+    public CompletionStage<Boolean> unlockAsync(String lockKey, String requestId, Executor executor) {
+        return unlockAsync(lockKey, requestId);
+    }
+
+    @Override
+    public CompletionStage<Boolean> unlockAsync(String lockKey, String requestId) {
+        RLock lock = redissonClient.getLock(lockKey);
+        // 未持有锁时redisson以IllegalMonitorStateException结束
+        return lock.unlockAsync(getOwnerId(requestId)).handle((v, e) -> e == null);
+    }
+
+    /**
+     * 异步加锁不绑定线程，以requestId派生的负数作为redisson的持有者标识，避免与线程id冲突
+     *
+     * @param requestId
+     * @return long
+     * @author hujy
+     * @date 2026-10-18 14:10
+     */
+    static long getOwnerId(String requestId) {
+        long h = 1125899906842597L;
+        for (int i = 0; i < requestId.length(); i++) {
+            h = 31 * h + requestId.charAt(i);
         }
-        return false;
+        return h | Long.MIN_VALUE;
     }
 }
@@ -0,0 +1,95 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.DistSemaphoreApi;
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+import com.hujy.rock.lock.exception.DistLockException;
+import org.redisson.api.RFuture;
+import org.redisson.api.RPermitExpirableSemaphore;
+import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * redisson实现分布式信号量，基于RPermitExpirableSemaphore
+ * 许可总数在key第一次获取不到许可时以trySetPermits设置，之后修改permits需先删除key
+ * 不等待(waitTime为0)时同样先初始化再重试一次，新key的第一次获取不会因未初始化而失败
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 22:25
+ */
+public class RedissonDistSemaphore implements DistSemaphoreApi {
+
+    private RedissonClient redissonClient;
+
+    /**
+     * 虚拟线程模式
+     */
+    private boolean virtualThread;
+
+    public RedissonDistSemaphore() {
+        this.redissonClient = ApplicationContextConfig.getClass(RedissonClient.class);
+        this.virtualThread = ApplicationContextConfig.getClass(DistLockConfigProperties.class).getVirtualThread().isEnable();
+    }
+
+    @Override
+    public String acquire(String semaphoreKey, int permits, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        RPermitExpirableSemaphore semaphore = redissonClient.getPermitExpirableSemaphore(semaphoreKey);
+        // 先不等待地获取一次，已初始化的key只需一次往返
+        String permitId = tryAcquire(semaphore, leaseTime, 0, unit);
+        if (permitId != null) {
+            return permitId;
+        }
+        // 获取不到许可可能是key尚未初始化；已初始化且不等待时直接返回
+        boolean initialized = semaphore.trySetPermits(permits);
+        if (!initialized && waitTime == 0) {
+            return null;
+        }
+        return tryAcquire(semaphore, leaseTime, waitTime, unit);
+    }
+
+    private String tryAcquire(RPermitExpirableSemaphore semaphore, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        if (virtualThread) {
+            return parkingAcquire(semaphore, leaseTime, waitTime, unit);
+        }
+        try {
+            return waitTime == -1 ? semaphore.acquire(leaseTime, unit) : semaphore.tryAcquire(waitTime, leaseTime, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistLockException("redisson获取许可异常:" + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new DistLockException("redisson获取许可异常:" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 与RedissonDistLock相同，虚拟线程模式下在CompletableFuture上挂起等待
+     */
+    private String parkingAcquire(RPermitExpirableSemaphore semaphore, int leaseTime, int waitTime, TimeUnit unit) throws DistLockException {
+        RFuture<String> rFuture = waitTime == -1 ? semaphore.acquireAsync(leaseTime, unit)
+                : semaphore.tryAcquireAsync(waitTime, leaseTime, unit);
+        CompletableFuture<String> future = rFuture.toCompletableFuture();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 等待被中断但最终获得许可时，立即归还
+            future.thenAccept(permitId -> {
+                if (permitId != null) {
+                    semaphore.tryReleaseAsync(permitId);
+                }
+            });
+            throw new DistLockException("redisson获取许可异常:" + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new DistLockException("redisson获取许可异常:" + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public boolean release(String semaphoreKey, String permitId) {
+        return redissonClient.getPermitExpirableSemaphore(semaphoreKey).tryRelease(permitId);
+    }
+}
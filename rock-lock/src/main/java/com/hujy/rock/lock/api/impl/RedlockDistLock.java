@@ -0,0 +1,254 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.redisson.RedlockClients;
+import com.hujy.rock.lock.exception.DistLockException;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于多个独立redis主节点的多数派(redlock)实现
+ * 每次申请并行向所有节点发送加锁脚本，多数节点成功且剩余有效期(租期-耗时-时钟漂移)大于0时获得锁，
+ * 加锁耗时取决于第quorum个响应的节点，而不是所有节点耗时之和；失败时释放已加锁的节点，随机间隔后重试
+ * 每个节点的释放在该节点的加锁命令结束后才发出，释放不会先于迟到的加锁到达节点
+ * 单个节点主从切换丢锁时仍有多数节点持有，锁不会被他人获得
+ * 不支持expireTime为-1(看门狗续期)；读写锁、公平锁、多key锁使用DistLockApi的默认排他实现
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:55
+ */
+public class RedlockDistLock implements DistLockApi {
+
+    /**
+     * 加锁的Lua脚本，value为自己的requestId时刷新租期(上一次申请在该节点迟到的成功)
+     */
+    private static final String LOCK_LUA = "local value = redis.call('get', KEYS[1]) "
+            + "if value == ARGV[1] then "
+            + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "return 1 "
+            + "end "
+            + "if value == false then "
+            + "redis.call('set', KEYS[1], ARGV[1], 'px', ARGV[2]) "
+            + "return 1 "
+            + "end "
+            + "return 0";
+
+    /**
+     * 释放锁的Lua脚本，requestId一致才能释放
+     */
+    private static final String UNLOCK_LUA = "if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('del', KEYS[1]) "
+            + "else return 0 end";
+
+    /**
+     * 时钟漂移系数，从有效期中扣除 租期*系数+2毫秒
+     */
+    private static final double CLOCK_DRIFT_FACTOR = 0.01;
+
+    private final RedlockClients clients;
+
+    public RedlockDistLock() {
+        this(ApplicationContextConfig.getClass(RedlockClients.class));
+    }
+
+    RedlockDistLock(RedlockClients clients) {
+        this.clients = clients;
+    }
+
+    /**
+     * 检查可连通的节点达到多数
+     */
+    @Override
+    public void warmUp() throws DistLockException {
+        int reachable = 0;
+        for (int i = 0; i < clients.size(); i++) {
+            RedissonClient client = clients.get(i);
+            if (client != null && client.getNodesGroup().pingAll()) {
+                reachable++;
+            }
+        }
+        if (reachable < clients.quorum()) {
+            throw new DistLockException("redlock reachable nodes " + reachable + " < quorum " + clients.quorum());
+        }
+    }
+
+    /**
+     * 各节点的值为requestId，只删除值相同的key
+     */
+    @Override
+    public boolean isRequestOwned() {
+        return true;
+    }
+
+    @Override
+    public boolean lock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        if (expireTime <= 0) {
+            throw new DistLockException("redlock requires a positive expireTime, lockKey:" + lockKey);
+        }
+        long beginTime = System.currentTimeMillis();
+        long leaseMillis = unit.toMillis(expireTime);
+        long waitMillis = waitTime < 0 ? Long.MAX_VALUE : unit.toMillis(waitTime);
+        try {
+            while (true) {
+                if (tryAcquire(lockKey, requestId, leaseMillis)) {
+                    return true;
+                }
+                long remainingWaitTime = waitMillis - (System.currentTimeMillis() - beginTime);
+                if (remainingWaitTime <= 0L) {
+                    return false;
+                }
+                long retryInterval = clients.getRetryInterval();
+                long interval = ThreadLocalRandom.current().nextLong(retryInterval / 2, retryInterval + 1);
+                Thread.sleep(Math.min(interval, remainingWaitTime));
+            }
+        } catch (InterruptedException e) {
+            // 被中断的申请已按节点释放
+            Thread.currentThread().interrupt();
+            throw new DistLockException("redlock加锁异常:" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 并行向所有节点申请一次，多数节点成功即返回，不等待其余节点
+     * 未获得锁(含等待时被中断)时，每个节点在其加锁命令结束后释放：已成功的节点释放，明确失败的节点跳过，
+     * 超时或出错的节点结果未知，同样释放
+     *
+     * @param lockKey
+     * @param requestId
+     * @param leaseMillis
+     * @return boolean
+     * @author hujy
+     * @date 2026-10-18 23:58
+     */
+    private boolean tryAcquire(String lockKey, String requestId, long leaseMillis) throws InterruptedException {
+        long beginNanos = System.nanoTime();
+        int size = clients.size();
+        int quorum = clients.quorum();
+        CompletableFuture<Boolean> decision = new CompletableFuture<>();
+        AtomicInteger acquired = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Runnable onFailure = () -> {
+            if (failed.incrementAndGet() > size - quorum) {
+                decision.complete(false);
+            }
+        };
+        List<Object> keys = Collections.singletonList(lockKey);
+        List<CompletionStage<Long>> attempts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            RedissonClient client = clients.get(i);
+            if (client == null) {
+                attempts.add(null);
+                onFailure.run();
+                continue;
+            }
+            RFuture<Long> attempt = client.getScript(StringCodec.INSTANCE).evalAsync(lockKey, RScript.Mode.READ_WRITE, LOCK_LUA,
+                    RScript.ReturnType.INTEGER, keys, requestId, String.valueOf(leaseMillis));
+            attempts.add(attempt);
+            attempt.whenComplete((result, e) -> {
+                if (e == null && result != null && result == 1L) {
+                    if (acquired.incrementAndGet() >= quorum) {
+                        decision.complete(true);
+                    }
+                } else {
+                    onFailure.run();
+                }
+            });
+        }
+        boolean permit = false;
+        try {
+            if (decision.get(clients.getNodeTimeout(), TimeUnit.MILLISECONDS)) {
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beginNanos);
+                long validity = leaseMillis - elapsedMillis - (long) (leaseMillis * CLOCK_DRIFT_FACTOR) - 2L;
+                permit = validity > 0L;
+            }
+            return permit;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } finally {
+            if (!permit) {
+                for (int i = 0; i < size; i++) {
+                    releaseAfter(attempts.get(i), clients.get(i), lockKey, requestId);
+                }
+            }
+        }
+    }
+
+    /**
+     * 节点的加锁命令结束后释放该节点，加锁明确失败时不释放
+     */
+    private void releaseAfter(CompletionStage<Long> attempt, RedissonClient client, String lockKey, String requestId) {
+        if (attempt == null) {
+            return;
+        }
+        attempt.whenComplete((result, e) -> {
+            if (e == null && !Objects.equals(1L, result)) {
+                return;
+            }
+            release(client, lockKey, requestId);
+        });
+    }
+
+    private static RFuture<Long> release(RedissonClient client, String lockKey, String requestId) {
+        return client.getScript(StringCodec.INSTANCE).evalAsync(lockKey, RScript.Mode.READ_WRITE, UNLOCK_LUA,
+                RScript.ReturnType.INTEGER, Collections.singletonList(lockKey), requestId);
+    }
+
+    @Override
+    public boolean unlock(String lockKey, String requestId) {
+        CompletableFuture<Integer> released = releaseAsync(lockKey, requestId);
+        try {
+            return released.get(clients.getNodeTimeout(), TimeUnit.MILLISECONDS) >= clients.quorum();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 并行释放所有节点，返回的future在多数节点释放成功或全部节点响应后以释放成功的节点数结束
+     */
+    private CompletableFuture<Integer> releaseAsync(String lockKey, String requestId) {
+        int size = clients.size();
+        int quorum = clients.quorum();
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        AtomicInteger released = new AtomicInteger();
+        AtomicInteger responded = new AtomicInteger();
+        Runnable onResponse = () -> {
+            if (responded.incrementAndGet() == size) {
+                result.complete(released.get());
+            }
+        };
+        for (int i = 0; i < size; i++) {
+            RedissonClient client = clients.get(i);
+            if (client == null) {
+                onResponse.run();
+                continue;
+            }
+            release(client, lockKey, requestId).whenComplete((deleted, e) -> {
+                if (e == null && deleted != null && deleted == 1L && released.incrementAndGet() >= quorum) {
+                    result.complete(released.get());
+                }
+                onResponse.run();
+            });
+        }
+        return result;
+    }
+}
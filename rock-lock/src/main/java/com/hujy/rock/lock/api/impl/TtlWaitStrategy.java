@@ -0,0 +1,38 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.WaitStrategy;
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+
+/**
+ * 按持有者剩余租期等待(默认)
+ * 剩余租期短于固定间隔时在租期到期后立即重试，不必再等满一个间隔，锁过期或释放通知丢失时等待者不会白等；
+ * 其余情况与固定间隔相同：未订阅释放通知时每 interval 重试一次，已订阅时最多等待 max-interval 后兜底重试
+ * 剩余租期未知时退化为固定间隔
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:55
+ */
+public class TtlWaitStrategy implements WaitStrategy {
+
+    private final long interval;
+
+    private final long maxInterval;
+
+    public TtlWaitStrategy() {
+        DistLockConfigProperties.Wait properties = ApplicationContextConfig.getClass(DistLockConfigProperties.class).getWait();
+        this.interval = Math.max(1L, properties.getInterval());
+        this.maxInterval = Math.max(interval, properties.getMaxInterval());
+    }
+
+    @Override
+    public long nextDelay(int attempt, long ttl, boolean notified) {
+        long delay = notified ? maxInterval : interval;
+        if (ttl >= 0L) {
+            // 租期到期后1毫秒，redis已删除过期key
+            delay = Math.min(delay, ttl + 1L);
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,255 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.zookeeper.ZooKeeperConfigProperties;
+import com.hujy.rock.lock.exception.DistLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.locks.PredicateResults;
+import org.apache.curator.framework.recipes.locks.StandardLockInternalsDriver;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * zookeeper实现分布式锁
+ * 每个lockKey对应lockPath下的一个节点，申请者在其下创建临时顺序节点，序号最小者持有锁；
+ * 其余申请者只监听前一个节点，释放锁时只唤醒下一个等待者，没有惊群，天然按申请顺序公平
+ * 节点的创建、排序与前驱判断使用curator InterProcessMutex相同的StandardLockInternalsDriver，
+ * 但持有者以requestId标识而不是线程，异步与响应式方法可以在其他线程释放
+ * <p>
+ * 锁没有租期，expireTime不生效：持有者释放或会话过期(进程宕机后经过sessionTimeout)时节点被删除；
+ * 所有锁共用一个会话，zookeeper 3.4下每个lockKey的父节点释放后保留(3.5及以上为容器节点，空闲后自动删除)
+ * <p>
+ * 连接中断(SUSPENDED)期间无法确认锁是否仍被持有，isHeld返回false；会话过期(LOST)时所有临时节点已被删除，
+ * 持有的锁全部标记为丢失，之后unlock返回false；重新连接(RECONNECTED)后逐个确认节点仍存在
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:15
+ */
+@Slf4j
+public class ZooKeeperDistLock implements DistLockApi {
+
+    private static final String LOCK_NAME = "lock-";
+
+    private final StandardLockInternalsDriver driver = new StandardLockInternalsDriver();
+
+    private final CuratorFramework client;
+
+    private final String lockPath;
+
+    private final int connectionTimeout;
+
+    /**
+     * 持有的锁节点
+     * (requestId:lockKey -> 节点路径)
+     */
+    private final Map<String, String> holders = new ConcurrentHashMap<>();
+
+    /**
+     * 连接中断，尚未恢复或确认会话过期
+     */
+    private volatile boolean suspended;
+
+    public ZooKeeperDistLock() {
+        this(ApplicationContextConfig.getClass(CuratorFramework.class), ApplicationContextConfig.getClass(ZooKeeperConfigProperties.class));
+    }
+
+    private ZooKeeperDistLock(CuratorFramework client, ZooKeeperConfigProperties properties) {
+        this(client, properties.getLockPath(), properties.getConnectionTimeout());
+    }
+
+    ZooKeeperDistLock(CuratorFramework client, String lockPath, int connectionTimeout) {
+        this.client = client;
+        this.lockPath = lockPath;
+        this.connectionTimeout = connectionTimeout;
+        client.getConnectionStateListenable().addListener(this::stateChanged);
+    }
+
+    /**
+     * 锁是否仍由requestId持有
+     * 连接中断期间、会话过期或节点已不存在时返回false
+     *
+     * @param lockKey
+     * @param requestId
+     * @return boolean
+     * @author hujy
+     * @date 2026-10-19 12:00
+     */
+    public boolean isHeld(String lockKey, String requestId) {
+        return !suspended && holders.containsKey(holderKey(lockKey, requestId));
+    }
+
+    private void stateChanged(CuratorFramework client, ConnectionState newState) {
+        switch (newState) {
+            case SUSPENDED:
+                suspended = true;
+                if (!holders.isEmpty()) {
+                    log.warn("zookeeper connection suspended, {} held locks are uncertain", holders.size());
+                }
+                break;
+            case LOST:
+                // 会话过期，临时节点已被删除
+                for (Map.Entry<String, String> holder : holders.entrySet()) {
+                    lost(holder.getKey(), holder.getValue());
+                }
+                suspended = false;
+                break;
+            case RECONNECTED:
+                // 会话可能已在断开期间过期，确认每个节点仍存在
+                for (Map.Entry<String, String> holder : holders.entrySet()) {
+                    verify(holder.getKey(), holder.getValue());
+                }
+                suspended = false;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void verify(String holderKey, String path) {
+        try {
+            client.checkExists().inBackground((c, event) -> {
+                if (event.getResultCode() == KeeperException.Code.NONODE.intValue()) {
+                    lost(holderKey, path);
+                }
+            }).forPath(path);
+        } catch (Exception e) {
+            log.warn("zookeeper check lock node failed -> path:{}", path, e);
+        }
+    }
+
+    private void lost(String holderKey, String path) {
+        if (holders.remove(holderKey, path)) {
+            log.warn("zookeeper lock lost -> holder:{} path:{}", holderKey, path);
+        }
+    }
+
+    /**
+     * 等待会话建立
+     */
+    @Override
+    public void warmUp() throws DistLockException {
+        try {
+            if (!client.blockUntilConnected(connectionTimeout, TimeUnit.MILLISECONDS)) {
+                throw new DistLockException("zookeeper is not connected in " + connectionTimeout + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistLockException("zookeeper连接异常:" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean lock(String lockKey, String requestId, int expireTime, int waitTime, TimeUnit unit) throws DistLockException {
+        long beginNanos = System.nanoTime();
+        long waitNanos = waitTime < 0 ? Long.MAX_VALUE : unit.toNanos(waitTime);
+        String keyPath = ZKPaths.makePath(lockPath, lockKey);
+        String ourPath = null;
+        boolean locked = false;
+        try {
+            ourPath = driver.createsTheLock(client, ZKPaths.makePath(keyPath, LOCK_NAME), null);
+            locked = waitForLock(keyPath, ourPath, beginNanos, waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DistLockException("zookeeper加锁异常:" + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new DistLockException("zookeeper加锁异常:" + e.getMessage(), e);
+        } finally {
+            if (!locked && ourPath != null) {
+                deleteQuietly(ourPath);
+            }
+        }
+        if (locked) {
+            holders.put(holderKey(lockKey, requestId), ourPath);
+        }
+        return locked;
+    }
+
+    /**
+     * 等待自己的节点成为序号最小的节点
+     *
+     * @param keyPath
+     * @param ourPath
+     * @param beginNanos
+     * @param waitNanos
+     * @return boolean 等待超时返回false
+     * @author hujy
+     * @date 2026-10-18 23:20
+     */
+    private boolean waitForLock(String keyPath, String ourPath, long beginNanos, long waitNanos) throws Exception {
+        String sequenceNodeName = ZKPaths.getNodeFromPath(ourPath);
+        while (true) {
+            List<String> children = client.getChildren().forPath(keyPath);
+            children.sort(Comparator.comparing(child -> driver.fixForSorting(child, LOCK_NAME)));
+            // 自己的节点已不存在(会话过期)时抛出NoNodeException
+            PredicateResults result = driver.getsTheLock(client, children, sequenceNodeName, 1);
+            if (result.getsTheLock()) {
+                return true;
+            }
+            long remainingNanos = waitNanos - (System.nanoTime() - beginNanos);
+            if (remainingNanos <= 0L) {
+                return false;
+            }
+            // 只监听前一个节点，它被删除(或连接状态变化)时再检查
+            CountDownLatch latch = new CountDownLatch(1);
+            try {
+                client.getData().usingWatcher((Watcher) event -> latch.countDown())
+                        .forPath(ZKPaths.makePath(keyPath, result.getPathToWatch()));
+            } catch (KeeperException.NoNodeException e) {
+                continue;
+            }
+            latch.await(remainingNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean unlock(String lockKey, String requestId) throws DistLockException {
+        String ourPath = holders.remove(holderKey(lockKey, requestId));
+        if (ourPath == null) {
+            return false;
+        }
+        try {
+            // 连接异常时由curator在后台继续删除
+            client.delete().guaranteed().forPath(ourPath);
+            return true;
+        } catch (KeeperException.NoNodeException e) {
+            // 会话过期，节点已被删除
+            return false;
+        } catch (Exception e) {
+            throw new DistLockException("zookeeper释放锁异常:" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 删除未获得锁的节点，等待被中断时先清除中断标记，避免删除请求被中断而遗留节点
+     */
+    private void deleteQuietly(String path) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            client.delete().guaranteed().forPath(path);
+        } catch (KeeperException.NoNodeException e) {
+            // ignore
+        } catch (Exception e) {
+            log.warn("zookeeper delete lock node failed -> path:{}", path, e);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String holderKey(String lockKey, String requestId) {
+        return requestId + ":" + lockKey;
+    }
+}
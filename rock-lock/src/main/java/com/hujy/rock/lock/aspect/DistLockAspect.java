@@ -1,26 +1,42 @@
 package com.hujy.rock.lock.aspect;
 
 
-import com.hujy.rock.common.extension.ExtensionLoader;
 import com.hujy.rock.lock.annotation.DistLock;
 import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.LockHandle;
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+import com.hujy.rock.lock.constant.DistLockMode;
+import com.hujy.rock.lock.exception.DistLockAcquireException;
+import com.hujy.rock.lock.exception.DistLockException;
+import com.hujy.rock.lock.metrics.DistLockMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
-import org.springframework.core.LocalVariableTableParameterNameDiscoverer;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.Objects;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 
@@ -34,7 +50,71 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 @Aspect
 @EnableAspectJAutoProxy
-public class DistLockAspect {
+@EnableConfigurationProperties(DistLockConfigProperties.class)
+public class DistLockAspect implements SmartInitializingSingleton {
+
+    /**
+     * 缓存方法的执行计划
+     * (Method -> plan)
+     */
+    private final ConcurrentMap<Method, DistLockPlan> planCache = new ConcurrentHashMap<>();
+
+    @Resource
+    private DistLockConfigProperties distLockConfigProperties;
+
+    @Resource
+    private ApplicationContext applicationContext;
+
+    /**
+     * 分布式锁前的本地排队
+     */
+    private LocalLockQueue localLockQueue;
+
+    @PostConstruct
+    public void init() {
+        localLockQueue = new LocalLockQueue(distLockConfigProperties.getLocalQueue().getMaxKeys());
+    }
+
+    /**
+     * 启动预热
+     * 所有单例创建完成后扫描@DistLock方法并构建执行计划，lockType不存在、SpEL语法错误等配置问题在启动时即失败；
+     * 再对用到的每个锁实现调用一次warmUp，预热失败(如redis暂不可用)只打印告警，不影响启动
+     *
+     * @param
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 20:50
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!distLockConfigProperties.getWarmUp().isEnable()) {
+            return;
+        }
+        long beginTime = System.currentTimeMillis();
+        Set<DistLockApi> lockApis = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String beanName : applicationContext.getBeanNamesForType(Object.class, false, false)) {
+            Class<?> beanType = applicationContext.getType(beanName);
+            if (beanType == null) {
+                continue;
+            }
+            ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType), method -> {
+                try {
+                    lockApis.add(getPlan(method).getDistLockApi());
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("invalid @DistLock on method " + method + ": " + e.getMessage(), e);
+                }
+            }, method -> method.isAnnotationPresent(DistLock.class) && !method.isBridge());
+        }
+        for (DistLockApi lockApi : lockApis) {
+            try {
+                lockApi.warmUp();
+            } catch (Exception e) {
+                log.warn("dist lock warm up failed -> {}", lockApi, e);
+            }
+        }
+        log.info("dist lock warm up -> plans:{} implementations:{} cost:{}ms", planCache.size(), lockApis.size(),
+                System.currentTimeMillis() - beginTime);
+    }
 
     /**
      * 定义切点注解
@@ -60,130 +140,426 @@ public class DistLockAspect {
     public Object doAround(ProceedingJoinPoint pjp) throws Throwable {
         // 获取切点所在方法
         Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        DistLockPlan plan = getPlan(method);
         // 根据注解解析key
-        final String lockKey = getLockKey(method, pjp.getArgs());
-        return startLock(lockKey, pjp, method);
+        List<String> lockKeys = plan.generateKeys(pjp.getArgs());
+        if (lockKeys.size() > 1) {
+            if (plan.getResultType() != DistLockPlan.ResultType.SYNC || plan.getMode() != DistLockMode.EXCLUSIVE || plan.isFair()
+                    || plan.isFencing()) {
+                throw new IllegalStateException("multiple lock keys are only supported by synchronous non-fair non-fencing exclusive method " + method);
+            }
+            return multiLock(pjp, plan, lockKeys, UUID.randomUUID().toString());
+        }
+        final String lockKey = lockKeys.get(0);
+        switch (plan.getResultType()) {
+            case COMPLETION_STAGE:
+                return asyncLock(pjp, plan, lockKey, UUID.randomUUID().toString());
+            case MONO:
+            case FLUX:
+                return ReactiveLockSupport.lock(pjp, plan, lockKey);
+            default:
+                // 每个请求的唯一标识
+                String requestId = UUID.randomUUID().toString();
+                return lock(pjp, plan, lockKey, requestId);
+        }
     }
 
-    private Object startLock(final String lockKey, ProceedingJoinPoint pjp, Method method) throws Throwable {
-        DistLock annotation = method.getAnnotation(DistLock.class);
-        // 每个请求的唯一标识
-        String requestId = UUID.randomUUID().toString();
-        return lock(pjp, annotation, lockKey, requestId);
+    /**
+     * 异步lock流程，加锁期间不阻塞调用线程，方法返回的future结束后释放锁
+     * 加锁失败时返回fallback的结果，未配置fallback时返回以null结束的future(乐观锁为以DistLockAcquireException结束)
+     * 加锁与释放的回调在锁实现的IO线程上执行，业务方法、指标、fallback以及返回的future的结束都切换到plan的异步线程池
+     *
+     * @param pjp
+     * @param plan
+     * @param lockKey
+     * @param requestId
+     * @return java.util.concurrent.CompletableFuture<java.lang.Object>
+     * @author hujy
+     * @date 2026-10-18 15:04
+     */
+    private CompletableFuture<Object> asyncLock(ProceedingJoinPoint pjp, DistLockPlan plan, String lockKey, String requestId) {
+        DistLockApi distLock = plan.getDistLockApi();
+        DistLockMetrics metrics = plan.getMetrics();
+        Executor executor = plan.getAsyncExecutor();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        long beginNanos = System.nanoTime();
+        distLock.lockAsync(lockKey, requestId, plan.getExpireTime(), plan.getWaitTime(), plan.getTimeUnit(), plan.getWaitStrategy(), executor)
+                .whenCompleteAsync((permit, e) -> {
+                    long acquiredNanos = System.nanoTime();
+                    if (e != null) {
+                        metrics.error(acquiredNanos - beginNanos);
+                        result.completeExceptionally(e);
+                        return;
+                    }
+                    if (!permit) {
+                        metrics.timeout(acquiredNanos - beginNanos);
+                        plan.getHotKeyProfiler().timeout(lockKey, acquiredNanos - beginNanos);
+                        try {
+                            CompletionStage<?> fallback = (CompletionStage<?>) acquireFailed(pjp, plan, lockKey);
+                            if (fallback == null) {
+                                result.complete(null);
+                            } else {
+                                fallback.whenComplete((value, t) -> {
+                                    if (t != null) {
+                                        result.completeExceptionally(t);
+                                    } else {
+                                        result.complete(value);
+                                    }
+                                });
+                            }
+                        } catch (Throwable t) {
+                            result.completeExceptionally(t);
+                        }
+                        return;
+                    }
+                    metrics.acquired(acquiredNanos - beginNanos, acquiredNanos - beginNanos);
+                    plan.getHotKeyProfiler().acquired(lockKey, acquiredNanos - beginNanos);
+                    CompletionStage<?> stage;
+                    try {
+                        // 执行具体业务逻辑
+                        stage = (CompletionStage<?>) pjp.proceed();
+                    } catch (Throwable t) {
+                        CompletableFuture<Object> failed = new CompletableFuture<>();
+                        failed.completeExceptionally(t);
+                        stage = failed;
+                    }
+                    if (stage == null) {
+                        stage = CompletableFuture.completedFuture(null);
+                    }
+                    // 释放锁后再结束返回的future
+                    stage.whenComplete((value, t) -> distLock.unlockAsync(lockKey, requestId, executor).whenCompleteAsync((released, ue) -> {
+                        asyncReleased(plan, lockKey, acquiredNanos, released, ue);
+                        if (t != null) {
+                            result.completeExceptionally(t);
+                        } else {
+                            result.complete(value);
+                        }
+                    }, executor));
+                }, executor);
+        return result;
     }
 
     /**
      * lock流程
      *
      * @param pjp
-     * @param annotation
+     * @param plan
      * @param lockKey
      * @param requestId
      * @return java.lang.Object
      * @author hujy
      * @date 2019-10-21 10:55
      */
-    private Object lock(ProceedingJoinPoint pjp, DistLock annotation, String lockKey, String requestId) throws Throwable {
-        // 锁失效时间
-        int expireTime = annotation.expireTime();
-        // 锁等待时间
-        int waitTime = annotation.waitTime();
-        // 时间单位
-        TimeUnit timeUnit = annotation.timeUnit();
-        // 实现类型
-        String lockType = annotation.lockType();
-        //获得分布式锁的具体实现对象
-        DistLockApi distLock = getLockImpl(lockType);
+    private Object lock(ProceedingJoinPoint pjp, DistLockPlan plan, String lockKey, String requestId) throws Throwable {
+        if (plan.isLocalQueue()) {
+            return localLock(pjp, plan, lockKey, requestId);
+        }
+        return distLock(pjp, plan, lockKey, requestId, plan.getExpireTime(), plan.getWaitTime(), plan.getTimeUnit(), System.nanoTime());
+    }
+
+    /**
+     * 多key lock流程，全部key加锁成功后执行，不经过本地排队
+     *
+     * @param pjp
+     * @param plan
+     * @param lockKeys
+     * @param requestId
+     * @return java.lang.Object
+     * @author hujy
+     * @date 2026-10-18 17:10
+     */
+    private Object multiLock(ProceedingJoinPoint pjp, DistLockPlan plan, List<String> lockKeys, String requestId) throws Throwable {
+        DistLockApi distLock = plan.getDistLockApi();
+        DistLockMetrics metrics = plan.getMetrics();
+        long beginNanos = System.nanoTime();
+        long acquiredNanos = 0L;
+        boolean permit = false;
 
         try {
-            boolean permit = distLock.lock(lockKey, requestId, expireTime, waitTime, timeUnit);
+            try {
+                permit = distLock.multiLock(lockKeys, requestId, plan.getExpireTime(), plan.getWaitTime(), plan.getTimeUnit());
+            } catch (Throwable t) {
+                metrics.error(System.nanoTime() - beginNanos);
+                // 加锁请求可能已在服务端生效(如响应超时)，尽力释放
+                if (needsCompensation(distLock, t)) {
+                    releaseQuietly(lockKeys.toString(), () -> distLock.multiUnlock(lockKeys, requestId));
+                }
+                throw t;
+            }
             if (permit) {
+                acquiredNanos = System.nanoTime();
+                metrics.acquired(acquiredNanos - beginNanos, acquiredNanos - beginNanos);
+                // 按key分别记录，热点key不会被分散到不同的key组合中
+                for (String lockKey : lockKeys) {
+                    plan.getHotKeyProfiler().acquired(lockKey, acquiredNanos - beginNanos);
+                }
                 // 执行具体业务逻辑
                 return pjp.proceed();
             }
-            return null;
+            long failedNanos = System.nanoTime();
+            metrics.timeout(failedNanos - beginNanos);
+            for (String lockKey : lockKeys) {
+                plan.getHotKeyProfiler().timeout(lockKey, failedNanos - beginNanos);
+            }
+            return acquireFailed(pjp, plan, lockKeys.toString());
 
         } finally {
-            // 释放锁
-            distLock.unlock(lockKey, requestId);
+            // 只释放已获得的锁，加锁失败时不发出释放请求
+            if (permit) {
+                released(plan, acquiredNanos, distLock.multiUnlock(lockKeys, requestId));
+            }
         }
     }
 
     /**
-     * 组装分布式锁key
+     * 先在本地排队，成为队头后再竞争分布式锁
      *
-     * @param method
-     * @param args
-     * @return java.lang.String
+     * @param pjp
+     * @param plan
+     * @param lockKey
+     * @param requestId
+     * @return java.lang.Object
      * @author hujy
-     * @date 2019-10-21 10:49
+     * @date 2026-10-18 13:25
      */
-    private String getLockKey(Method method, Object[] args) {
-        Objects.requireNonNull(method);
-        DistLock annotation = method.getAnnotation(DistLock.class);
-        // 获取lockKey，解析Spring EL
-        String lockKey = annotation.lockKey();
-        lockKey = lockKey.startsWith("#") ? parseKey(annotation.lockKey(), method, args) : lockKey;
-        // 获取分隔符
-        String separator = annotation.separator();
-        // 获取前缀
-        String prefix = annotation.lockPrefix();
-        // 获取后缀
-        String suffix = annotation.lockSuffix();
-        if (StringUtils.isBlank(lockKey)) {
-            throw new IllegalArgumentException("lockKey can't be blank");
+    private Object localLock(ProceedingJoinPoint pjp, DistLockPlan plan, String lockKey, String requestId) throws Throwable {
+        long beginNanos = System.nanoTime();
+        LocalLockQueue.Entry entry = localLockQueue.enter(lockKey);
+        if (entry == null) {
+            // 本地排队的key数量已达上限
+            return distLock(pjp, plan, lockKey, requestId, plan.getExpireTime(), plan.getWaitTime(), plan.getTimeUnit(), beginNanos);
         }
-        StringBuilder keyGenerator = new StringBuilder();
-        // 前缀
-        if (StringUtils.isNotBlank(prefix)) {
-            keyGenerator.append(prefix).append(separator);
+        try {
+            long beginTime = System.currentTimeMillis();
+            long waitTime = toMillis(plan.getWaitTime(), plan.getTimeUnit());
+            if (!entry.tryLock(waitTime, TimeUnit.MILLISECONDS)) {
+                long failedNanos = System.nanoTime();
+                plan.getMetrics().timeout(failedNanos - beginNanos);
+                plan.getHotKeyProfiler().timeout(lockKey, failedNanos - beginNanos);
+                return acquireFailed(pjp, plan, lockKey);
+            }
+            // 本地排队消耗的时间从分布式锁的等待时间中扣除
+            if (waitTime > 0) {
+                waitTime = Math.max(0L, waitTime - (System.currentTimeMillis() - beginTime));
+            }
+            return distLock(pjp, plan, lockKey, requestId, (int) toMillis(plan.getExpireTime(), plan.getTimeUnit()),
+                    (int) waitTime, TimeUnit.MILLISECONDS, beginNanos);
+        } finally {
+            localLockQueue.leave(entry);
         }
-        keyGenerator.append(lockKey.trim());
-        // 后缀
-        if (StringUtils.isNotBlank(suffix)) {
-            keyGenerator.append(separator).append(suffix);
+    }
+
+    private Object distLock(ProceedingJoinPoint pjp, DistLockPlan plan, String lockKey, String requestId,
+                            int expireTime, int waitTime, TimeUnit timeUnit, long beginNanos) throws Throwable {
+        //获得分布式锁的具体实现对象
+        DistLockApi distLock = plan.getDistLockApi();
+        DistLockMetrics metrics = plan.getMetrics();
+        long acquireNanos = System.nanoTime();
+        long acquiredNanos = 0L;
+        long fencingToken = 0L;
+        boolean permit = false;
+        LockHandle handle = LockHandle.FAILED;
+
+        try {
+            try {
+                switch (plan.getMode()) {
+                    case READ:
+                        permit = distLock.readLock(lockKey, requestId, expireTime, waitTime, timeUnit);
+                        break;
+                    case WRITE:
+                        permit = distLock.writeLock(lockKey, requestId, expireTime, waitTime, timeUnit);
+                        break;
+                    default:
+                        if (plan.isFencing()) {
+                            fencingToken = distLock.fencedLock(lockKey, requestId, expireTime, waitTime, timeUnit);
+                            permit = fencingToken > 0L;
+                        } else if (plan.isFair()) {
+                            permit = distLock.fairLock(lockKey, requestId, expireTime, waitTime, timeUnit);
+                        } else {
+                            handle = distLock.acquire(lockKey, requestId, expireTime, waitTime, timeUnit, plan.getWaitStrategy());
+                            permit = handle.isAcquired();
+                        }
+                }
+            } catch (Throwable t) {
+                metrics.error(System.nanoTime() - acquireNanos);
+                // 加锁请求可能已在服务端生效(如响应超时)，尽力释放
+                if (needsCompensation(distLock, t)) {
+                    releaseQuietly(lockKey, () -> release(plan, LockHandle.FAILED, lockKey, requestId));
+                }
+                throw t;
+            }
+            if (permit) {
+                acquiredNanos = System.nanoTime();
+                metrics.acquired(acquiredNanos - acquireNanos, acquiredNanos - beginNanos);
+                plan.getHotKeyProfiler().acquired(lockKey, acquiredNanos - beginNanos);
+                // 执行具体业务逻辑
+                return plan.isFencing() ? proceedFenced(pjp, plan, fencingToken) : pjp.proceed();
+            }
+            long failedNanos = System.nanoTime();
+            metrics.timeout(failedNanos - acquireNanos);
+            plan.getHotKeyProfiler().timeout(lockKey, failedNanos - beginNanos);
+            return acquireFailed(pjp, plan, lockKey);
+
+        } finally {
+            // 只释放已获得的锁，加锁失败时不发出释放请求
+            if (permit) {
+                released(plan, acquiredNanos, release(plan, handle, lockKey, requestId));
+            }
+        }
+    }
+
+    /**
+     * 按锁模式释放，持有凭证的锁通过凭证释放
+     *
+     * @param plan
+     * @param handle
+     * @param lockKey
+     * @param requestId
+     * @return boolean
+     * @author hujy
+     * @date 2026-10-19 00:50
+     */
+    private static boolean release(DistLockPlan plan, LockHandle handle, String lockKey, String requestId) throws DistLockException {
+        if (handle.isAcquired()) {
+            return handle.release();
+        }
+        DistLockApi distLock = plan.getDistLockApi();
+        switch (plan.getMode()) {
+            case READ:
+                return distLock.readUnlock(lockKey, requestId);
+            case WRITE:
+                return distLock.writeUnlock(lockKey, requestId);
+            default:
+                return plan.isFair() ? distLock.fairUnlock(lockKey, requestId) : distLock.unlock(lockKey, requestId);
         }
+    }
 
-        return keyGenerator.toString().trim();
+    /**
+     * 加锁异常后是否需要补偿释放
+     * 只有持有者由本次调用的requestId唯一标识时才释放，以线程为持有者的实现可能释放外层调用的重入计数；
+     * 等待中被中断时加锁命令还未发出(或由实现自行补偿)，不需要释放
+     */
+    static boolean needsCompensation(DistLockApi distLock, Throwable t) {
+        if (!distLock.isRequestOwned()) {
+            return false;
+        }
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * 加锁异常后尽力释放，释放失败只打印告警，不掩盖加锁异常
+     */
+    private static void releaseQuietly(String lockKey, LockHandle handle) {
+        try {
+            handle.release();
+        } catch (Throwable t) {
+            log.warn("dist lock release after acquire failure failed -> lockKey:{}", lockKey, t);
+        }
+    }
 
     /**
-     * 解析key，支持Spring EL表达式
+     * 带fencing token执行业务方法，token写入DistLockContext并注入@FencingToken参数
      *
-     * @param key
-     * @param method
-     * @param args
-     * @return java.lang.String
+     * @param pjp
+     * @param plan
+     * @param fencingToken
+     * @return java.lang.Object
      * @author hujy
-     * @date 2019-10-21 10:51
+     * @date 2026-10-18 23:40
      */
-    private String parseKey(String key, Method method, Object[] args) {
-        // 获取被拦截方法参数名列表(使用Spring支持类库)
-        LocalVariableTableParameterNameDiscoverer u =
-                new LocalVariableTableParameterNameDiscoverer();
-        String[] paraNameArr = u.getParameterNames(method);
+    private static Object proceedFenced(ProceedingJoinPoint pjp, DistLockPlan plan, long fencingToken) throws Throwable {
+        Object[] args = pjp.getArgs();
+        if (plan.getFencingTokenIndex() >= 0) {
+            args[plan.getFencingTokenIndex()] = fencingToken;
+        }
+        long previous = DistLockContext.enter(fencingToken);
+        try {
+            return pjp.proceed(args);
+        } finally {
+            DistLockContext.exit(previous);
+        }
+    }
 
-        // 使用Spring EL进行key的解析
-        ExpressionParser parser = new SpelExpressionParser();
-        StandardEvaluationContext context = new StandardEvaluationContext();
-        assert paraNameArr != null;
-        for (int i = 0; i < paraNameArr.length; i++) {
-            context.setVariable(paraNameArr[i], args[i]);
+    /**
+     * 加锁失败
+     * 配置了fallbackMethod时在目标对象上调用；否则乐观锁抛出DistLockAcquireException，非乐观锁返回null
+     *
+     * @param pjp
+     * @param plan
+     * @param lockKey
+     * @return java.lang.Object
+     * @author hujy
+     * @date 2026-10-18 23:05
+     */
+    static Object acquireFailed(ProceedingJoinPoint pjp, DistLockPlan plan, String lockKey) throws Throwable {
+        Method fallbackMethod = plan.getFallbackMethod();
+        if (fallbackMethod != null) {
+            try {
+                return fallbackMethod.invoke(pjp.getTarget(), pjp.getArgs());
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+        if (plan.isOptimistic()) {
+            throw new DistLockAcquireException(lockKey);
         }
-        return Objects.requireNonNull(parser.parseExpression(key).getValue(context)).toString();
+        return null;
     }
 
     /**
-     * 获取实现类对象
+     * 记录持锁时长；解锁失败或持锁时长超过租期说明释放前锁已过期，期间可能已被其他请求获得
      *
-     * @param type
-     * @return com.hujy.rock.lock.api.DistLockApi
+     * @param plan
+     * @param acquiredNanos
+     * @param released
+     * @return void
      * @author hujy
-     * @date 2020-11-18 14:18
+     * @date 2026-10-18 19:40
      */
-    private DistLockApi getLockImpl(String type) {
-        log.info("lock type -> {}", type);
-        return (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(type);
+    static void released(DistLockPlan plan, long acquiredNanos, boolean released) {
+        long holdNanos = System.nanoTime() - acquiredNanos;
+        boolean expired = !released || (plan.getLeaseNanos() > 0 && holdNanos > plan.getLeaseNanos());
+        plan.getMetrics().released(holdNanos, expired);
+    }
+
+    /**
+     * 异步释放完成，释放异常时打印告警并按释放失败记录，不影响业务结果
+     */
+    static void asyncReleased(DistLockPlan plan, String lockKey, long acquiredNanos, Boolean released, Throwable e) {
+        if (e != null) {
+            log.warn("dist lock async release failed -> lockKey:{}", lockKey, e);
+        }
+        released(plan, acquiredNanos, e == null && Boolean.TRUE.equals(released));
+    }
+
+    /**
+     * 转换为毫秒，-1等负值保持原义
+     */
+    private static long toMillis(int time, TimeUnit unit) {
+        if (time < 0) {
+            return time;
+        }
+        return Math.min(unit.toMillis(time), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 获取方法的执行计划，每个方法只解析一次
+     *
+     * @param method
+     * @return com.hujy.rock.lock.aspect.DistLockPlan
+     * @author hujy
+     * @date 2026-10-18 10:52
+     */
+    public DistLockPlan getPlan(Method method) {
+        DistLockPlan plan = planCache.get(method);
+        if (plan == null) {
+            plan = planCache.computeIfAbsent(method, DistLockPlan::of);
+        }
+        return plan;
     }
 }
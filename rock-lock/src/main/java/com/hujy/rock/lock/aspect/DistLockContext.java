@@ -0,0 +1,42 @@
+package com.hujy.rock.lock.aspect;
+
+/**
+ * 当前线程持有的分布式锁信息
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:32
+ */
+public final class DistLockContext {
+
+    private static final ThreadLocal<long[]> FENCING_TOKEN = ThreadLocal.withInitial(() -> new long[1]);
+
+    private DistLockContext() {
+    }
+
+    /**
+     * 当前线程所在@DistLock(fencing = true)方法的fencing token，嵌套时为最内层的锁，不在此类方法内时返回0
+     *
+     * @param
+     * @return long
+     * @author hujy
+     * @date 2026-10-18 23:33
+     */
+    public static long getFencingToken() {
+        return FENCING_TOKEN.get()[0];
+    }
+
+    /**
+     * 进入加锁方法，返回外层的token，退出时恢复
+     */
+    static long enter(long fencingToken) {
+        long[] holder = FENCING_TOKEN.get();
+        long previous = holder[0];
+        holder[0] = fencingToken;
+        return previous;
+    }
+
+    static void exit(long previous) {
+        FENCING_TOKEN.get()[0] = previous;
+    }
+}
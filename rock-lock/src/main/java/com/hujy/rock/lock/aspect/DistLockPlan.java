@@ -0,0 +1,307 @@
+package com.hujy.rock.lock.aspect;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.common.extension.SPI;
+import com.hujy.rock.lock.annotation.DistLock;
+import com.hujy.rock.lock.annotation.FencingToken;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.WaitStrategy;
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import com.hujy.rock.lock.config.lock.AsyncLockConfig;
+import com.hujy.rock.lock.constant.DistLockMode;
+import com.hujy.rock.lock.metrics.DistLockMetrics;
+import com.hujy.rock.lock.metrics.HotKeyProfiler;
+import com.hujy.rock.lock.metrics.MicrometerDistLockMetrics;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个@DistLock方法的预编译执行计划
+ * 注解属性、参数名、SpEL表达式、key前后缀以及锁实现对象在首次调用时解析一次，之后每次调用直接复用
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 10:35
+ */
+@Slf4j
+@Getter
+public class DistLockPlan {
+
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono", DistLockPlan.class.getClassLoader());
+
+    private static final boolean MICROMETER_PRESENT = ClassUtils.isPresent("io.micrometer.core.instrument.MeterRegistry", DistLockPlan.class.getClassLoader());
+
+    private final Method method;
+
+    private final DistLock annotation;
+
+    private final int expireTime;
+
+    private final int waitTime;
+
+    private final TimeUnit timeUnit;
+
+    private final String lockType;
+
+    private final boolean localQueue;
+
+    private final DistLockMode mode;
+
+    private final boolean fair;
+
+    /**
+     * 乐观锁只尝试一次，waitTime为0
+     */
+    private final boolean optimistic;
+
+    /**
+     * 是否生成fencing token
+     */
+    private final boolean fencing;
+
+    /**
+     * @FencingToken参数的下标，没有时为-1
+     */
+    private final int fencingTokenIndex;
+
+    /**
+     * 加锁失败时调用的方法，未配置时为null
+     */
+    private final Method fallbackMethod;
+
+    /**
+     * 方法返回值类型，决定同步还是异步加锁
+     */
+    private final ResultType resultType;
+
+    /**
+     * 分布式锁的具体实现对象
+     */
+    private final DistLockApi distLockApi;
+
+    /**
+     * 加锁等待策略
+     */
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * 锁指标
+     */
+    private final DistLockMetrics metrics;
+
+    /**
+     * 热点key竞争分析，所有方法共用
+     */
+    private final HotKeyProfiler hotKeyProfiler;
+
+    /**
+     * 异步方法加锁后执行业务方法、指标与fallback的线程池，同步方法为null
+     */
+    private final Executor asyncExecutor;
+
+    /**
+     * 租期(纳秒)，用于判断释放前租期是否已过期；由看门狗续期时为0
+     */
+    private final long leaseNanos;
+
+    /**
+     * 预编译的lockKey
+     */
+    @Getter(AccessLevel.NONE)
+    private final KeyExpression keyExpression;
+
+    private DistLockPlan(Method method) {
+        this.method = Objects.requireNonNull(method);
+        this.annotation = method.getAnnotation(DistLock.class);
+        if (annotation == null) {
+            throw new IllegalStateException("method " + method + " is not annotated with @DistLock");
+        }
+        this.expireTime = annotation.expireTime();
+        this.optimistic = annotation.optimistic();
+        this.waitTime = optimistic ? 0 : annotation.waitTime();
+        this.timeUnit = annotation.timeUnit();
+        this.lockType = annotation.lockType();
+        this.localQueue = annotation.localQueue();
+        this.mode = annotation.mode();
+        this.fair = annotation.fair();
+        this.resultType = resolveResultType(method.getReturnType());
+        if (localQueue && resultType != ResultType.SYNC) {
+            throw new IllegalStateException("localQueue is not supported by asynchronous method " + method);
+        }
+        if (mode != DistLockMode.EXCLUSIVE && (localQueue || resultType != ResultType.SYNC)) {
+            throw new IllegalStateException("mode " + mode + " is not supported by localQueue or asynchronous method " + method);
+        }
+        if (fair && (mode != DistLockMode.EXCLUSIVE || resultType != ResultType.SYNC)) {
+            throw new IllegalStateException("fair lock is only supported by synchronous exclusive method " + method);
+        }
+        this.fencing = annotation.fencing();
+        if (fencing && (mode != DistLockMode.EXCLUSIVE || fair || resultType != ResultType.SYNC)) {
+            throw new IllegalStateException("fencing token is only supported by synchronous non-fair exclusive method " + method);
+        }
+        this.fencingTokenIndex = indexOfFencingToken(method);
+        if (fencingTokenIndex >= 0 && !fencing) {
+            throw new IllegalStateException("@FencingToken parameter requires @DistLock(fencing = true) on method " + method);
+        }
+        this.fallbackMethod = resolveFallbackMethod(method, annotation.fallbackMethod());
+        this.distLockApi = getLockImpl(lockType);
+        this.waitStrategy = (WaitStrategy) ExtensionLoader.getExtensionLoader(WaitStrategy.class).getExtension(annotation.waitStrategy().trim());
+        this.leaseNanos = expireTime > 0 ? timeUnit.toNanos(expireTime) : 0L;
+        this.metrics = MICROMETER_PRESENT
+                ? MicrometerDistLockMetrics.of(method, resolveLockType(lockType), annotation.lockPrefix().trim())
+                : DistLockMetrics.NOOP;
+        this.hotKeyProfiler = resolveHotKeyProfiler();
+        this.asyncExecutor = resultType != ResultType.SYNC ? resolveAsyncExecutor() : null;
+
+        this.keyExpression = KeyExpression.of(method, annotation.lockKey(), annotation.lockPrefix(),
+                annotation.lockSuffix(), annotation.separator());
+        log.info("dist lock plan -> method:{} lockType:{} lockKey:{}", method, lockType, annotation.lockKey());
+    }
+
+    /**
+     * 构建方法的执行计划
+     *
+     * @param method
+     * @return com.hujy.rock.lock.aspect.DistLockPlan
+     * @author hujy
+     * @date 2026-10-18 10:36
+     */
+    public static DistLockPlan of(Method method) {
+        return new DistLockPlan(method);
+    }
+
+    /**
+     * 组装分布式锁key
+     * lockKey解析为集合或数组时每个元素各组装一个key，去重并排序，所有调用方按相同顺序加锁
+     *
+     * @param args
+     * @return java.util.List<java.lang.String>
+     * @author hujy
+     * @date 2026-10-18 10:38
+     */
+    public List<String> generateKeys(Object[] args) {
+        return keyExpression.generateKeys(args);
+    }
+
+    static ResultType resolveResultType(Class<?> returnType) {
+        if (CompletionStage.class.isAssignableFrom(returnType) && returnType.isAssignableFrom(CompletableFuture.class)) {
+            return ResultType.COMPLETION_STAGE;
+        }
+        if (REACTOR_PRESENT) {
+            return ReactiveLockSupport.resolveResultType(returnType);
+        }
+        return ResultType.SYNC;
+    }
+
+    private static int indexOfFencingToken(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation parameterAnnotation : parameterAnnotations[i]) {
+                if (parameterAnnotation instanceof FencingToken) {
+                    Class<?> type = method.getParameterTypes()[i];
+                    if (type != long.class && type != Long.class) {
+                        throw new IllegalStateException("@FencingToken parameter must be long or Long on method " + method);
+                    }
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 在方法所在类及其父类中查找参数列表相同的fallback方法
+     */
+    private static Method resolveFallbackMethod(Method method, String name) {
+        if (StringUtils.isBlank(name)) {
+            return null;
+        }
+        Method fallback = ReflectionUtils.findMethod(method.getDeclaringClass(), name.trim(), method.getParameterTypes());
+        if (fallback == null) {
+            throw new IllegalStateException("fallbackMethod " + name + " with the same parameters not found for method " + method);
+        }
+        if (!ClassUtils.isAssignable(method.getReturnType(), fallback.getReturnType())) {
+            throw new IllegalStateException("fallbackMethod " + fallback + " returns " + fallback.getReturnType().getName()
+                    + " which is not assignable to " + method.getReturnType().getName());
+        }
+        ReflectionUtils.makeAccessible(fallback);
+        return fallback;
+    }
+
+    /**
+     * 未指定lockType时取扩展点的默认实现名称
+     */
+    private static String resolveLockType(String type) {
+        return StringUtils.isNotBlank(type) ? type : DistLockApi.class.getAnnotation(SPI.class).value();
+    }
+
+    /**
+     * 容器中的热点key竞争分析，未开启或不在容器中运行时为空实现
+     */
+    private static HotKeyProfiler resolveHotKeyProfiler() {
+        ApplicationContext applicationContext = ApplicationContextConfig.getApplicationContext();
+        if (applicationContext == null) {
+            return HotKeyProfiler.NOOP;
+        }
+        return applicationContext.getBeanProvider(HotKeyProfiler.class).getIfUnique(() -> HotKeyProfiler.NOOP);
+    }
+
+    /**
+     * 容器中的异步方法线程池，不在容器中运行时使用ForkJoinPool.commonPool()
+     */
+    private static Executor resolveAsyncExecutor() {
+        ApplicationContext applicationContext = ApplicationContextConfig.getApplicationContext();
+        if (applicationContext == null || !applicationContext.containsBean(AsyncLockConfig.ASYNC_EXECUTOR)) {
+            return ForkJoinPool.commonPool();
+        }
+        return applicationContext.getBean(AsyncLockConfig.ASYNC_EXECUTOR, Executor.class);
+    }
+
+    /**
+     * 获取实现类对象
+     *
+     * @param type
+     * @return com.hujy.rock.lock.api.DistLockApi
+     * @author hujy
+     * @date 2020-11-18 14:18
+     */
+    private static DistLockApi getLockImpl(String type) {
+        return (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(type);
+    }
+
+    /**
+     * 方法返回值类型
+     */
+    public enum ResultType {
+        /**
+         * 同步方法，持锁执行完毕后释放
+         */
+        SYNC,
+        /**
+         * 返回CompletableFuture/CompletionStage，future结束后释放
+         */
+        COMPLETION_STAGE,
+        /**
+         * 返回Mono，订阅结束后释放
+         */
+        MONO,
+        /**
+         * 返回Flux，订阅结束后释放
+         */
+        FLUX
+    }
+}
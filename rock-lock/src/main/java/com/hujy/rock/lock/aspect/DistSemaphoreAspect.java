@@ -0,0 +1,102 @@
+package com.hujy.rock.lock.aspect;
+
+import com.hujy.rock.lock.api.DistSemaphoreApi;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 分布式信号量切面
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 22:45
+ */
+@Slf4j
+@Configuration
+@Aspect
+public class DistSemaphoreAspect {
+
+    /**
+     * 缓存方法的执行计划
+     * (Method -> plan)
+     */
+    private final ConcurrentMap<Method, DistSemaphorePlan> planCache = new ConcurrentHashMap<>();
+
+    /**
+     * 定义切点注解
+     *
+     * @param
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 22:45
+     */
+    @Pointcut("@annotation(com.hujy.rock.lock.annotation.DistSemaphore)")
+    public void distSemaphorePointcut() {
+    }
+
+    /**
+     * 获得许可后执行方法，返回后归还；等待超时返回null
+     *
+     * @param pjp
+     * @return java.lang.Object
+     * @author hujy
+     * @date 2026-10-18 22:46
+     */
+    @Around("distSemaphorePointcut()")
+    public Object doAround(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        DistSemaphorePlan plan = getPlan(method);
+        String semaphoreKey = plan.generateKey(pjp.getArgs());
+        DistSemaphoreApi semaphore = plan.getDistSemaphoreApi();
+
+        String permitId = semaphore.acquire(semaphoreKey, plan.getPermits(), plan.getLeaseTime(), plan.getWaitTime(), plan.getTimeUnit());
+        if (permitId == null) {
+            log.info("dist semaphore timeout -> key:{}", semaphoreKey);
+            return null;
+        }
+        try {
+            // 执行具体业务逻辑
+            return pjp.proceed();
+        } finally {
+            release(semaphore, semaphoreKey, permitId);
+        }
+    }
+
+    /**
+     * 归还许可，归还异常只打印告警，不掩盖业务方法的返回值或异常；未归还的许可在租期到期后失效
+     */
+    private static void release(DistSemaphoreApi semaphore, String semaphoreKey, String permitId) {
+        try {
+            if (!semaphore.release(semaphoreKey, permitId)) {
+                log.warn("dist semaphore permit expired before release -> key:{} permitId:{}", semaphoreKey, permitId);
+            }
+        } catch (Throwable t) {
+            log.warn("dist semaphore release failed -> key:{} permitId:{}", semaphoreKey, permitId, t);
+        }
+    }
+
+    /**
+     * 获取方法的执行计划，每个方法只解析一次
+     *
+     * @param method
+     * @return com.hujy.rock.lock.aspect.DistSemaphorePlan
+     * @author hujy
+     * @date 2026-10-18 22:47
+     */
+    public DistSemaphorePlan getPlan(Method method) {
+        DistSemaphorePlan plan = planCache.get(method);
+        if (plan == null) {
+            plan = planCache.computeIfAbsent(method, DistSemaphorePlan::of);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,100 @@
+package com.hujy.rock.lock.aspect;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.annotation.DistSemaphore;
+import com.hujy.rock.lock.api.DistSemaphoreApi;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个@DistSemaphore方法的预编译执行计划
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 22:40
+ */
+@Slf4j
+@Getter
+public class DistSemaphorePlan {
+
+    private final Method method;
+
+    private final DistSemaphore annotation;
+
+    private final int permits;
+
+    private final int waitTime;
+
+    private final int leaseTime;
+
+    private final TimeUnit timeUnit;
+
+    private final String semaphoreType;
+
+    /**
+     * 分布式信号量的具体实现对象
+     */
+    private final DistSemaphoreApi distSemaphoreApi;
+
+    /**
+     * 预编译的key
+     */
+    @Getter(AccessLevel.NONE)
+    private final KeyExpression keyExpression;
+
+    private DistSemaphorePlan(Method method) {
+        this.method = Objects.requireNonNull(method);
+        this.annotation = method.getAnnotation(DistSemaphore.class);
+        if (annotation == null) {
+            throw new IllegalStateException("method " + method + " is not annotated with @DistSemaphore");
+        }
+        this.permits = annotation.permits();
+        if (permits <= 0) {
+            throw new IllegalStateException("permits must be positive on method " + method);
+        }
+        if (DistLockPlan.resolveResultType(method.getReturnType()) != DistLockPlan.ResultType.SYNC) {
+            throw new IllegalStateException("@DistSemaphore is not supported by asynchronous method " + method);
+        }
+        this.waitTime = annotation.waitTime();
+        this.leaseTime = annotation.leaseTime();
+        this.timeUnit = annotation.timeUnit();
+        this.semaphoreType = annotation.semaphoreType();
+        this.distSemaphoreApi = (DistSemaphoreApi) ExtensionLoader.getExtensionLoader(DistSemaphoreApi.class).getExtension(semaphoreType);
+        this.keyExpression = KeyExpression.of(method, annotation.key(), annotation.prefix(), annotation.suffix(), annotation.separator());
+        log.info("dist semaphore plan -> method:{} semaphoreType:{} key:{} permits:{}", method, semaphoreType, annotation.key(), permits);
+    }
+
+    /**
+     * 构建方法的执行计划
+     *
+     * @param method
+     * @return com.hujy.rock.lock.aspect.DistSemaphorePlan
+     * @author hujy
+     * @date 2026-10-18 22:41
+     */
+    public static DistSemaphorePlan of(Method method) {
+        return new DistSemaphorePlan(method);
+    }
+
+    /**
+     * 组装semaphore key，只支持单个key
+     *
+     * @param args
+     * @return java.lang.String
+     * @author hujy
+     * @date 2026-10-18 22:42
+     */
+    public String generateKey(Object[] args) {
+        List<String> keys = keyExpression.generateKeys(args);
+        if (keys.size() != 1) {
+            throw new IllegalArgumentException("multiple semaphore keys are not supported by method " + method);
+        }
+        return keys.get(0);
+    }
+}
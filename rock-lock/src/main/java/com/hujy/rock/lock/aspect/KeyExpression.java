@@ -0,0 +1,187 @@
+package com.hujy.rock.lock.aspect;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.LocalVariableTableParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 注解key的预编译表达式
+ * 参数名、SpEL表达式、key前后缀在构建时解析一次，@DistLock与@DistSemaphore共用
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 22:20
+ */
+final class KeyExpression {
+
+    /**
+     * 获取被拦截方法参数名列表(使用Spring支持类库)
+     */
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new LocalVariableTableParameterNameDiscoverer();
+
+    /**
+     * SpEL解析器，开启编译模式，编译失败时退回解释执行
+     */
+    private static final SpelExpressionParser EXPRESSION_PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, KeyExpression.class.getClassLoader()));
+
+    /**
+     * 仅引用单个方法参数的表达式，如 #id
+     */
+    private static final Pattern SINGLE_VARIABLE = Pattern.compile("^#(\\w+)$");
+
+    private static final String[] NO_PARAMETER_NAMES = new String[0];
+
+    /**
+     * 非SpEL的key，完整key在构建时即确定
+     */
+    private final String constantKey;
+
+    /**
+     * key为单个方法参数时该参数的下标，否则为-1
+     */
+    private final int argumentIndex;
+
+    /**
+     * 编译后的SpEL表达式
+     */
+    private final Expression expression;
+
+    private final String[] parameterNames;
+
+    /**
+     * 前缀+分隔符
+     */
+    private final String head;
+
+    /**
+     * 分隔符+后缀
+     */
+    private final String tail;
+
+    private KeyExpression(Method method, String key, String prefix, String suffix, String separator) {
+        this.head = StringUtils.isNotBlank(prefix) ? StringUtils.stripStart(prefix + separator, null) : "";
+        this.tail = StringUtils.isNotBlank(suffix) ? StringUtils.stripEnd(separator + suffix, null) : "";
+        if (isExpression(key)) {
+            String[] names = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
+            this.parameterNames = names != null ? names : NO_PARAMETER_NAMES;
+            this.argumentIndex = indexOfSingleVariable(key, parameterNames);
+            this.expression = argumentIndex < 0 ? EXPRESSION_PARSER.parseExpression(key) : null;
+            this.constantKey = null;
+        } else {
+            this.parameterNames = NO_PARAMETER_NAMES;
+            this.argumentIndex = -1;
+            this.expression = null;
+            this.constantKey = assemble(key);
+        }
+    }
+
+    /**
+     * 编译方法上的key
+     *
+     * @param method
+     * @param key
+     * @param prefix
+     * @param suffix
+     * @param separator
+     * @return com.hujy.rock.lock.aspect.KeyExpression
+     * @author hujy
+     * @date 2026-10-18 22:21
+     */
+    static KeyExpression of(Method method, String key, String prefix, String suffix, String separator) {
+        return new KeyExpression(method, key, prefix, suffix, separator);
+    }
+
+    /**
+     * 组装key
+     * key解析为集合或数组时每个元素各组装一个key，去重并排序，所有调用方按相同顺序加锁
+     *
+     * @param args
+     * @return java.util.List<java.lang.String>
+     * @author hujy
+     * @date 2026-10-18 10:38
+     */
+    List<String> generateKeys(Object[] args) {
+        if (constantKey != null) {
+            return Collections.singletonList(constantKey);
+        }
+        Object value;
+        if (argumentIndex >= 0) {
+            value = args[argumentIndex];
+        } else {
+            // 使用Spring EL进行key的解析
+            value = expression.getValue(new MethodArgumentsEvaluationContext(parameterNames, args));
+        }
+        if (value instanceof Collection) {
+            return assembleAll(((Collection<?>) value).toArray());
+        }
+        if (value != null && value.getClass().isArray()) {
+            Object[] elements = new Object[Array.getLength(value)];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = Array.get(value, i);
+            }
+            return assembleAll(elements);
+        }
+        return Collections.singletonList(assemble(Objects.requireNonNull(value).toString()));
+    }
+
+    private List<String> assembleAll(Object[] elements) {
+        TreeSet<String> keys = new TreeSet<>();
+        for (Object element : elements) {
+            keys.add(assemble(Objects.requireNonNull(element).toString()));
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("lockKey can't be blank");
+        }
+        return keys.size() == 1 ? Collections.singletonList(keys.first()) : new ArrayList<>(keys);
+    }
+
+    private String assemble(String key) {
+        if (StringUtils.isBlank(key)) {
+            throw new IllegalArgumentException("lockKey can't be blank");
+        }
+        String trimmed = key.trim();
+        if (head.isEmpty() && tail.isEmpty()) {
+            return trimmed;
+        }
+        return new StringBuilder(head.length() + trimmed.length() + tail.length())
+                .append(head).append(trimmed).append(tail).toString();
+    }
+
+    /**
+     * 以#开头的参数引用，或 {#a, #b} 形式的内联列表视为SpEL；{account}:1 这类hash tag仍是常量key
+     */
+    private static boolean isExpression(String key) {
+        String trimmed = key.trim();
+        return trimmed.startsWith("#") || (trimmed.startsWith("{") && trimmed.contains("#"));
+    }
+
+    private static int indexOfSingleVariable(String key, String[] parameterNames) {
+        Matcher matcher = SINGLE_VARIABLE.matcher(key.trim());
+        if (!matcher.matches()) {
+            return -1;
+        }
+        String name = matcher.group(1);
+        for (int i = 0; i < parameterNames.length; i++) {
+            if (parameterNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
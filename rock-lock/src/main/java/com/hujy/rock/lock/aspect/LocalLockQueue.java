@@ -0,0 +1,111 @@
+package com.hujy.rock.lock.aspect;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分布式锁前的本地排队
+ * 同一个JVM内相同key的线程先在本地公平锁上排队，只有队头线程去竞争分布式锁
+ * 没有线程使用的key会立即从缓存中移除，key数量超过上限时新的key不再排队
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 13:10
+ */
+public class LocalLockQueue {
+
+    /**
+     * 缓存key与本地锁
+     * (lockKey -> entry)
+     */
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int maxKeys;
+
+    public LocalLockQueue(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * 进入key的本地队列
+     *
+     * @param lockKey
+     * @return com.hujy.rock.lock.aspect.LocalLockQueue.Entry 超过key数量上限时返回null
+     * @author hujy
+     * @date 2026-10-18 13:12
+     */
+    public Entry enter(String lockKey) {
+        if (entries.size() >= maxKeys && !entries.containsKey(lockKey)) {
+            return null;
+        }
+        return entries.compute(lockKey, (k, e) -> {
+            if (e == null) {
+                e = new Entry(k);
+            }
+            e.users++;
+            return e;
+        });
+    }
+
+    /**
+     * 离开key的本地队列，持有本地锁时一并释放
+     *
+     * @param entry
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 13:14
+     */
+    public void leave(Entry entry) {
+        if (entry.lock.isHeldByCurrentThread()) {
+            entry.lock.unlock();
+        }
+        entries.computeIfPresent(entry.lockKey, (k, e) -> {
+            if (e != entry) {
+                return e;
+            }
+            return --e.users > 0 ? e : null;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 单个key的本地公平锁
+     */
+    public static final class Entry {
+
+        private final String lockKey;
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+
+        /**
+         * 正在排队或持有锁的线程数，只在ConcurrentMap的原子操作中修改
+         */
+        private int users;
+
+        private Entry(String lockKey) {
+            this.lockKey = lockKey;
+        }
+
+        /**
+         * 在本地队列中等待成为队头
+         *
+         * @param waitTime 等待时间，-1表示一直等待
+         * @param unit
+         * @return boolean
+         * @author hujy
+         * @date 2026-10-18 13:16
+         */
+        public boolean tryLock(long waitTime, TimeUnit unit) throws InterruptedException {
+            if (waitTime < 0) {
+                lock.lockInterruptibly();
+                return true;
+            }
+            return lock.tryLock(waitTime, unit);
+        }
+    }
+}
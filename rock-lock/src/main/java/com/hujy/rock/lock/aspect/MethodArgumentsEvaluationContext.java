@@ -0,0 +1,123 @@
+package com.hujy.rock.lock.aspect;
+
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 以方法参数作为变量的轻量级SpEL上下文
+ * 解析器、类型转换等基础设施全局共享，每次调用只持有参数名与参数值的引用
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 10:21
+ */
+class MethodArgumentsEvaluationContext implements EvaluationContext {
+
+    /**
+     * 共享的基础设施，创建时预先完成懒加载，之后只读
+     */
+    private static final StandardEvaluationContext SHARED = new StandardEvaluationContext();
+
+    static {
+        SHARED.getPropertyAccessors();
+        SHARED.getConstructorResolvers();
+        SHARED.getMethodResolvers();
+        SHARED.getTypeLocator();
+        SHARED.getTypeConverter();
+        SHARED.getTypeComparator();
+        SHARED.getOperatorOverloader();
+    }
+
+    private final String[] parameterNames;
+
+    private final Object[] args;
+
+    /**
+     * 表达式中通过赋值产生的变量，极少使用，按需创建
+     */
+    private Map<String, Object> variables;
+
+    MethodArgumentsEvaluationContext(String[] parameterNames, Object[] args) {
+        this.parameterNames = parameterNames;
+        this.args = args;
+    }
+
+    @Override
+    public TypedValue getRootObject() {
+        return TypedValue.NULL;
+    }
+
+    @Override
+    public List<PropertyAccessor> getPropertyAccessors() {
+        return SHARED.getPropertyAccessors();
+    }
+
+    @Override
+    public List<ConstructorResolver> getConstructorResolvers() {
+        return SHARED.getConstructorResolvers();
+    }
+
+    @Override
+    public List<MethodResolver> getMethodResolvers() {
+        return SHARED.getMethodResolvers();
+    }
+
+    @Override
+    public BeanResolver getBeanResolver() {
+        return null;
+    }
+
+    @Override
+    public TypeLocator getTypeLocator() {
+        return SHARED.getTypeLocator();
+    }
+
+    @Override
+    public TypeConverter getTypeConverter() {
+        return SHARED.getTypeConverter();
+    }
+
+    @Override
+    public TypeComparator getTypeComparator() {
+        return SHARED.getTypeComparator();
+    }
+
+    @Override
+    public OperatorOverloader getOperatorOverloader() {
+        return SHARED.getOperatorOverloader();
+    }
+
+    @Override
+    public void setVariable(String name, Object value) {
+        if (variables == null) {
+            variables = new HashMap<>(4);
+        }
+        variables.put(name, value);
+    }
+
+    @Override
+    public Object lookupVariable(String name) {
+        if (variables != null && variables.containsKey(name)) {
+            return variables.get(name);
+        }
+        for (int i = 0; i < parameterNames.length; i++) {
+            if (parameterNames[i].equals(name)) {
+                return i < args.length ? args[i] : null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.hujy.rock.lock.aspect;
+
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.metrics.DistLockMetrics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 返回Mono/Flux的方法加锁
+ * 单独成类，只有reactor在classpath中时才会加载
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 14:52
+ */
+final class ReactiveLockSupport {
+
+    private ReactiveLockSupport() {
+    }
+
+    static DistLockPlan.ResultType resolveResultType(Class<?> returnType) {
+        if (returnType == Mono.class) {
+            return DistLockPlan.ResultType.MONO;
+        }
+        if (returnType == Flux.class) {
+            return DistLockPlan.ResultType.FLUX;
+        }
+        return DistLockPlan.ResultType.SYNC;
+    }
+
+    /**
+     * 每次订阅时异步加锁，加锁成功后订阅业务方法返回的publisher，publisher结束、出错或被取消时释放锁
+     * 加锁失败时返回fallback的publisher，未配置fallback时返回空的Mono/Flux(乐观锁为DistLockAcquireException)
+     * 加锁结果切换到plan的异步线程池后再记录指标、调用业务方法或fallback，不占用锁实现的IO线程
+     *
+     * @param pjp
+     * @param plan
+     * @param lockKey
+     * @return java.lang.Object
+     * @author hujy
+     * @date 2026-10-18 14:55
+     */
+    static Object lock(ProceedingJoinPoint pjp, DistLockPlan plan, String lockKey) {
+        DistLockApi distLock = plan.getDistLockApi();
+        DistLockMetrics metrics = plan.getMetrics();
+        // permit订阅前已结束时fromFuture会在订阅线程上直接发出结果，统一切换到异步线程池
+        Scheduler scheduler = Schedulers.fromExecutor(plan.getAsyncExecutor());
+        Flux<Object> result = Flux.defer(() -> {
+            // 每次订阅的唯一标识
+            String requestId = UUID.randomUUID().toString();
+            long beginNanos = System.nanoTime();
+            AtomicLong acquiredNanos = new AtomicLong();
+            // 指标记录完成后permit才结束，释放时可读到获得锁的时间；permit在异步线程池上结束，之后的业务方法也在其上订阅
+            CompletableFuture<Boolean> permit = distLock.lockAsync(lockKey, requestId, plan.getExpireTime(),
+                    plan.getWaitTime(), plan.getTimeUnit(), plan.getWaitStrategy(), plan.getAsyncExecutor()).toCompletableFuture().whenCompleteAsync((acquired, e) -> {
+                long now = System.nanoTime();
+                if (e != null) {
+                    metrics.error(now - beginNanos);
+                } else if (acquired) {
+                    acquiredNanos.set(now);
+                    metrics.acquired(now - beginNanos, now - beginNanos);
+                    plan.getHotKeyProfiler().acquired(lockKey, now - beginNanos);
+                } else {
+                    metrics.timeout(now - beginNanos);
+                    plan.getHotKeyProfiler().timeout(lockKey, now - beginNanos);
+                }
+            }, plan.getAsyncExecutor());
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    distLock.unlockAsync(lockKey, requestId, plan.getAsyncExecutor()).whenCompleteAsync((unlocked, e) ->
+                            DistLockAspect.asyncReleased(plan, lockKey, acquiredNanos.get(), unlocked, e), plan.getAsyncExecutor());
+                }
+            };
+            return Mono.fromFuture(permit)
+                    .publishOn(scheduler)
+                    // 加锁完成前被取消，加锁成功后立即释放
+                    .doOnCancel(() -> permit.thenAccept(acquired -> {
+                        if (acquired) {
+                            release.run();
+                        }
+                    }))
+                    .flatMapMany(acquired -> acquired
+                            ? Flux.from(proceed(pjp)).doFinally(signal -> release.run())
+                            : Flux.from(acquireFailed(pjp, plan, lockKey)));
+        });
+        return plan.getResultType() == DistLockPlan.ResultType.MONO ? result.next() : result;
+    }
+
+    private static Publisher<?> acquireFailed(ProceedingJoinPoint pjp, DistLockPlan plan, String lockKey) {
+        try {
+            Object publisher = DistLockAspect.acquireFailed(pjp, plan, lockKey);
+            return publisher != null ? (Publisher<?>) publisher : Mono.empty();
+        } catch (Throwable t) {
+            return Mono.error(t);
+        }
+    }
+
+    private static Publisher<?> proceed(ProceedingJoinPoint pjp) {
+        try {
+            Object publisher = pjp.proceed();
+            return publisher != null ? (Publisher<?>) publisher : Mono.empty();
+        } catch (Throwable t) {
+            return Mono.error(t);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hujy.rock.lock.config.application;
 
+import com.hujy.rock.common.extension.ExtensionLoader;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -13,6 +14,8 @@ public class ApplicationContextConfig implements ApplicationContextAware {
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         ApplicationContextConfig.applicationContext = applicationContext;
+        // wrapper的@Activate开关从Spring配置中读取
+        ExtensionLoader.setPropertyResolver(applicationContext.getEnvironment()::getProperty);
     }
 
     public static ApplicationContext getApplicationContext() {
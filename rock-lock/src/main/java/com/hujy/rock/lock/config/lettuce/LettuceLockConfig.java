@@ -0,0 +1,62 @@
+package com.hujy.rock.lock.config.lettuce;
+
+import com.hujy.rock.lock.api.impl.LettuceCommandBatcher;
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * lettuce分布式锁初始化配置
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 11:20
+ */
+@Configuration
+@ConditionalOnClass({RedisConnectionFactory.class})
+@AutoConfigureAfter(RedisAutoConfiguration.class)
+@EnableConfigurationProperties(DistLockConfigProperties.class)
+public class LettuceLockConfig {
+
+    /**
+     * 锁释放通知使用的监听容器
+     */
+    public static final String LOCK_LISTENER_CONTAINER = "rockLockListenerContainer";
+
+    /**
+     * 加解锁命令批量器，rock.lock.lettuce.batch.enable=true时创建
+     */
+    public static final String LOCK_COMMAND_BATCHER = "rockLockCommandBatcher";
+
+    /**
+     * 锁释放频道，每个key的频道为 rock_lock__channel:{lockKey}
+     */
+    public static final String LOCK_CHANNEL = "rock_lock__channel";
+
+    /**
+     * 监听容器在lettuce锁或信号量第一次使用时才创建，容器关闭时随之关闭
+     */
+    @Bean(name = LOCK_LISTENER_CONTAINER, destroyMethod = "destroy")
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public LockListenerContainer rockLockListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        return new LockListenerContainer(redisConnectionFactory);
+    }
+
+    /**
+     * 批量器使用独立的连接，容器关闭时随之关闭；连接工厂不是单机lettuce时为null
+     */
+    @Bean(name = LOCK_COMMAND_BATCHER, destroyMethod = "close")
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    @ConditionalOnProperty(prefix = "rock.lock.lettuce.batch", name = "enable", havingValue = "true")
+    public LettuceCommandBatcher rockLockCommandBatcher(RedisConnectionFactory redisConnectionFactory,
+                                                        DistLockConfigProperties distLockConfigProperties) {
+        return LettuceCommandBatcher.create(redisConnectionFactory, distLockConfigProperties.getLettuce().getBatch());
+    }
+}
@@ -0,0 +1,71 @@
+package com.hujy.rock.lock.config.lettuce;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 锁释放通知使用的监听容器，lettuce锁或信号量第一次使用时才创建并启动
+ * 只使用redisson或因其他用途引入redis的应用不会建立pub/sub连接和订阅线程
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 14:50
+ */
+public class LockListenerContainer {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private RedisMessageListenerContainer container;
+
+    private boolean destroyed;
+
+    public LockListenerContainer(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * 获取监听容器，第一次调用时创建
+     * 所有等待者共用一个pub/sub连接，消息直接在订阅线程上分发，只负责唤醒本地等待线程
+     * 启动时先订阅固定的基础频道，使订阅连接在容器启动时建立并始终保持；
+     * 否则第一批key的动态订阅会与容器的初次订阅并发，导致订阅任务异常退出
+     *
+     * @return org.springframework.data.redis.listener.RedisMessageListenerContainer
+     * @author hujy
+     * @date 2026-10-19 14:52
+     */
+    public synchronized RedisMessageListenerContainer getContainer() {
+        if (destroyed) {
+            throw new IllegalStateException("rock lock listener container is destroyed");
+        }
+        if (container == null) {
+            RedisMessageListenerContainer created = new RedisMessageListenerContainer();
+            created.setConnectionFactory(connectionFactory);
+            created.setSubscriptionExecutor(new SimpleAsyncTaskExecutor("rock-lock-subscription-"));
+            created.setTaskExecutor(new SyncTaskExecutor());
+            created.addMessageListener((message, pattern) -> {
+            }, new ChannelTopic(LettuceLockConfig.LOCK_CHANNEL));
+            created.afterPropertiesSet();
+            created.start();
+            container = created;
+        }
+        return container;
+    }
+
+    /**
+     * 是否已创建
+     */
+    public synchronized boolean isCreated() {
+        return container != null;
+    }
+
+    public synchronized void destroy() throws Exception {
+        destroyed = true;
+        if (container != null) {
+            container.destroy();
+            container = null;
+        }
+    }
+}
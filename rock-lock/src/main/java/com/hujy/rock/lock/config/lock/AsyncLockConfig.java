@@ -0,0 +1,49 @@
+package com.hujy.rock.lock.config.lock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.annotation.Resource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步方法执行线程池初始化配置
+ * 应用已定义名为rockLockAsyncExecutor的Executor时不创建
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 09:40
+ */
+@Configuration
+@EnableConfigurationProperties(DistLockConfigProperties.class)
+public class AsyncLockConfig {
+
+    /**
+     * 异步方法加锁后执行业务方法的线程池
+     */
+    public static final String ASYNC_EXECUTOR = "rockLockAsyncExecutor";
+
+    @Resource
+    private DistLockConfigProperties distLockConfigProperties;
+
+    /**
+     * 队列不设上限，加锁成功后的业务调用不会被拒绝
+     */
+    @Bean(name = ASYNC_EXECUTOR, destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = ASYNC_EXECUTOR)
+    public ExecutorService rockLockAsyncExecutor() {
+        int poolSize = distLockConfigProperties.getAsync().getPoolSize();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rock-lock-exec-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,168 @@
+package com.hujy.rock.lock.config.lock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 分布式锁通用属性
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 13:05
+ */
+@ConfigurationProperties(prefix = "rock.lock", ignoreUnknownFields = false)
+@Data
+public class DistLockConfigProperties {
+
+    private DistLockConfigProperties.LocalQueue localQueue = new DistLockConfigProperties.LocalQueue();
+
+    private DistLockConfigProperties.VirtualThread virtualThread = new DistLockConfigProperties.VirtualThread();
+
+    private DistLockConfigProperties.Lettuce lettuce = new DistLockConfigProperties.Lettuce();
+
+    private DistLockConfigProperties.Log log = new DistLockConfigProperties.Log();
+
+    private DistLockConfigProperties.WarmUp warmUp = new DistLockConfigProperties.WarmUp();
+
+    private DistLockConfigProperties.Wait wait = new DistLockConfigProperties.Wait();
+
+    private DistLockConfigProperties.Profiler profiler = new DistLockConfigProperties.Profiler();
+
+    private DistLockConfigProperties.Async async = new DistLockConfigProperties.Async();
+
+    @Data
+    public static class LocalQueue {
+        /**
+         * 本地排队的key数量上限，超过后新的key直接竞争分布式锁
+         */
+        private int maxKeys = 10000;
+    }
+
+    /**
+     * 虚拟线程模式(Java 21+)
+     * 开启后加锁等待全部通过LockSupport挂起，不在synchronized/Object.wait中阻塞，等待中的虚拟线程不会占住载体线程：
+     * redisson改为异步加锁后在CompletableFuture上等待；lettuce的释放通知、本地排队、扩展点加载本身即基于j.u.c锁
+     * 适用于以虚拟线程代替固定线程池执行加锁方法的场景
+     */
+    @Data
+    public static class VirtualThread {
+        private boolean enable = false;
+    }
+
+    /**
+     * lettuce锁属性
+     */
+    @Data
+    public static class Lettuce {
+        /**
+         * 看门狗租期(毫秒)，expireTime为-1的锁以此为租期，每 watchdogTimeout/3 续期一次
+         */
+        private long watchdogTimeout = 30000L;
+
+        private Batch batch = new Batch();
+
+        /**
+         * 加解锁命令自动批量，仅单机redis生效
+         * 并发请求在独立连接上合并写出、一次flush，适合大量不同key、竞争很少的场景
+         */
+        @Data
+        public static class Batch {
+            private boolean enable = false;
+
+            /**
+             * 单批命令数上限
+             */
+            private int maxSize = 128;
+
+            /**
+             * 凑批等待窗口(微秒)，0表示不等待，只合并已排队的请求
+             */
+            private long windowMicros = 50L;
+        }
+    }
+
+    /**
+     * 加锁等待策略(WaitStrategy)属性，轮询式实现(lettuce)使用
+     */
+    @Data
+    public static class Wait {
+        /**
+         * 未订阅释放通知时的重试间隔(毫秒)
+         */
+        private long interval = 100L;
+
+        /**
+         * 最长重试间隔(毫秒)，已订阅释放通知时即兜底重试间隔，只用于锁过期、通知丢失等情况；
+         * 间隔过短时大量等待者会各自定时重试，释放通知就失去了意义
+         */
+        private long maxInterval = 1000L;
+
+        /**
+         * 指数退避的初始间隔(毫秒)
+         */
+        private long exponentialBase = 10L;
+    }
+
+    /**
+     * 热点key竞争分析(HotKeyProfiler)
+     * 统计等待超过阈值或等待超时的加锁，定期打印竞争最多的key，actuator端点 /actuator/lockhotkeys
+     */
+    @Data
+    public static class Profiler {
+        private boolean enable = true;
+
+        /**
+         * 最多跟踪的key数量，决定内存上限
+         */
+        private int capacity = 512;
+
+        /**
+         * 获得锁的等待时间(毫秒)不小于该值时计为一次竞争
+         */
+        private long waitThresholdMillis = 10L;
+
+        /**
+         * 日志与端点默认输出的key数量
+         */
+        private int top = 10;
+
+        /**
+         * 打印间隔(秒)，每次打印后计数减半；0表示不打印也不衰减
+         */
+        private long logInterval = 60L;
+    }
+
+    /**
+     * 异步方法(CompletionStage/Mono/Flux)加锁后执行业务方法的线程池
+     * 加锁结果在redisson的netty IO线程或lettuce的异步调度线程上返回，业务方法、指标与fallback切换到该线程池执行，
+     * 业务方法中的阻塞不会拖慢其他key的异步加锁与释放；容器中已有名为rockLockAsyncExecutor的Executor时使用该bean
+     */
+    @Data
+    public static class Async {
+        /**
+         * 线程数，空闲60秒后回收
+         */
+        private int poolSize = 16;
+    }
+
+    /**
+     * 启动预热
+     * 容器初始化完成后扫描所有@DistLock方法，构建执行计划(lockType、SpEL有误时启动失败)并预热用到的锁实现
+     */
+    @Data
+    public static class WarmUp {
+        private boolean enable = true;
+    }
+
+    /**
+     * 加解锁日志(DistLockWrapper)
+     */
+    @Data
+    public static class Log {
+        /**
+         * 关闭后DistLockWrapper不再包装锁实现，扩展点创建时读取
+         */
+        private boolean enable = true;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.hujy.rock.lock.config.lock;
+
+import com.hujy.rock.lock.metrics.HotKeyEndpoint;
+import com.hujy.rock.lock.metrics.HotKeyProfiler;
+import com.hujy.rock.lock.metrics.SpaceSavingHotKeyProfiler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.Resource;
+
+/**
+ * 热点key竞争分析初始化配置，rock.lock.profiler.enable=false时不创建
+ * actuator在classpath中时同时注册lockhotkeys端点
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 00:28
+ */
+@Configuration
+@EnableConfigurationProperties(DistLockConfigProperties.class)
+@ConditionalOnProperty(prefix = "rock.lock.profiler", name = "enable", havingValue = "true", matchIfMissing = true)
+public class HotKeyProfilerConfig {
+
+    @Resource
+    private DistLockConfigProperties distLockConfigProperties;
+
+    @Bean(destroyMethod = "close")
+    public SpaceSavingHotKeyProfiler hotKeyProfiler() {
+        return new SpaceSavingHotKeyProfiler(distLockConfigProperties.getProfiler());
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class HotKeyEndpointConfig {
+
+        @Bean
+        public HotKeyEndpoint hotKeyEndpoint(HotKeyProfiler hotKeyProfiler, DistLockConfigProperties distLockConfigProperties) {
+            return new HotKeyEndpoint(hotKeyProfiler, distLockConfigProperties.getProfiler().getTop());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
 import org.redisson.config.SentinelServersConfig;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -60,6 +61,16 @@ public class RedissonConfig {
 
     }
 
+    /**
+     * redlock节点客户端，rock.redisson.redlock.enable=true时创建
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "rock.redisson.redlock", name = "enable", havingValue = "true")
+    public RedlockClients redlockClients() {
+        RedissonConfigProperties.Redlock redlock = redissonConfigProperties.getRedlock();
+        return new RedlockClients(redlock.getAddresses(), redlock.getNodeTimeout(), redlock.getRetryInterval());
+    }
+
     private static String getCompleteAddress(String address) {
         return address.startsWith("redis://") ? address : "redis://" + address;
     }
@@ -18,6 +18,8 @@ public class RedissonConfigProperties {
 
     private RedissonConfigProperties.Cluster cluster;
 
+    private RedissonConfigProperties.Redlock redlock = new RedissonConfigProperties.Redlock();
+
     @Data
     public static class Single {
         private boolean enable = false;
@@ -37,4 +39,21 @@ public class RedissonConfigProperties {
         private List<String> clusterNodeAddresses;
     }
 
+    /**
+     * redlock的独立redis主节点，与上面的模式互不影响
+     */
+    @Data
+    public static class Redlock {
+        private boolean enable = false;
+        private List<String> addresses;
+        /**
+         * 单次加锁等待各节点响应的超时时间(毫秒)，应远小于租期
+         */
+        private long nodeTimeout = 50L;
+        /**
+         * 未获得多数节点时的重试间隔上限(毫秒)，实际间隔在一半到上限之间随机，避免竞争者同时重试
+         */
+        private long retryInterval = 100L;
+    }
+
 }
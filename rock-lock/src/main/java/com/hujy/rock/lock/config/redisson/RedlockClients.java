@@ -0,0 +1,133 @@
+package com.hujy.rock.lock.config.redisson;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * redlock各独立主节点的客户端
+ * 所有客户端共用一个netty事件循环；命令超时为nodeTimeout且不重试，故障节点不拖慢加锁；
+ * 启动时无法连接的节点不影响启动，由后台线程定期重连，期间按加锁失败计
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:50
+ */
+@Slf4j
+public class RedlockClients {
+
+    /**
+     * 重连间隔(毫秒)
+     */
+    private static final long RECONNECT_INTERVAL = 5000L;
+
+    private final List<String> addresses;
+
+    @Getter
+    private final long nodeTimeout;
+
+    @Getter
+    private final long retryInterval;
+
+    private final EventLoopGroup eventLoopGroup;
+
+    private final AtomicReferenceArray<RedissonClient> clients;
+
+    private final ScheduledExecutorService reconnector;
+
+    public RedlockClients(List<String> addresses, long nodeTimeout, long retryInterval) {
+        if (addresses == null || addresses.isEmpty()) {
+            throw new IllegalArgumentException("rock.redisson.redlock.addresses can't be empty");
+        }
+        this.addresses = addresses;
+        this.nodeTimeout = nodeTimeout;
+        this.retryInterval = retryInterval;
+        this.eventLoopGroup = new NioEventLoopGroup(0, new CustomizableThreadFactory("rock-lock-redlock-io-"));
+        this.clients = new AtomicReferenceArray<>(addresses.size());
+        for (int i = 0; i < addresses.size(); i++) {
+            connect(i);
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rock-lock-redlock-");
+        threadFactory.setDaemon(true);
+        this.reconnector = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        reconnector.scheduleWithFixedDelay(this::reconnect, RECONNECT_INTERVAL, RECONNECT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 节点数量
+     */
+    public int size() {
+        return clients.length();
+    }
+
+    /**
+     * 多数节点数量
+     */
+    public int quorum() {
+        return clients.length() / 2 + 1;
+    }
+
+    /**
+     * 第index个节点的客户端，尚未连接时返回null
+     *
+     * @param index
+     * @return org.redisson.api.RedissonClient
+     * @author hujy
+     * @date 2026-10-18 23:52
+     */
+    public RedissonClient get(int index) {
+        return clients.get(index);
+    }
+
+    private void reconnect() {
+        for (int i = 0; i < clients.length(); i++) {
+            if (clients.get(i) == null) {
+                connect(i);
+            }
+        }
+    }
+
+    private void connect(int index) {
+        String address = addresses.get(index);
+        Config config = new Config();
+        config.setEventLoopGroup(eventLoopGroup);
+        config.useSingleServer()
+                .setAddress(getCompleteAddress(address))
+                .setTimeout((int) nodeTimeout)
+                .setRetryAttempts(0);
+        try {
+            clients.set(index, Redisson.create(config));
+        } catch (Exception e) {
+            log.warn("redlock node {} is unavailable, retry in {}ms -> {}", address, RECONNECT_INTERVAL, e.getMessage());
+        }
+    }
+
+    /**
+     * 未指定协议时补全为redis://，已指定的(如rediss://)保持不变
+     */
+    private static String getCompleteAddress(String address) {
+        return address.contains("://") ? address : "redis://" + address;
+    }
+
+    public void shutdown() {
+        reconnector.shutdownNow();
+        for (int i = 0; i < clients.length(); i++) {
+            RedissonClient client = clients.get(i);
+            if (client != null) {
+                client.shutdown();
+            }
+        }
+        eventLoopGroup.shutdownGracefully();
+    }
+}
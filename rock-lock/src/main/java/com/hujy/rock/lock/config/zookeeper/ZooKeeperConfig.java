@@ -0,0 +1,40 @@
+package com.hujy.rock.lock.config.zookeeper;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.Resource;
+
+/**
+ * curatorFramework初始化配置，rock.zookeeper.enable=true时创建
+ * 所有锁共用一个会话
+ */
+@Configuration
+@EnableConfigurationProperties(ZooKeeperConfigProperties.class)
+@ConditionalOnClass({CuratorFramework.class})
+public class ZooKeeperConfig {
+
+    @Resource
+    private ZooKeeperConfigProperties zooKeeperConfigProperties;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "rock.zookeeper", name = "enable", havingValue = "true")
+    public CuratorFramework curatorFramework() {
+        CuratorFramework client = CuratorFrameworkFactory.builder()
+                .connectString(zooKeeperConfigProperties.getConnectString())
+                .sessionTimeoutMs(zooKeeperConfigProperties.getSessionTimeout())
+                .connectionTimeoutMs(zooKeeperConfigProperties.getConnectionTimeout())
+                .retryPolicy(new ExponentialBackoffRetry(zooKeeperConfigProperties.getBaseSleepTime(),
+                        zooKeeperConfigProperties.getMaxRetries()))
+                .build();
+        client.start();
+        return client;
+    }
+
+}
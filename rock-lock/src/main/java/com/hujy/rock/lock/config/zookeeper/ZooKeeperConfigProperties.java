@@ -0,0 +1,39 @@
+package com.hujy.rock.lock.config.zookeeper;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * zookeeper连接属性
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:10
+ */
+@ConfigurationProperties(prefix = "rock.zookeeper", ignoreUnknownFields = false)
+@Data
+public class ZooKeeperConfigProperties {
+
+    private boolean enable = false;
+
+    private String connectString;
+
+    /**
+     * 会话超时时间(毫秒)，进程宕机后最长经过该时间锁节点被删除
+     */
+    private int sessionTimeout = 30000;
+
+    private int connectionTimeout = 15000;
+
+    /**
+     * 锁节点的根路径，每个lockKey对应其下的一个子节点
+     */
+    private String lockPath = "/rock_lock";
+
+    /**
+     * 连接失败的重试间隔基数(毫秒)，指数退避
+     */
+    private int baseSleepTime = 1000;
+
+    private int maxRetries = 3;
+}
@@ -0,0 +1,27 @@
+package com.hujy.rock.lock.constant;
+
+/**
+ * 分布式锁模式
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 17:30
+ */
+public enum DistLockMode {
+
+    /**
+     * 排他锁
+     */
+    EXCLUSIVE,
+
+    /**
+     * 读锁，与其他读锁共享，与写锁互斥
+     */
+    READ,
+
+    /**
+     * 写锁，与读锁、写锁均互斥
+     */
+    WRITE
+
+}
@@ -13,4 +13,10 @@ public class DistLockType {
 
     public static final String LETTUCE = "lettuce";
 
+    public static final String LOCAL = "local";
+
+    public static final String REDLOCK = "redlock";
+
+    public static final String ZOOKEEPER = "zookeeper";
+
 }
@@ -0,0 +1,27 @@
+package com.hujy.rock.lock.constant;
+
+/**
+ * 加锁等待策略类型
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:50
+ */
+public class WaitStrategyType {
+
+    /**
+     * 按持有者剩余租期等待
+     */
+    public static final String TTL = "ttl";
+
+    /**
+     * 指数退避并加随机抖动
+     */
+    public static final String EXPONENTIAL = "exponential";
+
+    /**
+     * 固定间隔
+     */
+    public static final String FIXED = "fixed";
+
+}
@@ -0,0 +1,22 @@
+package com.hujy.rock.lock.exception;
+
+import lombok.Getter;
+
+/**
+ * 乐观锁加锁失败且未配置fallbackMethod时抛出
+ * 非受检异常，被注解方法无需声明
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 23:00
+ */
+@Getter
+public class DistLockAcquireException extends RuntimeException {
+
+    private final String lockKey;
+
+    public DistLockAcquireException(String lockKey) {
+        super("failed to acquire dist lock -> " + lockKey);
+        this.lockKey = lockKey;
+    }
+}
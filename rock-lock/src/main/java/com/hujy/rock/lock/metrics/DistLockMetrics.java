@@ -0,0 +1,62 @@
+package com.hujy.rock.lock.metrics;
+
+/**
+ * 单个@DistLock方法的锁指标
+ * 指标对象在执行计划构建时创建，每次调用只记录纳秒耗时，不分配对象；
+ * micrometer不在classpath中时使用空实现
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 19:10
+ */
+public interface DistLockMetrics {
+
+    DistLockMetrics NOOP = new DistLockMetrics() {
+    };
+
+    /**
+     * 加锁成功
+     *
+     * @param acquireNanos 本次加锁调用耗时
+     * @param waitNanos    进入切面到获得锁的总耗时(含本地排队)
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 19:12
+     */
+    default void acquired(long acquireNanos, long waitNanos) {
+    }
+
+    /**
+     * 等待超时未获得锁
+     *
+     * @param acquireNanos
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 19:12
+     */
+    default void timeout(long acquireNanos) {
+    }
+
+    /**
+     * 加锁抛出异常
+     *
+     * @param acquireNanos
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 19:13
+     */
+    default void error(long acquireNanos) {
+    }
+
+    /**
+     * 释放锁
+     *
+     * @param holdNanos 持锁时长
+     * @param expired   释放前租期已过期(解锁失败或持锁时长超过租期)
+     * @return void
+     * @author hujy
+     * @date 2026-10-18 19:14
+     */
+    default void released(long holdNanos, boolean expired) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.hujy.rock.lock.metrics;
+
+import lombok.Getter;
+
+/**
+ * 单个热点key的竞争统计快照
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 00:13
+ */
+@Getter
+public class HotKey {
+
+    private final String lockKey;
+
+    /**
+     * 竞争次数(等待超过阈值或等待超时)，可能偏大，高估部分不超过error
+     */
+    private final long count;
+
+    /**
+     * count的最大高估值，key被淘汰的计数继承而来；count - error 为次数下限
+     */
+    private final long error;
+
+    /**
+     * 其中等待超时的次数
+     */
+    private final long timeouts;
+
+    /**
+     * 总等待时间(毫秒)，只包含进入统计之后的等待
+     */
+    private final long totalWaitMillis;
+
+    /**
+     * 平均等待时间(毫秒)
+     */
+    private final double avgWaitMillis;
+
+    public HotKey(String lockKey, long count, long error, long timeouts, long totalWaitMillis, double avgWaitMillis) {
+        this.lockKey = lockKey;
+        this.count = count;
+        this.error = error;
+        this.timeouts = timeouts;
+        this.totalWaitMillis = totalWaitMillis;
+        this.avgWaitMillis = avgWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(count=%d, timeouts=%d, avgWait=%.1fms)", lockKey, count, timeouts, avgWaitMillis);
+    }
+}
@@ -0,0 +1,33 @@
+package com.hujy.rock.lock.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * 热点key actuator端点：GET /actuator/lockhotkeys?top=N
+ * 单独成类，只有actuator在classpath中时才会加载；需要加入 management.endpoints.web.exposure.include
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 00:25
+ */
+@Endpoint(id = "lockhotkeys")
+public class HotKeyEndpoint {
+
+    private final HotKeyProfiler hotKeyProfiler;
+
+    private final int defaultTop;
+
+    public HotKeyEndpoint(HotKeyProfiler hotKeyProfiler, int defaultTop) {
+        this.hotKeyProfiler = hotKeyProfiler;
+        this.defaultTop = defaultTop;
+    }
+
+    @ReadOperation
+    public List<HotKey> hotKeys(@Nullable Integer top) {
+        return hotKeyProfiler.top(top != null ? top : defaultTop);
+    }
+}
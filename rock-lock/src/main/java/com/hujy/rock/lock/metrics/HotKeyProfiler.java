@@ -0,0 +1,55 @@
+package com.hujy.rock.lock.metrics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 热点key竞争分析
+ * 只记录发生竞争的加锁(等待超过阈值或等待超时)，按key统计次数与等待时间，用于事后定位把整个流程串行化的热点key；
+ * 未开启时使用空实现
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 00:10
+ */
+public interface HotKeyProfiler {
+
+    HotKeyProfiler NOOP = new HotKeyProfiler() {
+    };
+
+    /**
+     * 加锁成功
+     *
+     * @param lockKey
+     * @param waitNanos 进入切面到获得锁的总耗时(含本地排队)
+     * @return void
+     * @author hujy
+     * @date 2026-10-19 00:11
+     */
+    default void acquired(String lockKey, long waitNanos) {
+    }
+
+    /**
+     * 等待超时未获得锁
+     *
+     * @param lockKey
+     * @param waitNanos
+     * @return void
+     * @author hujy
+     * @date 2026-10-19 00:11
+     */
+    default void timeout(String lockKey, long waitNanos) {
+    }
+
+    /**
+     * 竞争最多的key
+     *
+     * @param n
+     * @return java.util.List<com.hujy.rock.lock.metrics.HotKey> 按竞争次数从高到低排序
+     * @author hujy
+     * @date 2026-10-19 00:12
+     */
+    default List<HotKey> top(int n) {
+        return Collections.emptyList();
+    }
+}
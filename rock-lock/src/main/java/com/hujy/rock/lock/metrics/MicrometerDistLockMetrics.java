@@ -0,0 +1,118 @@
+package com.hujy.rock.lock.metrics;
+
+import com.hujy.rock.lock.config.application.ApplicationContextConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationContext;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于micrometer的锁指标
+ * 单独成类，只有micrometer在classpath中时才会加载
+ * <p>
+ * rock.lock.acquire  加锁调用耗时，result=success/timeout/error，count即各结果的次数
+ * rock.lock.wait     进入切面到获得锁的总耗时(含本地排队)
+ * rock.lock.hold     持锁时长
+ * rock.lock.lease.expired  释放前租期已过期的次数
+ * <p>
+ * 均以lockType、method、prefix为tag；可通过MeterFilter关闭或调整
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 19:20
+ */
+public final class MicrometerDistLockMetrics implements DistLockMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(1);
+
+    private final Timer acquireSuccess;
+
+    private final Timer acquireTimeout;
+
+    private final Timer acquireError;
+
+    private final Timer wait;
+
+    private final Timer hold;
+
+    private final Counter leaseExpired;
+
+    private MicrometerDistLockMetrics(MeterRegistry registry, Tags tags) {
+        this.acquireSuccess = timer(registry, "rock.lock.acquire", "加锁调用耗时", tags.and("result", "success"));
+        this.acquireTimeout = timer(registry, "rock.lock.acquire", "加锁调用耗时", tags.and("result", "timeout"));
+        this.acquireError = timer(registry, "rock.lock.acquire", "加锁调用耗时", tags.and("result", "error"));
+        this.wait = timer(registry, "rock.lock.wait", "获得锁前的总等待时间", tags);
+        this.hold = timer(registry, "rock.lock.hold", "持锁时长", tags);
+        this.leaseExpired = Counter.builder("rock.lock.lease.expired")
+                .description("释放前租期已过期的次数")
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * 创建方法的锁指标，优先使用容器中的MeterRegistry
+     *
+     * @param method
+     * @param lockType
+     * @param keyPrefix
+     * @return com.hujy.rock.lock.metrics.DistLockMetrics
+     * @author hujy
+     * @date 2026-10-18 19:22
+     */
+    public static DistLockMetrics of(Method method, String lockType, String keyPrefix) {
+        Tags tags = Tags.of("lockType", lockType,
+                "method", method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                "prefix", keyPrefix.isEmpty() ? "none" : keyPrefix);
+        return new MicrometerDistLockMetrics(getRegistry(), tags);
+    }
+
+    private static MeterRegistry getRegistry() {
+        ApplicationContext applicationContext = ApplicationContextConfig.getApplicationContext();
+        if (applicationContext == null) {
+            return Metrics.globalRegistry;
+        }
+        return applicationContext.getBeanProvider(MeterRegistry.class).getIfUnique(() -> Metrics.globalRegistry);
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry);
+    }
+
+    @Override
+    public void acquired(long acquireNanos, long waitNanos) {
+        acquireSuccess.record(acquireNanos, TimeUnit.NANOSECONDS);
+        wait.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void timeout(long acquireNanos) {
+        acquireTimeout.record(acquireNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void error(long acquireNanos) {
+        acquireError.record(acquireNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void released(long holdNanos, boolean expired) {
+        hold.record(holdNanos, TimeUnit.NANOSECONDS);
+        if (expired) {
+            leaseExpired.increment();
+        }
+    }
+}
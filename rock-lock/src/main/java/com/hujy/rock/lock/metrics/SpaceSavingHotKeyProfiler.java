@@ -0,0 +1,198 @@
+package com.hujy.rock.lock.metrics;
+
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于Space-Saving算法的热点key竞争分析
+ * 最多跟踪capacity个key，满了之后新key替换计数最小的key并继承其计数(记为误差)，内存与key的基数无关；
+ * 竞争次数超过总次数 1/capacity 的key一定在跟踪列表中
+ * <p>
+ * 未发生竞争的加锁只做一次阈值比较；竞争事件写入无锁队列即返回，由汇总线程每DRAIN_INTERVAL取出，
+ * 在Stream-Summary(StreamSummary)中以O(1)更新，记录方之间不争抢同一把锁；队列积压超过上限时丢弃并计数
+ * 每个logInterval打印一次top-N，之后所有计数减半，统计偏向最近的竞争(半衰期即logInterval)
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 00:15
+ */
+@Slf4j
+public class SpaceSavingHotKeyProfiler implements HotKeyProfiler {
+
+    /**
+     * 汇总间隔(毫秒)
+     */
+    private static final long DRAIN_INTERVAL = 100L;
+
+    /**
+     * 每个跟踪位置允许积压的事件数，积压上限为 capacity * PENDING_PER_KEY
+     */
+    private static final int PENDING_PER_KEY = 64;
+
+    private final long waitThresholdNanos;
+
+    private final int logTop;
+
+    private final int maxPending;
+
+    /**
+     * 待汇总的竞争事件
+     */
+    private final ConcurrentLinkedQueue<Event> events = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * 积压超过上限而丢弃的事件数
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * 汇总线程与top查询之间互斥，记录方不获取；不使用synchronized，避免虚拟线程占住载体线程
+     */
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private final StreamSummary summary;
+
+    /**
+     * 上次打印之后的竞争次数
+     */
+    private long recentEvents;
+
+    private final ScheduledExecutorService scheduler;
+
+    public SpaceSavingHotKeyProfiler(DistLockConfigProperties.Profiler properties) {
+        int capacity = Math.max(1, properties.getCapacity());
+        this.waitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWaitThresholdMillis());
+        this.logTop = properties.getTop();
+        this.maxPending = capacity * PENDING_PER_KEY;
+        this.summary = new StreamSummary(capacity);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rock-lock-hotkey-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleWithFixedDelay(this::drainQuietly, DRAIN_INTERVAL, DRAIN_INTERVAL, TimeUnit.MILLISECONDS);
+        long logInterval = properties.getLogInterval();
+        if (logInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::report, logInterval, logInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void acquired(String lockKey, long waitNanos) {
+        if (waitNanos >= waitThresholdNanos) {
+            record(lockKey, waitNanos, false);
+        }
+    }
+
+    @Override
+    public void timeout(String lockKey, long waitNanos) {
+        record(lockKey, waitNanos, true);
+    }
+
+    private void record(String lockKey, long waitNanos, boolean timeout) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        events.offer(new Event(lockKey, waitNanos, timeout));
+    }
+
+    /**
+     * 把积压的事件汇总到Stream-Summary，调用方持有drainLock
+     */
+    private void drain() {
+        Event event;
+        while ((event = events.poll()) != null) {
+            pending.decrementAndGet();
+            summary.offer(event.lockKey, event.waitNanos, event.timeout);
+            recentEvents++;
+        }
+    }
+
+    private void drainQuietly() {
+        drainLock.lock();
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("dist lock hot key drain failed", e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public List<HotKey> top(int n) {
+        List<HotKey> hotKeys;
+        drainLock.lock();
+        try {
+            drain();
+            hotKeys = summary.snapshot();
+        } finally {
+            drainLock.unlock();
+        }
+        hotKeys.sort(Comparator.comparingLong(HotKey::getCount).reversed());
+        return hotKeys.size() > n ? new ArrayList<>(hotKeys.subList(0, Math.max(0, n))) : hotKeys;
+    }
+
+    /**
+     * 打印top-N并衰减计数，期间没有竞争时不打印
+     */
+    private void report() {
+        try {
+            List<HotKey> hotKeys = null;
+            long events;
+            drainLock.lock();
+            try {
+                drain();
+                events = recentEvents;
+                recentEvents = 0L;
+                if (events > 0 && logTop > 0) {
+                    hotKeys = summary.snapshot();
+                }
+                summary.decay();
+            } finally {
+                drainLock.unlock();
+            }
+            long droppedEvents = dropped.sumThenReset();
+            if (hotKeys != null) {
+                hotKeys.sort(Comparator.comparingLong(HotKey::getCount).reversed());
+                log.info("dist lock hot keys -> contended:{} dropped:{} top:{}", events, droppedEvents,
+                        hotKeys.size() > logTop ? hotKeys.subList(0, logTop) : hotKeys);
+            }
+        } catch (RuntimeException e) {
+            log.warn("dist lock hot key report failed", e);
+        }
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class Event {
+
+        private final String lockKey;
+
+        private final long waitNanos;
+
+        private final boolean timeout;
+
+        private Event(String lockKey, long waitNanos, boolean timeout) {
+            this.lockKey = lockKey;
+            this.waitNanos = waitNanos;
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.hujy.rock.lock.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Space-Saving算法的Stream-Summary结构
+ * 计数相同的key挂在同一个桶上，桶按计数从小到大组成链表：计数加一只把key移到相邻的桶，淘汰时取第一个桶中的任意key，均为O(1)
+ * 非线程安全，只由汇总线程访问
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 12:30
+ */
+final class StreamSummary {
+
+    private final int capacity;
+
+    /**
+     * (lockKey -> counter)
+     */
+    private final Map<String, Counter> counters;
+
+    /**
+     * 计数最小的桶
+     */
+    private Bucket head;
+
+    StreamSummary(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.counters = new HashMap<>(this.capacity * 4 / 3 + 1);
+    }
+
+    /**
+     * 记录一次竞争，满了之后新key替换计数最小的key并继承其计数(记为误差)
+     *
+     * @param lockKey
+     * @param waitNanos
+     * @param timeout
+     * @return void
+     * @author hujy
+     * @date 2026-10-19 12:32
+     */
+    void offer(String lockKey, long waitNanos, boolean timeout) {
+        Counter counter = counters.get(lockKey);
+        if (counter == null) {
+            if (counters.size() >= capacity) {
+                counter = head.first;
+                counters.remove(counter.key);
+                counter.key = lockKey;
+                counter.error = counter.count;
+                counter.timeouts = 0L;
+                counter.waitNanos = 0L;
+            } else {
+                counter = new Counter(lockKey);
+            }
+            counters.put(lockKey, counter);
+        }
+        counter.waitNanos += waitNanos;
+        if (timeout) {
+            counter.timeouts++;
+        }
+        increment(counter);
+    }
+
+    /**
+     * 计数加一，移到下一个桶(不存在时在当前桶之后新建)
+     */
+    private void increment(Counter counter) {
+        Bucket from = counter.bucket;
+        Bucket next = from != null ? from.next : head;
+        long count = counter.count + 1;
+        Bucket to;
+        if (next != null && next.count == count) {
+            to = next;
+        } else {
+            to = new Bucket(count);
+            to.prev = from;
+            to.next = next;
+            if (next != null) {
+                next.prev = to;
+            }
+            if (from != null) {
+                from.next = to;
+            } else {
+                head = to;
+            }
+        }
+        if (from != null) {
+            detach(counter);
+        }
+        counter.count = count;
+        attach(counter, to);
+    }
+
+    private void attach(Counter counter, Bucket bucket) {
+        counter.bucket = bucket;
+        counter.prev = null;
+        counter.next = bucket.first;
+        if (bucket.first != null) {
+            bucket.first.prev = counter;
+        }
+        bucket.first = counter;
+    }
+
+    /**
+     * 从所在的桶中移除，桶为空时同时移除桶
+     */
+    private void detach(Counter counter) {
+        Bucket bucket = counter.bucket;
+        if (counter.prev != null) {
+            counter.prev.next = counter.next;
+        } else {
+            bucket.first = counter.next;
+        }
+        if (counter.next != null) {
+            counter.next.prev = counter.prev;
+        }
+        counter.bucket = null;
+        counter.prev = null;
+        counter.next = null;
+        if (bucket.first == null) {
+            if (bucket.prev != null) {
+                bucket.prev.next = bucket.next;
+            } else {
+                head = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.prev = bucket.prev;
+            }
+        }
+    }
+
+    /**
+     * 所有计数减半，计数归零的key移除，按新的计数重建桶链表
+     */
+    void decay() {
+        List<Counter> remaining = new ArrayList<>(counters.size());
+        for (Counter counter : counters.values()) {
+            counter.count >>= 1;
+            counter.error >>= 1;
+            counter.timeouts >>= 1;
+            counter.waitNanos >>= 1;
+            if (counter.count > 0L) {
+                remaining.add(counter);
+            }
+        }
+        counters.clear();
+        head = null;
+        remaining.sort(Comparator.comparingLong(counter -> counter.count));
+        Bucket last = null;
+        for (Counter counter : remaining) {
+            if (last == null || last.count != counter.count) {
+                Bucket bucket = new Bucket(counter.count);
+                bucket.prev = last;
+                if (last != null) {
+                    last.next = bucket;
+                } else {
+                    head = bucket;
+                }
+                last = bucket;
+            }
+            attach(counter, last);
+            counters.put(counter.key, counter);
+        }
+    }
+
+    /**
+     * 当前跟踪的所有key，未排序
+     */
+    List<HotKey> snapshot() {
+        List<HotKey> hotKeys = new ArrayList<>(counters.size());
+        for (Counter counter : counters.values()) {
+            // 继承来的计数不包含等待时间，平均值只按本key的次数计算
+            long own = counter.count - counter.error;
+            hotKeys.add(new HotKey(counter.key, counter.count, counter.error, counter.timeouts,
+                    TimeUnit.NANOSECONDS.toMillis(counter.waitNanos),
+                    own > 0 ? counter.waitNanos / 1e6 / own : 0D));
+        }
+        return hotKeys;
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private static final class Bucket {
+
+        private final long count;
+
+        private Bucket prev;
+
+        private Bucket next;
+
+        private Counter first;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+    }
+
+    private static final class Counter {
+
+        private String key;
+
+        private long count;
+
+        private long error;
+
+        private long timeouts;
+
+        private long waitNanos;
+
+        private Bucket bucket;
+
+        private Counter prev;
+
+        private Counter next;
+
+        private Counter(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.exception.DistLockException;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * fencing token：单调递增、计数器不过期、嵌套调用沿用外层token
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 11:30
+ */
+public class FencedLockTest extends AbstractRedisTest {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    private DistLockApi lettuce;
+
+    private DistLockApi redisson;
+
+    private String lockKey;
+
+    @Before
+    public void setUp() {
+        lettuce = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE);
+        redisson = new RedissonDistLock(redissonClient, false);
+        lockKey = "fenced-test:" + UUID.randomUUID();
+    }
+
+    @Test
+    public void lettuceTokensIncrease() throws Exception {
+        assertTokensIncrease(lettuce);
+    }
+
+    @Test
+    public void redissonTokensIncrease() throws Exception {
+        assertTokensIncrease(redisson);
+    }
+
+    @Test
+    public void lettuceNestedFencedLockReusesToken() throws Exception {
+        assertNestedReusesToken(lettuce);
+    }
+
+    @Test
+    public void redissonNestedFencedLockReusesToken() throws Exception {
+        assertNestedReusesToken(redisson);
+    }
+
+    @Test
+    public void lettuceFencedLockInsidePlainLockIsRejected() throws Exception {
+        assertTrue(lettuce.lock(lockKey, "outer", 30, 0, TimeUnit.SECONDS));
+        try {
+            lettuce.fencedLock(lockKey, "inner", 30, 1, TimeUnit.SECONDS);
+            fail("nested fencedLock without token was accepted");
+        } catch (DistLockException expected) {
+            // 外层没有token，直接拒绝而不是等待自己释放
+        }
+        assertTrue(lettuce.unlock(lockKey, "outer"));
+        assertFalse(stringRedisTemplate.hasKey(lockKey));
+    }
+
+    private void assertTokensIncrease(DistLockApi distLock) throws Exception {
+        long first = distLock.fencedLock(lockKey, "first", 30, 0, TimeUnit.SECONDS);
+        assertTrue(distLock.unlock(lockKey, "first"));
+        long second = distLock.fencedLock(lockKey, "second", 30, 0, TimeUnit.SECONDS);
+        assertTrue(distLock.unlock(lockKey, "second"));
+        assertTrue(first > 0L);
+        assertEquals(first + 1, second);
+
+        // 计数器过期后token会从1重新开始
+        assertEquals(Long.valueOf(-1L), stringRedisTemplate.getExpire(RedisKeys.fencingKey(lockKey)));
+    }
+
+    private void assertNestedReusesToken(DistLockApi distLock) throws Exception {
+        long outer = distLock.fencedLock(lockKey, "outer", 30, 0, TimeUnit.SECONDS);
+        assertTrue(outer > 0L);
+        long inner = distLock.fencedLock(lockKey, "inner", 30, 1, TimeUnit.SECONDS);
+        assertEquals(outer, inner);
+        assertTrue(distLock.unlock(lockKey, "inner"));
+        assertTrue(stringRedisTemplate.hasKey(lockKey));
+        assertTrue(distLock.unlock(lockKey, "outer"));
+        assertFalse(stringRedisTemplate.hasKey(lockKey));
+
+        assertEquals(outer + 1, distLock.fencedLock(lockKey, "next", 30, 0, TimeUnit.SECONDS));
+        assertTrue(distLock.unlock(lockKey, "next"));
+    }
+}
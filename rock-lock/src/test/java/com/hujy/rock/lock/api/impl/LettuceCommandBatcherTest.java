@@ -0,0 +1,130 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 加解锁命令批量器：批量加解锁、调用方超时后补发解锁、关闭
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 11:10
+ */
+public class LettuceCommandBatcherTest extends AbstractRedisTest {
+
+    /**
+     * 命令超时，小于凑批窗口时调用方必然在命令发出前超时
+     */
+    private static final long COMMAND_TIMEOUT = 200L;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private String lockKey;
+
+    @Before
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", 16399),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofMillis(COMMAND_TIMEOUT)).build());
+        connectionFactory.afterPropertiesSet();
+        lockKey = "batcher-test:" + UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    public void lockAndUnlock() {
+        LettuceCommandBatcher batcher = LettuceCommandBatcher.create(connectionFactory, batch(0L));
+        try {
+            assertTrue(batcher.setIfAbsent(lockKey, "owner", 30000L));
+            assertFalse(batcher.setIfAbsent(lockKey, "other", 30000L));
+            assertFalse(batcher.unlock(lockKey, "other", LettuceReleaseSubscriber.getChannelName(lockKey)));
+            assertTrue(batcher.unlock(lockKey, "owner", LettuceReleaseSubscriber.getChannelName(lockKey)));
+            assertFalse(stringRedisTemplate.hasKey(lockKey));
+        } finally {
+            batcher.close();
+        }
+    }
+
+    @Test
+    public void lateLockAfterTimeoutIsReleased() throws Exception {
+        LettuceCommandBatcher batcher = LettuceCommandBatcher.create(connectionFactory, batch(COMMAND_TIMEOUT * 2 * 1000L));
+        try {
+            try {
+                batcher.setIfAbsent(lockKey, "owner", 30000L);
+                fail("lock command did not time out");
+            } catch (QueryTimeoutException expected) {
+                // 调用方放弃等待，SET NX在窗口结束后才发出
+            }
+            long deadline = System.currentTimeMillis() + 3000L;
+            boolean locked = false;
+            while (System.currentTimeMillis() < deadline) {
+                if (stringRedisTemplate.hasKey(lockKey)) {
+                    locked = true;
+                } else if (locked) {
+                    return;
+                }
+                Thread.sleep(5L);
+            }
+            fail(locked ? "orphan lock was not released" : "late lock command never ran");
+        } finally {
+            batcher.close();
+        }
+    }
+
+    @Test
+    public void lateLockDoesNotReleaseOtherOwner() throws Exception {
+        stringRedisTemplate.opsForValue().set(lockKey, "other", Duration.ofSeconds(30));
+        LettuceCommandBatcher batcher = LettuceCommandBatcher.create(connectionFactory, batch(COMMAND_TIMEOUT * 2 * 1000L));
+        try {
+            try {
+                batcher.setIfAbsent(lockKey, "owner", 30000L);
+                fail("lock command did not time out");
+            } catch (QueryTimeoutException expected) {
+                // 锁由他人持有，SET NX失败，不补发解锁
+            }
+            Thread.sleep(COMMAND_TIMEOUT * 6);
+            assertEquals("other", stringRedisTemplate.opsForValue().get(lockKey));
+        } finally {
+            batcher.close();
+            stringRedisTemplate.delete(lockKey);
+        }
+    }
+
+    @Test(expected = RedisSystemException.class)
+    public void closedBatcherRejectsCommands() {
+        LettuceCommandBatcher batcher = LettuceCommandBatcher.create(connectionFactory, batch(0L));
+        batcher.close();
+        batcher.setIfAbsent(lockKey, "owner", 30000L);
+    }
+
+    private static DistLockConfigProperties.Lettuce.Batch batch(long windowMicros) {
+        DistLockConfigProperties.Lettuce.Batch batch = new DistLockConfigProperties.Lettuce.Batch();
+        batch.setEnable(true);
+        batch.setWindowMicros(windowMicros);
+        return batch;
+    }
+}
@@ -0,0 +1,117 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * lettuce公平锁：按入队顺序获得锁、等待超时退出队列、异常退出的等待者超时后被移出队列
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 15:10
+ */
+public class LettuceFairLockTest extends AbstractRedisTest {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private DistLockApi distLock;
+
+    private String lockKey;
+
+    private String queueKey;
+
+    private String timeoutKey;
+
+    @Before
+    public void setUp() {
+        distLock = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE);
+        lockKey = "fair-test:" + UUID.randomUUID();
+        queueKey = RedisKeys.sameSlot("rock_lock__queue:", lockKey);
+        timeoutKey = RedisKeys.sameSlot("rock_lock__timeout:", lockKey);
+    }
+
+    @After
+    public void tearDown() {
+        stringRedisTemplate.delete(Arrays.asList(lockKey, queueKey, timeoutKey));
+    }
+
+    @Test
+    public void waitersAcquireInArrivalOrder() throws Exception {
+        assertTrue(distLock.fairLock(lockKey, "holder", 30, 0, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> fairLock("first", 10));
+        awaitQueue(Collections.singletonList("first"));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> fairLock("second", 10));
+        awaitQueue(Arrays.asList("first", "second"));
+
+        assertTrue(distLock.fairUnlock(lockKey, "holder"));
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertEquals("first", stringRedisTemplate.opsForValue().get(lockKey));
+        Thread.sleep(200L);
+        assertFalse("second overtook the head of the queue", second.isDone());
+
+        assertTrue(distLock.fairUnlock(lockKey, "first"));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals("second", stringRedisTemplate.opsForValue().get(lockKey));
+        assertTrue(distLock.fairUnlock(lockKey, "second"));
+        assertFalse(stringRedisTemplate.hasKey(queueKey));
+    }
+
+    @Test
+    public void timedOutWaiterLeavesQueue() throws Exception {
+        assertTrue(distLock.fairLock(lockKey, "holder", 30, 0, TimeUnit.SECONDS));
+        assertFalse(distLock.fairLock(lockKey, "waiter", 30, 300, TimeUnit.MILLISECONDS));
+        assertFalse(stringRedisTemplate.opsForList().range(queueKey, 0, -1).contains("waiter"));
+        assertNull(stringRedisTemplate.opsForZSet().score(timeoutKey, "waiter"));
+        assertFalse(distLock.fairUnlock(lockKey, "waiter"));
+        assertTrue(distLock.fairUnlock(lockKey, "holder"));
+    }
+
+    @Test
+    public void crashedWaiterExpires() throws Exception {
+        // 异常退出的等待者：位于队头，不再刷新超时时间
+        stringRedisTemplate.opsForList().rightPush(queueKey, "crashed");
+        stringRedisTemplate.opsForZSet().add(timeoutKey, "crashed", System.currentTimeMillis() + 500L);
+
+        assertFalse("lock granted ahead of the queue head", distLock.fairLock(lockKey, "next", 30, 0, TimeUnit.SECONDS));
+        assertTrue(distLock.fairLock(lockKey, "next", 30, 5, TimeUnit.SECONDS));
+        assertFalse(stringRedisTemplate.opsForList().range(queueKey, 0, -1).contains("crashed"));
+        assertNull(stringRedisTemplate.opsForZSet().score(timeoutKey, "crashed"));
+        assertTrue(distLock.fairUnlock(lockKey, "next"));
+    }
+
+    private boolean fairLock(String requestId, int waitSeconds) {
+        try {
+            return distLock.fairLock(lockKey, requestId, 30, waitSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitQueue(List<String> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000L;
+        while (!expected.equals(stringRedisTemplate.opsForList().range(queueKey, 0, -1))) {
+            assertTrue("waiters did not enter the queue " + expected, System.currentTimeMillis() < deadline);
+            Thread.sleep(5L);
+        }
+    }
+}
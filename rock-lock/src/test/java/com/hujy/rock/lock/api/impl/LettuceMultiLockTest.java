@@ -0,0 +1,114 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * lettuce多key锁：全部成功或全部失败、跨slot分批时回滚已加锁的批次、按hash tag分批
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 15:45
+ */
+public class LettuceMultiLockTest extends AbstractRedisTest {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private DistLockApi distLock;
+
+    private String tag;
+
+    @Before
+    public void setUp() {
+        distLock = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE);
+        tag = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void allOrNothing() throws Exception {
+        List<String> keys = Arrays.asList(tag + ":1", tag + ":2", tag + ":3");
+        stringRedisTemplate.opsForValue().set(keys.get(1), "other", Duration.ofSeconds(30));
+
+        assertFalse(distLock.multiLock(keys, "owner", 30, 0, TimeUnit.SECONDS));
+        assertFalse(stringRedisTemplate.hasKey(keys.get(0)));
+        assertFalse(stringRedisTemplate.hasKey(keys.get(2)));
+
+        stringRedisTemplate.delete(keys.get(1));
+        assertTrue(distLock.multiLock(keys, "owner", 30, 0, TimeUnit.SECONDS));
+        for (String key : keys) {
+            assertEquals("owner", stringRedisTemplate.opsForValue().get(key));
+        }
+        assertFalse(distLock.multiUnlock(keys, "other"));
+        assertTrue(distLock.multiUnlock(keys, "owner"));
+        for (String key : keys) {
+            assertFalse(stringRedisTemplate.hasKey(key));
+        }
+    }
+
+    @Test
+    public void waitsForHeldKey() throws Exception {
+        List<String> keys = Arrays.asList(tag + ":1", tag + ":2");
+        stringRedisTemplate.opsForValue().set(keys.get(1), "other", Duration.ofMillis(300));
+        assertTrue(distLock.multiLock(keys, "owner", 30, 3, TimeUnit.SECONDS));
+        assertTrue(distLock.multiUnlock(keys, "owner"));
+    }
+
+    @Test
+    public void groupsByHashTag() {
+        List<String> keys = Arrays.asList("{" + tag + "-a}:1", "{" + tag + "-a}:2", "{" + tag + "-b}:1");
+        withCluster(() -> {
+            List<List<String>> groups = ReflectionTestUtils.invokeMethod(distLock, "groupBySlot", keys);
+            assertEquals(Arrays.asList(keys.subList(0, 2), Collections.singletonList(keys.get(2))), groups);
+        });
+    }
+
+    @Test
+    public void laterGroupFailureRollsBackEarlierGroups() {
+        List<String> keys = Arrays.asList("{" + tag + "-a}:1", "{" + tag + "-a}:2", "{" + tag + "-b}:1");
+        stringRedisTemplate.opsForValue().set(keys.get(2), "other", Duration.ofSeconds(30));
+        withCluster(() -> {
+            try {
+                assertFalse(distLock.multiLock(keys, "owner", 30, 0, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertNull(stringRedisTemplate.opsForValue().get(keys.get(0)));
+        assertNull(stringRedisTemplate.opsForValue().get(keys.get(1)));
+        assertEquals("other", stringRedisTemplate.opsForValue().get(keys.get(2)));
+        stringRedisTemplate.delete(keys.get(2));
+    }
+
+    /**
+     * 在单机redis上按集群模式分批执行，各批次仍是独立的脚本调用
+     */
+    private static void withCluster(Runnable runnable) {
+        Object cluster = ReflectionTestUtils.getField(LettuceDistLock.class, "cluster");
+        ReflectionTestUtils.setField(LettuceDistLock.class, "cluster", true);
+        try {
+            runnable.run();
+        } finally {
+            ReflectionTestUtils.setField(LettuceDistLock.class, "cluster", cluster);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * lettuce读写锁：写者等待期间不再放入新的读者，崩溃读者的字段按各自的租约过期
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 10:45
+ */
+public class LettuceReadWriteLockTest extends AbstractRedisTest {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private DistLockApi distLock;
+
+    private String lockKey;
+
+    @Before
+    public void setUp() {
+        distLock = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE);
+        lockKey = "rw-test:" + UUID.randomUUID();
+    }
+
+    @Test
+    public void waitingWriterBlocksNewReaders() throws Exception {
+        assertTrue(distLock.readLock(lockKey, "reader-1", 30, 0, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> writer = CompletableFuture.supplyAsync(() -> writeLock("writer", 5));
+        awaitWriterWaiting();
+
+        assertFalse("reader joined while a writer is waiting", distLock.readLock(lockKey, "reader-2", 30, 0, TimeUnit.SECONDS));
+        assertFalse(writer.isDone());
+
+        assertTrue(distLock.readUnlock(lockKey, "reader-1"));
+        assertTrue(writer.get(3, TimeUnit.SECONDS));
+        assertFalse(distLock.readLock(lockKey, "reader-2", 30, 0, TimeUnit.SECONDS));
+
+        assertTrue(distLock.writeUnlock(lockKey, "writer"));
+        assertTrue(distLock.readLock(lockKey, "reader-2", 30, 0, TimeUnit.SECONDS));
+        assertTrue(distLock.readUnlock(lockKey, "reader-2"));
+    }
+
+    @Test
+    public void timedOutWriterLetsReadersIn() throws Exception {
+        assertTrue(distLock.readLock(lockKey, "reader-1", 30, 0, TimeUnit.SECONDS));
+        assertFalse(distLock.writeLock(lockKey, "writer", 30, 1, TimeUnit.SECONDS));
+
+        assertTrue(distLock.readLock(lockKey, "reader-2", 30, 0, TimeUnit.SECONDS));
+        assertTrue(distLock.readUnlock(lockKey, "reader-1"));
+        assertTrue(distLock.readUnlock(lockKey, "reader-2"));
+    }
+
+    @Test
+    public void crashedReaderExpires() throws Exception {
+        // reader-1未释放(模拟崩溃)，其租约先于reader-2到期
+        assertTrue(distLock.readLock(lockKey, "reader-1", 1, 0, TimeUnit.SECONDS));
+        assertTrue(distLock.readLock(lockKey, "reader-2", 30, 0, TimeUnit.SECONDS));
+        Thread.sleep(1200L);
+
+        assertTrue(distLock.readUnlock(lockKey, "reader-2"));
+        assertFalse("stale reader kept the lock", stringRedisTemplate.hasKey(lockKey));
+        assertTrue(distLock.writeLock(lockKey, "writer", 30, 0, TimeUnit.SECONDS));
+        assertTrue(distLock.writeUnlock(lockKey, "writer"));
+    }
+
+    private boolean writeLock(String requestId, int waitTime) {
+        try {
+            return distLock.writeLock(lockKey, requestId, 30, waitTime, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitWriterWaiting() throws InterruptedException {
+        String marker = RedisKeys.sameSlot(LettuceDistLock.WRITER_WAITING_PREFIX, lockKey);
+        long deadline = System.currentTimeMillis() + 2000L;
+        while (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(marker))) {
+            assertTrue("writer is not waiting", System.currentTimeMillis() < deadline);
+            Thread.sleep(5L);
+        }
+    }
+}
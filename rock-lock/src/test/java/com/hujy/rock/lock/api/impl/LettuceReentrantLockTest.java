@@ -0,0 +1,97 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.WaitStrategy;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.annotation.Resource;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * lettuce重入：同线程嵌套加解锁只在最外层释放，不支持reactive的连接工厂上的异步加锁不经过线程持有表
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 14:10
+ */
+public class LettuceReentrantLockTest extends AbstractRedisTest {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private DistLockApi distLock;
+
+    private String lockKey;
+
+    @Before
+    public void setUp() {
+        distLock = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE);
+        lockKey = "reentrant-test:" + UUID.randomUUID();
+    }
+
+    @Test
+    public void nestedLockReleasesOnlyAtOutermost() throws Exception {
+        assertTrue(distLock.lock(lockKey, "outer", 30, 0, TimeUnit.SECONDS));
+        assertTrue(distLock.lock(lockKey, "inner", 30, 0, TimeUnit.SECONDS));
+        assertEquals("outer", stringRedisTemplate.opsForValue().get(lockKey));
+        // 其他线程不能重入
+        assertFalse(CompletableFuture.supplyAsync(this::lockOther).get(5, TimeUnit.SECONDS));
+
+        assertTrue(distLock.unlock(lockKey, "inner"));
+        assertEquals("outer", stringRedisTemplate.opsForValue().get(lockKey));
+        assertTrue(distLock.unlock(lockKey, "outer"));
+        assertFalse(stringRedisTemplate.hasKey(lockKey));
+
+        // 全部释放后不再重入
+        assertTrue(distLock.lock(lockKey, "next", 30, 0, TimeUnit.SECONDS));
+        assertEquals("next", stringRedisTemplate.opsForValue().get(lockKey));
+        assertTrue(distLock.unlock(lockKey, "next"));
+    }
+
+    @Test
+    public void blockingAsyncLockIsNotReentered() throws Exception {
+        Object asyncCommands = ReflectionTestUtils.getField(LettuceDistLock.class, "asyncCommands");
+        // 单线程executor：两次加锁落在同一线程上
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(LettuceDistLock.class, "asyncCommands", null);
+        try {
+            WaitStrategy waitStrategy = (attempt, ttl, notified) -> 10L;
+            CompletableFuture<Boolean> first = distLock.lockAsync(lockKey, "first", 30, 0, TimeUnit.SECONDS,
+                    waitStrategy, executor).toCompletableFuture();
+            CompletableFuture<Boolean> second = distLock.lockAsync(lockKey, "second", 30, 0, TimeUnit.SECONDS,
+                    waitStrategy, executor).toCompletableFuture();
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertFalse("unrelated request re-entered the lock", second.get(5, TimeUnit.SECONDS));
+            assertEquals("first", stringRedisTemplate.opsForValue().get(lockKey));
+
+            assertFalse(distLock.unlockAsync(lockKey, "second", executor).toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertTrue(distLock.unlockAsync(lockKey, "first", executor).toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertFalse(stringRedisTemplate.hasKey(lockKey));
+        } finally {
+            ReflectionTestUtils.setField(LettuceDistLock.class, "asyncCommands", asyncCommands);
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean lockOther() {
+        try {
+            return distLock.lock(lockKey, "other", 30, 0, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.config.lettuce.LettuceLockConfig;
+import com.hujy.rock.lock.config.lettuce.LockListenerContainer;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 锁释放通知订阅：订阅、唤醒、取消订阅
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 09:20
+ */
+public class LettuceReleaseSubscriberTest extends AbstractRedisTest {
+
+    @Resource(name = LettuceLockConfig.LOCK_LISTENER_CONTAINER)
+    private LockListenerContainer listenerContainer;
+
+    @Resource
+    private RedisConnectionFactory connectionFactory;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private LettuceReleaseSubscriber subscriber;
+
+    private String lockKey;
+
+    @Before
+    public void setUp() {
+        subscriber = new LettuceReleaseSubscriber(listenerContainer.getContainer());
+        lockKey = "subscriber-test:" + UUID.randomUUID();
+    }
+
+    @Test
+    public void releaseWakesOneWaiter() throws Exception {
+        LettuceReleaseSubscriber.ReleaseEntry entry = subscriber.subscribe(lockKey);
+        try {
+            long mark = entry.mark();
+            assertFalse(entry.await(mark, 50, TimeUnit.MILLISECONDS));
+            publishUntilReceived("0");
+            assertTrue(entry.await(mark, 2, TimeUnit.SECONDS));
+            // 单个唤醒只能领取一次
+            assertFalse(entry.await(mark, 50, TimeUnit.MILLISECONDS));
+        } finally {
+            subscriber.unsubscribe(entry);
+        }
+    }
+
+    @Test
+    public void wakeAllReleasesEveryWaiter() throws Exception {
+        LettuceReleaseSubscriber.ReleaseEntry first = subscriber.subscribe(lockKey);
+        LettuceReleaseSubscriber.ReleaseEntry second = subscriber.subscribe(lockKey);
+        assertSame(first, second);
+        try {
+            long mark = first.mark();
+            CountDownLatch started = new CountDownLatch(2);
+            CompletableFuture<Boolean> a = CompletableFuture.supplyAsync(() -> await(first, mark, started));
+            CompletableFuture<Boolean> b = CompletableFuture.supplyAsync(() -> await(second, mark, started));
+            assertTrue(started.await(2, TimeUnit.SECONDS));
+            publishUntilReceived("1");
+            assertTrue(a.get(2, TimeUnit.SECONDS));
+            assertTrue(b.get(2, TimeUnit.SECONDS));
+        } finally {
+            subscriber.unsubscribe(first);
+            subscriber.unsubscribe(second);
+        }
+    }
+
+    @Test
+    public void lastWaiterUnsubscribes() throws Exception {
+        LettuceReleaseSubscriber.ReleaseEntry first = subscriber.subscribe(lockKey);
+        LettuceReleaseSubscriber.ReleaseEntry second = subscriber.subscribe(lockKey);
+        subscriber.unsubscribe(first);
+        // 仍有等待者，频道保持订阅
+        publishUntilReceived("0");
+        assertTrue(second.await(second.mark(), 2, TimeUnit.SECONDS));
+
+        subscriber.unsubscribe(second);
+        long deadline = System.currentTimeMillis() + 2000L;
+        while (publish("0") > 0L) {
+            assertTrue("channel is still subscribed", System.currentTimeMillis() < deadline);
+            Thread.sleep(5L);
+        }
+        LettuceReleaseSubscriber.ReleaseEntry third = subscriber.subscribe(lockKey);
+        try {
+            assertNotSame(second, third);
+            publishUntilReceived("0");
+            assertTrue(third.await(third.mark(), 2, TimeUnit.SECONDS));
+        } finally {
+            subscriber.unsubscribe(third);
+        }
+    }
+
+    /**
+     * 最后一个等待者取消订阅期间到达的新等待者，等取消订阅完成后重新订阅，之后的释放通知不会丢失
+     */
+    @Test
+    public void subscribeWaitsForPendingUnsubscribe() throws Exception {
+        CountDownLatch removing = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        RedisMessageListenerContainer blockingContainer = new RedisMessageListenerContainer() {
+            @Override
+            public void removeMessageListener(MessageListener listener, Topic topic) {
+                removing.countDown();
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.removeMessageListener(listener, topic);
+            }
+        };
+        blockingContainer.setConnectionFactory(connectionFactory);
+        blockingContainer.afterPropertiesSet();
+        blockingContainer.start();
+        LettuceReleaseSubscriber blockingSubscriber = new LettuceReleaseSubscriber(blockingContainer);
+        try {
+            LettuceReleaseSubscriber.ReleaseEntry leaving = blockingSubscriber.subscribe(lockKey);
+            CompletableFuture<Void> unsubscribed = CompletableFuture.runAsync(() -> blockingSubscriber.unsubscribe(leaving));
+            assertTrue(removing.await(2, TimeUnit.SECONDS));
+            CompletableFuture<LettuceReleaseSubscriber.ReleaseEntry> subscribed =
+                    CompletableFuture.supplyAsync(() -> blockingSubscriber.subscribe(lockKey));
+            Thread.sleep(100L);
+            assertFalse("subscribed while the channel is being unsubscribed", subscribed.isDone());
+
+            proceed.countDown();
+            unsubscribed.get(2, TimeUnit.SECONDS);
+            LettuceReleaseSubscriber.ReleaseEntry arriving = subscribed.get(2, TimeUnit.SECONDS);
+            assertNotSame(leaving, arriving);
+            long mark = arriving.mark();
+            publishUntilReceived("0");
+            assertTrue(arriving.await(mark, 2, TimeUnit.SECONDS));
+        } finally {
+            proceed.countDown();
+            blockingContainer.destroy();
+        }
+    }
+
+    private static boolean await(LettuceReleaseSubscriber.ReleaseEntry entry, long mark, CountDownLatch started) {
+        started.countDown();
+        try {
+            return entry.await(mark, 2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 订阅在监听容器的订阅线程上生效，发布到至少一个订阅者收到为止
+     */
+    private void publishUntilReceived(String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000L;
+        while (publish(message) == 0L) {
+            assertTrue("channel is not subscribed", System.currentTimeMillis() < deadline);
+            Thread.sleep(5L);
+        }
+    }
+
+    private long publish(String message) {
+        byte[] channel = LettuceReleaseSubscriber.getChannelName(lockKey).getBytes(StandardCharsets.UTF_8);
+        Long receivers = stringRedisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.publish(channel, message.getBytes(StandardCharsets.UTF_8)));
+        return receivers != null ? receivers : 0L;
+    }
+}
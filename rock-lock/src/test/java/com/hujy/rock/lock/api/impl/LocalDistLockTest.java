@@ -0,0 +1,148 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.api.WaitStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 进程内锁：租期到期、只有持有者能释放、限时等待、中断与清理后不残留条目、默认的异步加解锁在指定的线程池中执行
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 13:50
+ */
+public class LocalDistLockTest {
+
+    private static final String EXECUTOR_THREAD = "local-test-exec-";
+
+    private LocalDistLock localLock;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        localLock = new LocalDistLock();
+        executor = Executors.newFixedThreadPool(2, new CustomizableThreadFactory(EXECUTOR_THREAD));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void leaseExpires() throws Exception {
+        assertTrue(localLock.lock("key", "owner", 100, 0, TimeUnit.MILLISECONDS));
+        assertFalse(localLock.lock("key", "other", 100, 0, TimeUnit.MILLISECONDS));
+        Thread.sleep(150L);
+        assertTrue(localLock.lock("key", "other", 30, 0, TimeUnit.SECONDS));
+        // 租期已过的持有者不能释放新持有者的锁
+        assertFalse(localLock.unlock("key", "owner"));
+        assertTrue(localLock.unlock("key", "other"));
+        assertEquals(0, entries().size());
+    }
+
+    @Test
+    public void onlyOwnerUnlocks() throws Exception {
+        assertTrue(localLock.lock("key", "owner", -1, 0, TimeUnit.SECONDS));
+        assertFalse(localLock.unlock("key", "other"));
+        assertFalse(localLock.unlock("missing", "owner"));
+        assertFalse(localLock.lock("key", "other", 30, 0, TimeUnit.SECONDS));
+        assertTrue(localLock.unlock("key", "owner"));
+        assertFalse(localLock.unlock("key", "owner"));
+        assertEquals(0, entries().size());
+    }
+
+    @Test
+    public void timedWait() throws Exception {
+        assertTrue(localLock.lock("key", "owner", 30, 0, TimeUnit.SECONDS));
+        long begin = System.nanoTime();
+        assertFalse(localLock.lock("key", "other", 30, 200, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(200));
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> lock("other", 5000), executor);
+        Thread.sleep(50L);
+        assertFalse(waiter.isDone());
+        assertTrue(localLock.unlock("key", "owner"));
+        assertTrue(waiter.get(1, TimeUnit.SECONDS));
+        assertTrue(localLock.unlock("key", "other"));
+        assertEquals(0, entries().size());
+    }
+
+    @Test
+    public void interruptedWaiterLeavesNoEntry() throws Exception {
+        assertTrue(localLock.lock("key", "owner", -1, 0, TimeUnit.SECONDS));
+        Thread waiter = new Thread(() -> lock("other", -1));
+        waiter.start();
+        Thread.sleep(50L);
+
+        // 等待者先被中断，在它重新拿到条目锁之前持有者释放：释放通知落空，由被中断的等待者移除条目
+        ReentrantLock entry = (ReentrantLock) entries().get("key");
+        entry.lock();
+        try {
+            waiter.interrupt();
+            Thread.sleep(50L);
+            assertTrue(localLock.unlock("key", "owner"));
+        } finally {
+            entry.unlock();
+        }
+        waiter.join(1000L);
+        assertFalse(waiter.isAlive());
+        assertEquals(0, entries().size());
+    }
+
+    @Test
+    public void cleanUpRemovesExpiredEntries() throws Exception {
+        assertTrue(localLock.lock("expired", "owner", 50, 0, TimeUnit.MILLISECONDS));
+        assertTrue(localLock.lock("held", "owner", 30, 0, TimeUnit.SECONDS));
+        Thread.sleep(100L);
+        localLock.cleanUp(System.nanoTime());
+        assertEquals(1, entries().size());
+        assertTrue(entries().containsKey("held"));
+    }
+
+    @Test
+    public void asyncRunsOnGivenExecutor() throws Exception {
+        WaitStrategy waitStrategy = (attempt, ttl, notified) -> 10L;
+        assertTrue(localLock.lock("key", "owner", 30, 0, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> waiting = localLock.lockAsync("key", "other", 30, 100, TimeUnit.MILLISECONDS,
+                waitStrategy, executor).toCompletableFuture();
+        assertFalse(waiting.get(5, TimeUnit.SECONDS));
+        assertTrue(localLock.unlockAsync("key", "owner", executor).toCompletableFuture().get(5, TimeUnit.SECONDS));
+
+        // 等待中的同步加锁占用executor的线程，获得锁后在该线程上结束
+        assertTrue(localLock.lock("key", "owner", 30, 0, TimeUnit.SECONDS));
+        CompletableFuture<String> thread = new CompletableFuture<>();
+        localLock.lockAsync("key", "other", 30, 5, TimeUnit.SECONDS, waitStrategy, executor)
+                .thenAccept(acquired -> thread.complete(acquired + ":" + Thread.currentThread().getName()));
+        Thread.sleep(50L);
+        assertTrue(localLock.unlock("key", "owner"));
+        assertTrue(thread.get(5, TimeUnit.SECONDS).startsWith("true:" + EXECUTOR_THREAD));
+    }
+
+    private boolean lock(String requestId, int waitMillis) {
+        try {
+            return localLock.lock("key", requestId, 30000, waitMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private Map<?, ?> entries() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(localLock, "entries");
+    }
+}
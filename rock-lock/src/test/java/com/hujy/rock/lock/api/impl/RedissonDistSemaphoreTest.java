@@ -0,0 +1,55 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * redisson信号量：新key在不等待时也能初始化许可总数
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 11:20
+ */
+public class RedissonDistSemaphoreTest extends AbstractRedisTest {
+
+    private RedissonDistSemaphore semaphore;
+
+    private String semaphoreKey;
+
+    @Before
+    public void setUp() {
+        semaphore = new RedissonDistSemaphore();
+        semaphoreKey = "semaphore-test:" + UUID.randomUUID();
+    }
+
+    @Test
+    public void freshKeyWithoutWaiting() throws Exception {
+        String first = semaphore.acquire(semaphoreKey, 2, 30, 0, TimeUnit.SECONDS);
+        String second = semaphore.acquire(semaphoreKey, 2, 30, 0, TimeUnit.SECONDS);
+        assertNotNull("fresh key was not initialized", first);
+        assertNotNull(second);
+        assertNull(semaphore.acquire(semaphoreKey, 2, 30, 0, TimeUnit.SECONDS));
+
+        assertTrue(semaphore.release(semaphoreKey, first));
+        String third = semaphore.acquire(semaphoreKey, 2, 30, 0, TimeUnit.SECONDS);
+        assertNotNull(third);
+        assertTrue(semaphore.release(semaphoreKey, second));
+        assertTrue(semaphore.release(semaphoreKey, third));
+    }
+
+    @Test
+    public void freshKeyWithWaiting() throws Exception {
+        String permitId = semaphore.acquire(semaphoreKey, 1, 30, 1, TimeUnit.SECONDS);
+        assertNotNull(permitId);
+        assertNull(semaphore.acquire(semaphoreKey, 1, 30, 1, TimeUnit.SECONDS));
+        assertTrue(semaphore.release(semaphoreKey, permitId));
+    }
+}
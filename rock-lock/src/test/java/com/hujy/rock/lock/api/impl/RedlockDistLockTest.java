@@ -0,0 +1,145 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.lock.config.redisson.RedlockClients;
+import com.hujy.rock.lock.support.EmbeddedRedis;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.redisson.api.RBucket;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * redlock：多数派加锁、单节点宕机、未获得多数时按节点释放
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 11:45
+ */
+public class RedlockDistLockTest {
+
+    private static final int[] PORTS = {16400, 16401, 16402};
+
+    /**
+     * 未启动redis的端口，模拟宕机节点
+     */
+    private static final int DOWN_PORT = 16409;
+
+    private RedlockClients clients;
+
+    private String lockKey;
+
+    @BeforeClass
+    public static void startRedis() {
+        for (int port : PORTS) {
+            EmbeddedRedis.start(port);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        lockKey = "redlock-test:" + UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() {
+        if (clients != null) {
+            clients.shutdown();
+        }
+    }
+
+    @Test
+    public void allNodesUp() throws Exception {
+        RedlockDistLock redlock = redlock(PORTS[0], PORTS[1], PORTS[2]);
+        assertTrue(redlock.lock(lockKey, "owner", 30, 0, TimeUnit.SECONDS));
+        for (int i = 0; i < PORTS.length; i++) {
+            assertEquals("owner", bucket(i).get());
+        }
+        assertFalse(redlock.lock(lockKey, "other", 30, 0, TimeUnit.SECONDS));
+
+        assertTrue(redlock.unlock(lockKey, "owner"));
+        for (int i = 0; i < PORTS.length; i++) {
+            assertNull(bucket(i).get());
+        }
+    }
+
+    @Test
+    public void oneNodeDown() throws Exception {
+        RedlockDistLock redlock = redlock(PORTS[0], PORTS[1], DOWN_PORT);
+        assertNull(clients.get(2));
+        assertTrue(redlock.lock(lockKey, "owner", 30, 0, TimeUnit.SECONDS));
+        assertFalse(redlock.lock(lockKey, "other", 30, 0, TimeUnit.SECONDS));
+        assertTrue(redlock.unlock(lockKey, "owner"));
+        assertNull(bucket(0).get());
+        assertNull(bucket(1).get());
+    }
+
+    @Test
+    public void minorityIsReleased() throws Exception {
+        RedlockDistLock redlock = redlock(PORTS[0], PORTS[1], PORTS[2]);
+        bucket(0).set("other", 30, TimeUnit.SECONDS);
+        bucket(1).set("other", 30, TimeUnit.SECONDS);
+
+        assertFalse(redlock.lock(lockKey, "owner", 30, 0, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 2000L;
+        while (bucket(2).get() != null) {
+            assertTrue("minority node was not released", System.currentTimeMillis() < deadline);
+            Thread.sleep(5L);
+        }
+        assertEquals("other", bucket(0).get());
+        assertEquals("other", bucket(1).get());
+        bucket(0).delete();
+        bucket(1).delete();
+    }
+
+    @Test
+    public void waitsForMajority() throws Exception {
+        RedlockDistLock redlock = redlock(PORTS[0], PORTS[1], PORTS[2]);
+        bucket(0).set("other", 300, TimeUnit.MILLISECONDS);
+        bucket(1).set("other", 300, TimeUnit.MILLISECONDS);
+
+        assertTrue(redlock.lock(lockKey, "owner", 30, 3, TimeUnit.SECONDS));
+        assertTrue(redlock.unlock(lockKey, "owner"));
+    }
+
+    @Test
+    public void addressWithScheme() throws Exception {
+        String[] addresses = new String[PORTS.length];
+        for (int i = 0; i < PORTS.length; i++) {
+            addresses[i] = "redis://127.0.0.1:" + PORTS[i];
+        }
+        RedlockDistLock redlock = redlock(addresses);
+        for (int i = 0; i < PORTS.length; i++) {
+            assertNotNull(clients.get(i));
+        }
+        assertTrue(redlock.lock(lockKey, "owner", 30, 0, TimeUnit.SECONDS));
+        assertTrue(redlock.unlock(lockKey, "owner"));
+    }
+
+    private RedlockDistLock redlock(int... ports) {
+        String[] addresses = new String[ports.length];
+        for (int i = 0; i < ports.length; i++) {
+            addresses[i] = "127.0.0.1:" + ports[i];
+        }
+        return redlock(addresses);
+    }
+
+    private RedlockDistLock redlock(String... addresses) {
+        clients = new RedlockClients(Arrays.asList(addresses), 500L, 50L);
+        return new RedlockDistLock(clients);
+    }
+
+    private RBucket<String> bucket(int index) {
+        return clients.get(index).getBucket(lockKey, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.redisson.api.RedissonClient;
+
+import javax.annotation.Resource;
+import java.lang.reflect.Method;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 虚拟线程压测：一万个等待者竞争少量key，校验互斥且全部完成
+ * Java 21+使用虚拟线程；低版本JDK没有虚拟线程，由固定数量的普通线程执行同样的一万次加锁
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 10:20
+ */
+@Slf4j
+public class VirtualThreadStressTest extends AbstractRedisTest {
+
+    private static final int WAITERS = 10000;
+
+    private static final int KEYS = 4;
+
+    /**
+     * 没有虚拟线程时的线程数
+     */
+    private static final int PLATFORM_THREADS = 200;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Test
+    public void lettuceWaiters() throws Exception {
+        stress((DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE));
+    }
+
+    @Test
+    public void redissonWaiters() throws Exception {
+        stress(new RedissonDistLock(redissonClient, true));
+    }
+
+    private static void stress(DistLockApi distLock) throws Exception {
+        String prefix = "stress-test:" + UUID.randomUUID() + ":";
+        AtomicInteger[] holders = new AtomicInteger[KEYS];
+        int[] counters = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            holders[i] = new AtomicInteger();
+        }
+        AtomicInteger violations = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(WAITERS);
+
+        ExecutorService pool = newVirtualThreadExecutor();
+        boolean virtual = pool != null;
+        if (!virtual) {
+            pool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        }
+        try {
+            for (int i = 0; i < WAITERS; i++) {
+                int k = i % KEYS;
+                pool.execute(() -> {
+                    try {
+                        ready.await();
+                        String lockKey = prefix + k;
+                        String requestId = UUID.randomUUID().toString();
+                        if (!distLock.lock(lockKey, requestId, 60, 120, TimeUnit.SECONDS)) {
+                            failed.incrementAndGet();
+                            return;
+                        }
+                        try {
+                            if (holders[k].incrementAndGet() != 1) {
+                                violations.incrementAndGet();
+                            }
+                            counters[k]++;
+                            holders[k].decrementAndGet();
+                        } finally {
+                            distLock.unlock(lockKey, requestId);
+                        }
+                    } catch (Exception e) {
+                        log.warn("stress waiter failed", e);
+                        failed.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            long start = System.currentTimeMillis();
+            ready.countDown();
+            assertTrue("waiters did not finish, remaining:" + done.getCount(), done.await(3, TimeUnit.MINUTES));
+            log.info("stress -> lock:{} virtual:{} waiters:{} keys:{} used:{}ms", distLock.getClass().getSimpleName(), virtual,
+                    WAITERS, KEYS, System.currentTimeMillis() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, violations.get());
+        assertEquals(0, failed.get());
+        int total = 0;
+        for (int counter : counters) {
+            total += counter;
+        }
+        assertEquals(WAITERS, total);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.hujy.rock.lock.api.impl;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.WaitStrategy;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.constant.WaitStrategyType;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 等待策略：固定间隔与租期上限、指数退避的上下界与抖动范围、lettuce重试时传入持有者的剩余租期
+ * 使用默认配置：interval 100，max-interval 1000，exponential-base 10
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 15:20
+ */
+public class WaitStrategyTest extends AbstractRedisTest {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Test
+    public void ttlStrategy() {
+        WaitStrategy strategy = strategy(WaitStrategyType.TTL);
+        assertEquals(100L, strategy.nextDelay(1, WaitStrategy.UNKNOWN_TTL, false));
+        assertEquals(1000L, strategy.nextDelay(1, WaitStrategy.UNKNOWN_TTL, true));
+        // 租期短于间隔时在到期后1毫秒重试
+        assertEquals(21L, strategy.nextDelay(3, 20L, false));
+        assertEquals(1L, strategy.nextDelay(1, 0L, true));
+        assertEquals(100L, strategy.nextDelay(1, 5000L, false));
+        assertEquals(1000L, strategy.nextDelay(1, 5000L, true));
+    }
+
+    @Test
+    public void exponentialBoundsAndJitter() {
+        WaitStrategy strategy = strategy(WaitStrategyType.EXPONENTIAL);
+        for (int attempt = 1; attempt <= 12; attempt++) {
+            long upper = Math.min(10L << (attempt - 1), 1000L);
+            Set<Long> delays = new HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                long delay = strategy.nextDelay(attempt, WaitStrategy.UNKNOWN_TTL, false);
+                assertTrue("attempt " + attempt + " delay " + delay, delay >= upper / 2 && delay <= upper);
+                delays.add(delay);
+            }
+            assertTrue("no jitter at attempt " + attempt, delays.size() > 1);
+        }
+        // 重试次数很大时不溢出
+        for (int attempt : new int[]{63, 64, 1000, Integer.MAX_VALUE}) {
+            long delay = strategy.nextDelay(attempt, WaitStrategy.UNKNOWN_TTL, true);
+            assertTrue("attempt " + attempt + " delay " + delay, delay >= 500L && delay <= 1000L);
+        }
+        assertEquals(6L, strategy.nextDelay(12, 5L, false));
+    }
+
+    @Test
+    public void lettuceRetryPassesHolderTtl() throws Exception {
+        DistLockApi distLock = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE);
+        String lockKey = "wait-strategy-test:" + UUID.randomUUID();
+        List<Long> ttls = new CopyOnWriteArrayList<>();
+        WaitStrategy recording = (attempt, ttl, notified) -> {
+            ttls.add(ttl);
+            return 10L;
+        };
+
+        assertTrue(distLock.lock(lockKey, "holder", 2, 0, TimeUnit.SECONDS));
+        // 在其他线程等待，当前线程持有时会直接重入
+        assertFalse(CompletableFuture.supplyAsync(() -> lock(distLock, lockKey, 200, recording)).get(5, TimeUnit.SECONDS));
+        assertFalse(ttls.isEmpty());
+        for (long ttl : ttls) {
+            assertTrue("ttl " + ttl, ttl > 0L && ttl <= 2000L);
+        }
+        assertTrue(distLock.unlock(lockKey, "holder"));
+
+        // 没有过期时间的key，租期未知
+        ttls.clear();
+        stringRedisTemplate.opsForValue().set(lockKey, "holder");
+        try {
+            assertFalse(lock(distLock, lockKey, 100, recording));
+            assertFalse(ttls.isEmpty());
+            for (long ttl : ttls) {
+                assertEquals(WaitStrategy.UNKNOWN_TTL, ttl);
+            }
+        } finally {
+            stringRedisTemplate.delete(lockKey);
+        }
+    }
+
+    private static boolean lock(DistLockApi distLock, String lockKey, int waitMillis, WaitStrategy waitStrategy) {
+        try {
+            return distLock.lock(lockKey, "waiter", 30000, waitMillis, TimeUnit.MILLISECONDS, waitStrategy);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static WaitStrategy strategy(String type) {
+        return (WaitStrategy) ExtensionLoader.getExtensionLoader(WaitStrategy.class).getExtension(type);
+    }
+}
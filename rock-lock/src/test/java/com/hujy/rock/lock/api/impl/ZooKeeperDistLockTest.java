@@ -0,0 +1,103 @@
+package com.hujy.rock.lock.api.impl;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryOneTime;
+import org.apache.curator.test.KillSession;
+import org.apache.curator.test.TestingServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * zookeeper锁：加锁、竞争、释放、会话过期后锁标记为丢失
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 12:10
+ */
+public class ZooKeeperDistLockTest {
+
+    private static final int SESSION_TIMEOUT = 3000;
+
+    private static final int CONNECTION_TIMEOUT = 3000;
+
+    private TestingServer server;
+
+    private CuratorFramework client;
+
+    private ZooKeeperDistLock distLock;
+
+    private String lockKey;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new TestingServer();
+        client = CuratorFrameworkFactory.newClient(server.getConnectString(), SESSION_TIMEOUT, CONNECTION_TIMEOUT, new RetryOneTime(100));
+        client.start();
+        distLock = new ZooKeeperDistLock(client, "/rock_lock_test", CONNECTION_TIMEOUT);
+        distLock.warmUp();
+        lockKey = "zk-test-" + UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void acquireAndRelease() throws Exception {
+        assertTrue(distLock.lock(lockKey, "owner", -1, 0, TimeUnit.SECONDS));
+        assertTrue(distLock.isHeld(lockKey, "owner"));
+        assertTrue(distLock.unlock(lockKey, "owner"));
+        assertFalse(distLock.isHeld(lockKey, "owner"));
+        assertFalse(distLock.unlock(lockKey, "owner"));
+    }
+
+    @Test
+    public void contention() throws Exception {
+        assertTrue(distLock.lock(lockKey, "first", -1, 0, TimeUnit.SECONDS));
+        assertFalse(distLock.lock(lockKey, "second", -1, 0, TimeUnit.SECONDS));
+
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> lock("second", 5));
+        Thread.sleep(200L);
+        assertFalse(second.isDone());
+        assertTrue(distLock.unlock(lockKey, "first"));
+        assertTrue(second.get(3, TimeUnit.SECONDS));
+        assertTrue(distLock.isHeld(lockKey, "second"));
+        assertTrue(distLock.unlock(lockKey, "second"));
+    }
+
+    @Test
+    public void sessionExpiryMarksLockLost() throws Exception {
+        assertTrue(distLock.lock(lockKey, "owner", -1, 0, TimeUnit.SECONDS));
+        KillSession.kill(client.getZookeeperClient().getZooKeeper(), server.getConnectString());
+
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (distLock.isHeld(lockKey, "owner")) {
+            assertTrue("lock is still held after session expiry", System.currentTimeMillis() < deadline);
+            Thread.sleep(10L);
+        }
+        assertTrue(client.blockUntilConnected(CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS));
+        assertFalse(distLock.unlock(lockKey, "owner"));
+        // 临时节点随会话删除，其他持有者可以获得锁
+        assertTrue(distLock.lock(lockKey, "next", -1, 5, TimeUnit.SECONDS));
+        assertTrue(distLock.unlock(lockKey, "next"));
+    }
+
+    private boolean lock(String requestId, int waitTime) {
+        try {
+            return distLock.lock(lockKey, requestId, -1, waitTime, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
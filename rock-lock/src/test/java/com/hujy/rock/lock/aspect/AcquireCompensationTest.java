@@ -0,0 +1,47 @@
+package com.hujy.rock.lock.aspect;
+
+import com.hujy.rock.common.extension.ExtensionLoader;
+import com.hujy.rock.lock.api.DistLockApi;
+import com.hujy.rock.lock.api.impl.LocalDistLock;
+import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.exception.DistLockException;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import org.junit.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 加锁异常后的补偿释放：只对requestId持有的实现释放，等待中被中断时不释放
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 13:20
+ */
+public class AcquireCompensationTest extends AbstractRedisTest {
+
+    @Test
+    public void requestOwnedLockIsCompensated() {
+        DistLockApi lettuce = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE);
+        assertTrue(lettuce.isRequestOwned());
+        assertTrue(DistLockAspect.needsCompensation(lettuce, new QueryTimeoutException("Redis command timed out")));
+    }
+
+    @Test
+    public void threadOwnedLockIsNotCompensated() {
+        // 以线程为持有者，补偿释放可能释放外层调用的重入计数
+        DistLockApi redisson = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.REDISSON);
+        assertFalse(redisson.isRequestOwned());
+        assertFalse(DistLockAspect.needsCompensation(redisson, new QueryTimeoutException("Redis command timed out")));
+        assertFalse(DistLockAspect.needsCompensation(new LocalDistLock(), new IllegalStateException()));
+    }
+
+    @Test
+    public void interruptedWaitIsNotCompensated() {
+        DistLockApi lettuce = (DistLockApi) ExtensionLoader.getExtensionLoader(DistLockApi.class).getExtension(DistLockType.LETTUCE);
+        InterruptedException interrupted = new InterruptedException("sleep interrupted");
+        assertFalse(DistLockAspect.needsCompensation(lettuce, interrupted));
+        assertFalse(DistLockAspect.needsCompensation(lettuce, new DistLockException("Lettuce加锁异常:" + interrupted.getMessage(), interrupted)));
+    }
+}
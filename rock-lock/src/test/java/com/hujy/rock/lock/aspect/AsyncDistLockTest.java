@@ -0,0 +1,70 @@
+package com.hujy.rock.lock.aspect;
+
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import com.hujy.rock.lock.support.AsyncLockService;
+import org.junit.Test;
+
+import javax.annotation.Resource;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 异步方法加锁：业务方法在异步线程池上执行，方法内阻塞不影响其他key的异步加锁
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 09:55
+ */
+public class AsyncDistLockTest extends AbstractRedisTest {
+
+    private static final String EXECUTOR_THREAD = "rock-lock-exec-";
+
+    @Resource
+    private AsyncLockService asyncLockService;
+
+    @Test
+    public void lettuceBlockingMethodDoesNotStallOtherKeys() throws Exception {
+        assertNotStalled(asyncLockService::lettuce);
+    }
+
+    @Test
+    public void redissonBlockingMethodDoesNotStallOtherKeys() throws Exception {
+        assertNotStalled(asyncLockService::redisson);
+    }
+
+    @Test
+    public void lettuceMonoBlockingMethodDoesNotStallOtherKeys() throws Exception {
+        assertNotStalled((key, entered, proceed) -> asyncLockService.lettuceMono(key, entered, proceed).toFuture());
+    }
+
+    /**
+     * 第一个key的方法阻塞期间，第二个key仍能加锁并执行完毕
+     */
+    private static void assertNotStalled(LockedCall call) throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        CompletableFuture<String> blocked = call.call(UUID.randomUUID().toString(), entered, proceed);
+        try {
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            String thread = call.call(UUID.randomUUID().toString(), new CountDownLatch(1), new CountDownLatch(0))
+                    .get(3, TimeUnit.SECONDS);
+            assertTrue(thread, thread.startsWith(EXECUTOR_THREAD));
+            assertFalse(blocked.isDone());
+        } finally {
+            proceed.countDown();
+        }
+        String thread = blocked.get(3, TimeUnit.SECONDS);
+        assertTrue(thread, thread.startsWith(EXECUTOR_THREAD));
+    }
+
+    @FunctionalInterface
+    private interface LockedCall {
+        CompletableFuture<String> call(String key, CountDownLatch entered, CountDownLatch proceed);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hujy.rock.lock.aspect;
+
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import com.hujy.rock.lock.support.SemaphoreService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * 信号量切面：归还许可失败时不掩盖业务方法的返回值与异常
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 14:32
+ */
+public class DistSemaphoreAspectTest extends AbstractRedisTest {
+
+    @Resource
+    private SemaphoreService semaphoreService;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private String semaphoreKey;
+
+    @Before
+    public void setUp() {
+        semaphoreKey = "semaphore-aspect-test:" + UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() {
+        stringRedisTemplate.delete(semaphoreKey);
+    }
+
+    @Test
+    public void releaseFailureKeepsReturnValue() {
+        assertEquals("done", semaphoreService.corruptAndReturn(semaphoreKey));
+    }
+
+    @Test
+    public void releaseFailureKeepsBusinessException() {
+        try {
+            semaphoreService.corruptAndThrow(semaphoreKey);
+            fail("business exception was not thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("business failure", e.getMessage());
+        }
+    }
+}
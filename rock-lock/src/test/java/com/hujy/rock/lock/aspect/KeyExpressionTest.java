@@ -0,0 +1,59 @@
+package com.hujy.rock.lock.aspect;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 锁key解析：多key去重排序、内联列表、数组、hash tag常量、空集合
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 15:40
+ */
+public class KeyExpressionTest {
+
+    @Test
+    public void collectionIsSortedAndDeduplicated() throws Exception {
+        KeyExpression expression = KeyExpression.of(method(), "#ids", "order", "", ":");
+        assertEquals(Arrays.asList("order:a", "order:b", "order:c"),
+                expression.generateKeys(new Object[]{Arrays.asList("c", "a", "b", "a"), null, null, null}));
+        assertEquals(Collections.singletonList("order:a"),
+                expression.generateKeys(new Object[]{Arrays.asList("a", "a"), null, null, null}));
+    }
+
+    @Test
+    public void arrayAndInlineList() throws Exception {
+        KeyExpression array = KeyExpression.of(method(), "#codes", "", "lock", "-");
+        assertEquals(Arrays.asList("x-lock", "y-lock"),
+                array.generateKeys(new Object[]{null, new String[]{"y", "x", "y"}, null, null}));
+
+        KeyExpression inline = KeyExpression.of(method(), "{#to, #from}", "account", "", ":");
+        assertEquals(Arrays.asList("account:1", "account:2"), inline.generateKeys(new Object[]{null, null, "1", "2"}));
+        assertEquals(Collections.singletonList("account:1"), inline.generateKeys(new Object[]{null, null, "1", "1"}));
+    }
+
+    @Test
+    public void hashTagIsConstant() throws Exception {
+        KeyExpression expression = KeyExpression.of(method(), "{account}:1", "", "", ":");
+        assertEquals(Collections.singletonList("{account}:1"), expression.generateKeys(new Object[]{null, null, null, null}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyCollectionIsRejected() throws Exception {
+        KeyExpression.of(method(), "#ids", "order", "", ":").generateKeys(new Object[]{Collections.emptyList(), null, null, null});
+    }
+
+    private static Method method() throws NoSuchMethodException {
+        return KeyExpressionTest.class.getDeclaredMethod("transfer", List.class, String[].class, String.class, String.class);
+    }
+
+    @SuppressWarnings("unused")
+    private static void transfer(List<String> ids, String[] codes, String from, String to) {
+    }
+}
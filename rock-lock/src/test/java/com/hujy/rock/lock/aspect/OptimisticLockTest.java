@@ -0,0 +1,81 @@
+package com.hujy.rock.lock.aspect;
+
+import com.hujy.rock.lock.exception.DistLockAcquireException;
+import com.hujy.rock.lock.support.AbstractRedisTest;
+import com.hujy.rock.lock.support.OptimisticLockService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 乐观锁：加锁失败时不等待，配置了fallbackMethod时返回fallback的结果，未配置时抛出DistLockAcquireException
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 16:05
+ */
+public class OptimisticLockTest extends AbstractRedisTest {
+
+    @Resource
+    private OptimisticLockService optimisticLockService;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private String lockKey;
+
+    @Before
+    public void setUp() {
+        lockKey = "optimistic-test:" + UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() {
+        stringRedisTemplate.delete(lockKey);
+    }
+
+    @Test
+    public void acquiredRunsMethod() {
+        assertEquals("done:" + lockKey, optimisticLockService.withFallback(lockKey));
+        assertEquals("done:" + lockKey, optimisticLockService.withoutFallback(lockKey));
+        assertFalse(stringRedisTemplate.hasKey(lockKey));
+    }
+
+    @Test
+    public void heldKeyInvokesFallback() {
+        holdByOther();
+        long begin = System.nanoTime();
+        assertEquals("busy:" + lockKey, optimisticLockService.withFallback(lockKey));
+        assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(2));
+        assertEquals("other", stringRedisTemplate.opsForValue().get(lockKey));
+    }
+
+    @Test
+    public void heldKeyWithoutFallbackThrows() {
+        holdByOther();
+        long begin = System.nanoTime();
+        try {
+            optimisticLockService.withoutFallback(lockKey);
+            fail("DistLockAcquireException was not thrown");
+        } catch (DistLockAcquireException e) {
+            assertEquals(lockKey, e.getLockKey());
+        }
+        assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(2));
+        assertEquals("other", stringRedisTemplate.opsForValue().get(lockKey));
+    }
+
+    private void holdByOther() {
+        stringRedisTemplate.opsForValue().set(lockKey, "other", Duration.ofSeconds(30));
+    }
+}
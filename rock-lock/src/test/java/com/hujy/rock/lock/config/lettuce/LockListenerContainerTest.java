@@ -0,0 +1,64 @@
+package com.hujy.rock.lock.config.lettuce;
+
+import com.hujy.rock.lock.support.EmbeddedRedis;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 锁释放通知的监听容器：第一次使用时创建并启动，关闭后停止
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 15:00
+ */
+public class LockListenerContainerTest {
+
+    private LettuceConnectionFactory connectionFactory;
+
+    @BeforeClass
+    public static void startRedis() {
+        EmbeddedRedis.start();
+    }
+
+    @Before
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", EmbeddedRedis.PORT));
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    public void createdOnFirstUse() throws Exception {
+        LockListenerContainer listenerContainer = new LockListenerContainer(connectionFactory);
+        assertFalse(listenerContainer.isCreated());
+
+        RedisMessageListenerContainer container = listenerContainer.getContainer();
+        assertTrue(listenerContainer.isCreated());
+        assertTrue(container.isRunning());
+        assertSame(container, listenerContainer.getContainer());
+
+        listenerContainer.destroy();
+        assertFalse(container.isRunning());
+        assertFalse(listenerContainer.isCreated());
+    }
+
+    @Test
+    public void unusedContainerIsNeverCreated() throws Exception {
+        LockListenerContainer listenerContainer = new LockListenerContainer(connectionFactory);
+        listenerContainer.destroy();
+        assertFalse(listenerContainer.isCreated());
+    }
+}
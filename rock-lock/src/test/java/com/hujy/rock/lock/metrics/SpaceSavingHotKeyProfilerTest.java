@@ -0,0 +1,146 @@
+package com.hujy.rock.lock.metrics;
+
+import com.hujy.rock.lock.config.lock.DistLockConfigProperties;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 热点key竞争分析：Stream-Summary的计数、淘汰、衰减与并发记录
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 12:40
+ */
+public class SpaceSavingHotKeyProfilerTest {
+
+    private SpaceSavingHotKeyProfiler profiler;
+
+    @After
+    public void tearDown() {
+        if (profiler != null) {
+            profiler.close();
+        }
+    }
+
+    @Test
+    public void countsContendedAcquisitions() {
+        profiler = new SpaceSavingHotKeyProfiler(properties(16));
+        long waited = TimeUnit.MILLISECONDS.toNanos(20);
+        for (int i = 0; i < 4; i++) {
+            profiler.acquired("a", waited);
+        }
+        profiler.acquired("b", waited);
+        profiler.timeout("b", waited);
+        profiler.timeout("b", waited);
+        // 未超过等待阈值，不计为竞争
+        profiler.acquired("c", TimeUnit.MILLISECONDS.toNanos(1));
+
+        List<HotKey> top = profiler.top(10);
+        assertEquals(2, top.size());
+        assertEquals("a", top.get(0).getLockKey());
+        assertEquals(4L, top.get(0).getCount());
+        assertEquals("b", top.get(1).getLockKey());
+        assertEquals(3L, top.get(1).getCount());
+        assertEquals(2L, top.get(1).getTimeouts());
+        assertEquals(1, profiler.top(1).size());
+    }
+
+    @Test
+    public void evictsMinimumAndInheritsCount() {
+        StreamSummary summary = new StreamSummary(2);
+        summary.offer("a", 0L, false);
+        summary.offer("a", 0L, false);
+        summary.offer("b", 0L, false);
+        summary.offer("c", 0L, false);
+        summary.offer("a", 0L, false);
+
+        Map<String, HotKey> hotKeys = byKey(summary.snapshot());
+        assertEquals(2, hotKeys.size());
+        assertEquals(3L, hotKeys.get("a").getCount());
+        assertEquals(0L, hotKeys.get("a").getError());
+        // c替换了计数为1的b
+        assertEquals(2L, hotKeys.get("c").getCount());
+        assertEquals(1L, hotKeys.get("c").getError());
+    }
+
+    @Test
+    public void decayHalvesAndDropsZeroCounts() {
+        StreamSummary summary = new StreamSummary(4);
+        for (int i = 0; i < 4; i++) {
+            summary.offer("a", 0L, false);
+        }
+        summary.offer("b", 0L, false);
+        summary.decay();
+
+        Map<String, HotKey> hotKeys = byKey(summary.snapshot());
+        assertEquals(1, hotKeys.size());
+        assertEquals(2L, hotKeys.get("a").getCount());
+        // 衰减后的桶链表仍然有效
+        summary.offer("b", 0L, false);
+        summary.offer("a", 0L, false);
+        hotKeys = byKey(summary.snapshot());
+        assertEquals(3L, hotKeys.get("a").getCount());
+        assertEquals(1L, hotKeys.get("b").getCount());
+    }
+
+    @Test
+    public void concurrentRecording() throws Exception {
+        profiler = new SpaceSavingHotKeyProfiler(properties(512));
+        int threads = 8;
+        int perThread = 4000;
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    profiler.timeout("key-" + (i % 4), 1L);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        ready.countDown();
+        for (Thread worker : workers) {
+            worker.join(10000L);
+        }
+
+        List<HotKey> top = profiler.top(10);
+        assertEquals(4, top.size());
+        long total = 0L;
+        for (HotKey hotKey : top) {
+            assertEquals(threads * perThread / 4, hotKey.getCount());
+            assertEquals(0L, hotKey.getError());
+            total += hotKey.getTimeouts();
+        }
+        assertEquals((long) threads * perThread, total);
+    }
+
+    private static DistLockConfigProperties.Profiler properties(int capacity) {
+        DistLockConfigProperties.Profiler properties = new DistLockConfigProperties.Profiler();
+        properties.setCapacity(capacity);
+        properties.setLogInterval(0L);
+        return properties;
+    }
+
+    private static Map<String, HotKey> byKey(List<HotKey> hotKeys) {
+        Map<String, HotKey> result = new HashMap<>();
+        for (HotKey hotKey : hotKeys) {
+            result.put(hotKey.getLockKey(), hotKey);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package com.hujy.rock.lock.support;
+
+import org.junit.BeforeClass;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * 基于本地redis的测试基类
+ * 锁实现由扩展点加载并在JVM内缓存，所有子类共用同一组属性，从而共用同一个Spring上下文
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 09:16
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = LockTestApplication.class, properties = {
+        "spring.redis.host=127.0.0.1",
+        "spring.redis.port=" + EmbeddedRedis.PORT,
+        "rock.redisson.single.enable=true",
+        "rock.redisson.single.address=127.0.0.1:" + EmbeddedRedis.PORT,
+        "rock.lock.log.enable=false"})
+public abstract class AbstractRedisTest {
+
+    /**
+     * 在Spring上下文创建之前启动redis
+     */
+    @BeforeClass
+    public static void startRedis() {
+        EmbeddedRedis.start();
+    }
+}
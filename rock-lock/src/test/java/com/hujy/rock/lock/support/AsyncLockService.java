@@ -0,0 +1,47 @@
+package com.hujy.rock.lock.support;
+
+import com.hujy.rock.lock.annotation.DistLock;
+import com.hujy.rock.lock.constant.DistLockType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步方法加锁测试使用的bean
+ * 方法体内阻塞到proceed放行，返回执行方法体的线程名
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 09:50
+ */
+@Service
+public class AsyncLockService {
+
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", waitTime = 5, expireTime = 30)
+    public CompletableFuture<String> lettuce(String key, CountDownLatch entered, CountDownLatch proceed) {
+        return CompletableFuture.completedFuture(block(entered, proceed));
+    }
+
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", waitTime = 5, expireTime = 30)
+    public CompletableFuture<String> redisson(String key, CountDownLatch entered, CountDownLatch proceed) {
+        return CompletableFuture.completedFuture(block(entered, proceed));
+    }
+
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", waitTime = 5, expireTime = 30)
+    public Mono<String> lettuceMono(String key, CountDownLatch entered, CountDownLatch proceed) {
+        return Mono.just(block(entered, proceed));
+    }
+
+    private static String block(CountDownLatch entered, CountDownLatch proceed) {
+        entered.countDown();
+        try {
+            proceed.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,66 @@
+package com.hujy.rock.lock.support;
+
+import redis.embedded.RedisServer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 测试用本地redis，同一端口在一个JVM内只启动一次，JVM退出时停止
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 09:10
+ */
+public final class EmbeddedRedis {
+
+    /**
+     * 测试上下文(lettuce、redisson)使用的redis端口
+     */
+    public static final int PORT = 16399;
+
+    private static final Map<Integer, RedisServer> SERVERS = new HashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(EmbeddedRedis::stopAll, "embedded-redis-shutdown"));
+    }
+
+    private EmbeddedRedis() {
+    }
+
+    public static String start() {
+        return start(PORT);
+    }
+
+    /**
+     * 启动指定端口的redis，已启动时直接返回
+     *
+     * @param port
+     * @return java.lang.String host:port
+     * @author hujy
+     * @date 2026-10-19 09:12
+     */
+    public static synchronized String start(int port) {
+        RedisServer server = SERVERS.get(port);
+        if (server == null || !server.isActive()) {
+            server = RedisServer.builder().port(port).setting("bind 127.0.0.1").setting("save \"\"").build();
+            server.start();
+            SERVERS.put(port, server);
+        }
+        return "127.0.0.1:" + port;
+    }
+
+    public static synchronized void stop(int port) {
+        RedisServer server = SERVERS.remove(port);
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private static synchronized void stopAll() {
+        for (RedisServer server : SERVERS.values()) {
+            server.stop();
+        }
+        SERVERS.clear();
+    }
+}
@@ -0,0 +1,14 @@
+package com.hujy.rock.lock.support;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 测试使用的Spring上下文，加载rock-lock的自动配置与本包下的测试bean
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 09:14
+ */
+@SpringBootApplication
+public class LockTestApplication {
+}
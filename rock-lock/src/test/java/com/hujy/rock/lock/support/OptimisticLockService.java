@@ -0,0 +1,31 @@
+package com.hujy.rock.lock.support;
+
+import com.hujy.rock.lock.annotation.DistLock;
+import com.hujy.rock.lock.constant.DistLockType;
+import org.springframework.stereotype.Service;
+
+/**
+ * 乐观锁测试使用的bean
+ * waitTime配置得较长，用于确认乐观锁只尝试一次、不等待
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 16:00
+ */
+@Service
+public class OptimisticLockService {
+
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", optimistic = true, waitTime = 10, fallbackMethod = "busy")
+    public String withFallback(String key) {
+        return "done:" + key;
+    }
+
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", optimistic = true, waitTime = 10)
+    public String withoutFallback(String key) {
+        return "done:" + key;
+    }
+
+    public String busy(String key) {
+        return "busy:" + key;
+    }
+}
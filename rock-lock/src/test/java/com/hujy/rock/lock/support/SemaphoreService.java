@@ -0,0 +1,35 @@
+package com.hujy.rock.lock.support;
+
+import com.hujy.rock.lock.annotation.DistSemaphore;
+import com.hujy.rock.lock.constant.DistLockType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+
+/**
+ * 信号量切面测试使用的bean
+ * 方法体内把信号量key覆盖为字符串，之后的归还命令因类型错误而失败
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-19 14:30
+ */
+@Service
+public class SemaphoreService {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @DistSemaphore(semaphoreType = DistLockType.LETTUCE, key = "#key", permits = 1)
+    public String corruptAndReturn(String key) {
+        stringRedisTemplate.opsForValue().set(key, "corrupted");
+        return "done";
+    }
+
+    @DistSemaphore(semaphoreType = DistLockType.LETTUCE, key = "#key", permits = 1)
+    public String corruptAndThrow(String key) {
+        stringRedisTemplate.opsForValue().set(key, "corrupted");
+        throw new IllegalStateException("business failure");
+    }
+}
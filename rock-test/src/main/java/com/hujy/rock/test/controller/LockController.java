@@ -1,5 +1,6 @@
 package com.hujy.rock.test.controller;
 
+import com.hujy.rock.lock.exception.DistLockAcquireException;
 import com.hujy.rock.test.model.param.TestParam;
 import com.hujy.rock.test.service.LockService;
 import com.hujy.rock.test.service.impl.LockServiceImpl;
@@ -8,9 +9,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Description
@@ -43,6 +50,14 @@ public class LockController {
             for (int i = 0; i < a; i++) {
                 pool.execute(() -> lockService.incrByRedisson("redisson"));
             }
+        } else if (mode == 3) {
+            for (int i = 0; i < a; i++) {
+                pool.execute(() -> lockService.incrByLocalQueue("local"));
+            }
+        } else if (mode == 5) {
+            for (int i = 0; i < a; i++) {
+                pool.execute(() -> lockService.incrByZookeeper("zookeeper"));
+            }
         } else {
             for (int i = 0; i < a; i++) {
                 pool.execute(() -> lockService.incrByJedis("jedis"));
@@ -51,15 +66,287 @@ public class LockController {
 
 
         pool.shutdown();
-        while (true) {
-            if (pool.isTerminated()) {
-                long used = System.currentTimeMillis() - start;
-                String result = "total:" + LockServiceImpl.total + " used:" + used;
-                System.out.println(result);
-                return result;
+        try {
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 只校验计数与总耗时，延迟分布与各实现对比见rock-benchmark的LockLoadTest
+        long used = System.currentTimeMillis() - start;
+        String result = "total:" + LockServiceImpl.total + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    @RequestMapping("/incrAsync")
+    public String incrAsync(Integer mode, Integer a) {
+        long start = System.currentTimeMillis();
+
+        LockServiceImpl.total = 0;
+        a = Optional.ofNullable(a).orElse(DEFAULT_AMOUNT);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[a];
+        for (int i = 0; i < a; i++) {
+            futures[i] = mode == 1 ? lockService.incrAsyncByRedisson("redisson")
+                    : mode == 5 ? lockService.incrAsyncByZookeeper("zookeeper") : lockService.incrAsyncByJedis("jedis");
+        }
+        CompletableFuture.allOf(futures).join();
+
+        long used = System.currentTimeMillis() - start;
+        String result = "total:" + LockServiceImpl.total + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    @RequestMapping("/transfer")
+    public String transfer(Integer mode, Integer a) {
+        long start = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        int[] balances = new int[4];
+        a = Optional.ofNullable(a).orElse(DEFAULT_AMOUNT);
+        for (int i = 0; i < a; i++) {
+            int from = i % balances.length;
+            int to = (i / balances.length + from + 1) % balances.length;
+            if (from == to) {
+                to = (to + 1) % balances.length;
             }
+            int f = from, t = to;
+            pool.execute(() -> {
+                if (mode == 1) {
+                    lockService.transferByRedisson(f, t, balances);
+                } else {
+                    lockService.transferByJedis(f, t, balances);
+                }
+            });
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long used = System.currentTimeMillis() - start;
+        // 转账互斥时余额总和保持为0
+        String result = "balances:" + Arrays.toString(balances) + " sum:" + Arrays.stream(balances).sum() + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    @RequestMapping("/readWrite")
+    public String readWrite(Integer mode, Integer a, Integer writes) {
+        long start = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        AtomicIntegerArray state = new AtomicIntegerArray(4);
+        a = Optional.ofNullable(a).orElse(DEFAULT_AMOUNT);
+        int writeEvery = a / Math.max(1, Optional.ofNullable(writes).orElse(10));
+        for (int i = 0; i < a; i++) {
+            boolean write = i % Math.max(1, writeEvery) == 0;
+            pool.execute(() -> {
+                if (mode == 1) {
+                    if (write) {
+                        lockService.writeByRedisson("rw", state);
+                    } else {
+                        lockService.readByRedisson("rw", state);
+                    }
+                } else {
+                    if (write) {
+                        lockService.writeByJedis("rw", state);
+                    } else {
+                        lockService.readByJedis("rw", state);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long used = System.currentTimeMillis() - start;
+        String result = "violations:" + state.get(2) + " maxReaders:" + state.get(3) + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    @RequestMapping("/fair")
+    public String fair(Integer mode, Boolean fair, Integer a) {
+        long start = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        int[] counter = new int[1];
+        boolean isFair = Boolean.TRUE.equals(fair);
+        a = Optional.ofNullable(a).orElse(DEFAULT_AMOUNT);
+        long[] latencies = new long[a];
+        for (int i = 0; i < a; i++) {
+            int index = i;
+            pool.execute(() -> {
+                long begin = System.nanoTime();
+                if (mode == 1) {
+                    if (isFair) {
+                        lockService.holdFairByRedisson("fair", counter);
+                    } else {
+                        lockService.holdByRedisson("fair", counter);
+                    }
+                } else if (mode == 3) {
+                    lockService.holdByLocal("fair", counter);
+                } else {
+                    if (isFair) {
+                        lockService.holdFairByJedis("fair", counter);
+                    } else {
+                        lockService.holdByJedis("fair", counter);
+                    }
+                }
+                latencies[index] = (System.nanoTime() - begin) / 1000000;
+            });
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long used = System.currentTimeMillis() - start;
+        Arrays.sort(latencies);
+        String result = "total:" + counter[0] + " p50:" + latencies[a / 2] + " p99:" + latencies[a * 99 / 100]
+                + " max:" + latencies[a - 1] + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    @RequestMapping("/semaphore")
+    public String semaphore(Integer mode, Integer a) {
+        long start = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        AtomicIntegerArray state = new AtomicIntegerArray(2);
+        AtomicInteger completed = new AtomicInteger();
+        a = Optional.ofNullable(a).orElse(DEFAULT_AMOUNT);
+        for (int i = 0; i < a; i++) {
+            pool.execute(() -> {
+                // 两种实现的数据结构不同，使用不同的key
+                Boolean done = mode == 1 ? lockService.limitByRedisson("semaphore:redisson", state)
+                        : lockService.limitByJedis("semaphore:lettuce", state);
+                if (Boolean.TRUE.equals(done)) {
+                    completed.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long used = System.currentTimeMillis() - start;
+        // 最大并发执行数不超过许可数量
+        String result = "completed:" + completed.get() + " maxRunning:" + state.get(1) + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    @RequestMapping("/optimistic")
+    public String optimistic(Integer mode, Integer a) {
+        long start = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        // 0-执行 1-fallback 2-异常
+        AtomicIntegerArray outcomes = new AtomicIntegerArray(3);
+        a = Optional.ofNullable(a).orElse(DEFAULT_AMOUNT);
+        for (int i = 0; i < a; i++) {
+            pool.execute(() -> {
+                try {
+                    String result = mode == 1 ? lockService.optimisticByRedisson("optimistic")
+                            : lockService.optimisticByJedis("optimistic");
+                    outcomes.incrementAndGet("done".equals(result) ? 0 : 1);
+                } catch (DistLockAcquireException e) {
+                    outcomes.incrementAndGet(2);
+                }
+            });
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long used = System.currentTimeMillis() - start;
+        String result = "done:" + outcomes.get(0) + " fallback:" + outcomes.get(1) + " rejected:" + outcomes.get(2) + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    @RequestMapping("/fencing")
+    public String fencing(Integer mode, Integer a) {
+        long start = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        AtomicLong storage = new AtomicLong();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        a = Optional.ofNullable(a).orElse(DEFAULT_AMOUNT);
+        for (int i = 0; i < a; i++) {
+            pool.execute(() -> {
+                Boolean written = mode == 1 ? lockService.fencedWriteByRedisson("fencing:redisson", storage, 0L)
+                        : lockService.fencedWriteByJedis("fencing:lettuce", storage);
+                if (Boolean.TRUE.equals(written)) {
+                    accepted.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long used = System.currentTimeMillis() - start;
+        // 租期过期的旧持有者写入时已有更大的token，被存储拒绝
+        String result = "accepted:" + accepted.get() + " rejected:" + rejected.get() + " maxToken:" + storage.get() + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    @RequestMapping("/reentrant")
+    public String reentrant(Integer mode, Integer a, Integer depth) {
+        long start = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        int[] counter = new int[1];
+        AtomicInteger done = new AtomicInteger();
+        int levels = Optional.ofNullable(depth).orElse(3);
+        a = Optional.ofNullable(a).orElse(DEFAULT_AMOUNT);
+        for (int i = 0; i < a; i++) {
+            pool.execute(() -> {
+                Boolean result = mode == 1 ? lockService.reentrantByRedisson("reentrant:redisson", levels, counter)
+                        : lockService.reentrantByJedis("reentrant:lettuce", levels, counter);
+                if (Boolean.TRUE.equals(result)) {
+                    done.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
+        long used = System.currentTimeMillis() - start;
+        // 每次调用共累加 2*depth 次，锁被提前释放时计数小于期望值
+        String result = "done:" + done.get() + " counter:" + counter[0] + " expected:" + 2 * levels * a + " used:" + used;
+        System.out.println(result);
+        return result;
     }
 
     @RequestMapping("/test")
@@ -68,6 +355,8 @@ public class LockController {
             lockService.testByRedisson(t);
         } else if (t.getMode() == 2){
             lockService.testByJedis(t);
+        } else if (t.getMode() == 4) {
+            lockService.testWatchdogByJedis(t);
         } else {
             lockService.testByZookeeper(t);
         }
@@ -0,0 +1,98 @@
+package com.hujy.rock.test.controller;
+
+import com.hujy.rock.test.service.LockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 虚拟线程压测
+ * 大量虚拟线程同时在少量key上等待锁，校验互斥并统计耗时
+ * 需要以Java 21+运行并开启 rock.lock.virtual-thread.enable=true，低版本JDK退化为普通线程
+ * mode：1 redisson，2 lettuce(指数退避等待)，其他 lettuce
+ *
+ * @author hujy
+ * @version 1.0
+ * @date 2026-10-18 15:52
+ */
+@RestController
+@RequestMapping
+public class StressController {
+
+    @Autowired
+    private LockService lockService;
+
+    private static final int DEFAULT_THREADS = 10000;
+
+    private static final int DEFAULT_KEYS = 4;
+
+    @RequestMapping("/stress")
+    public String stress(Integer mode, Integer threads, Integer keys) throws InterruptedException {
+        threads = Optional.ofNullable(threads).orElse(DEFAULT_THREADS);
+        keys = Optional.ofNullable(keys).orElse(DEFAULT_KEYS);
+
+        int[][] counters = new int[keys][1];
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        boolean virtual = true;
+        ExecutorService pool = newVirtualThreadExecutor();
+        if (pool == null) {
+            virtual = false;
+            pool = Executors.newCachedThreadPool();
+        }
+        for (int i = 0; i < threads; i++) {
+            int k = i % keys;
+            pool.execute(() -> {
+                try {
+                    ready.await();
+                    String key = "stress:" + k;
+                    Boolean ok = mode != null && mode == 1 ? lockService.stressByRedisson(key, counters[k])
+                            : mode != null && mode == 2 ? lockService.stressByJedisBackoff(key, counters[k])
+                            : lockService.stressByJedis(key, counters[k]);
+                    if (ok == null) {
+                        failed.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long start = System.currentTimeMillis();
+        ready.countDown();
+        done.await();
+        long used = System.currentTimeMillis() - start;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        int total = 0;
+        for (int[] counter : counters) {
+            total += counter[0];
+        }
+        String result = "virtual:" + virtual + " threads:" + threads + " keys:" + keys
+                + " total:" + total + " failed:" + failed.get() + " exclusive:" + (total + failed.get() == threads)
+                + " used:" + used;
+        System.out.println(result);
+        return result;
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -2,6 +2,10 @@ package com.hujy.rock.test.service;
 
 import com.hujy.rock.test.model.param.TestParam;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Description
  *
@@ -17,9 +21,65 @@ public interface LockService {
 
     void incrByJedis(String id);
 
+    void incrByLocalQueue(String id);
+
+    void incrByZookeeper(String id);
+
+    CompletableFuture<Integer> incrAsyncByRedisson(String id);
+
+    CompletableFuture<Integer> incrAsyncByJedis(String id);
+
+    CompletableFuture<Integer> incrAsyncByZookeeper(String id);
+
+    Boolean stressByRedisson(String key, int[] counter);
+
+    Boolean stressByJedis(String key, int[] counter);
+
+    Boolean stressByJedisBackoff(String key, int[] counter);
+
+    void transferByRedisson(int from, int to, int[] balances);
+
+    void transferByJedis(int from, int to, int[] balances);
+
+    void readByRedisson(String key, AtomicIntegerArray state);
+
+    void writeByRedisson(String key, AtomicIntegerArray state);
+
+    void readByJedis(String key, AtomicIntegerArray state);
+
+    void writeByJedis(String key, AtomicIntegerArray state);
+
+    void holdByRedisson(String key, int[] counter);
+
+    void holdFairByRedisson(String key, int[] counter);
+
+    void holdByJedis(String key, int[] counter);
+
+    void holdFairByJedis(String key, int[] counter);
+
+    void holdByLocal(String key, int[] counter);
+
+    Boolean limitByRedisson(String key, AtomicIntegerArray state);
+
+    Boolean limitByJedis(String key, AtomicIntegerArray state);
+
+    String optimisticByRedisson(String key);
+
+    String optimisticByJedis(String key);
+
+    Boolean fencedWriteByRedisson(String key, AtomicLong storage, long token);
+
+    Boolean fencedWriteByJedis(String key, AtomicLong storage);
+
+    Boolean reentrantByRedisson(String key, int depth, int[] counter);
+
+    Boolean reentrantByJedis(String key, int depth, int[] counter);
+
     void testByRedisson(TestParam t);
 
     void testByJedis(TestParam t);
 
+    void testWatchdogByJedis(TestParam t);
+
     void testByZookeeper(TestParam t);
 }
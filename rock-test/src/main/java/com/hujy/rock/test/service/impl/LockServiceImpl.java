@@ -1,11 +1,25 @@
 package com.hujy.rock.test.service.impl;
 
 import com.hujy.rock.lock.annotation.DistLock;
+import com.hujy.rock.lock.annotation.DistSemaphore;
+import com.hujy.rock.lock.annotation.FencingToken;
+import com.hujy.rock.lock.aspect.DistLockContext;
+import com.hujy.rock.lock.constant.DistLockMode;
 import com.hujy.rock.lock.constant.DistLockType;
+import com.hujy.rock.lock.constant.WaitStrategyType;
 import com.hujy.rock.test.model.param.TestParam;
 import com.hujy.rock.test.service.LockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
 /**
  * Description
  *
@@ -18,6 +32,13 @@ public class LockServiceImpl implements LockService {
 
     public static int total = 0;
 
+    /**
+     * 自身的代理，嵌套调用时经过切面
+     */
+    @Lazy
+    @Autowired
+    private LockService self;
+
     @Override
     public void incr(String id) {
         total ++;
@@ -35,6 +56,250 @@ public class LockServiceImpl implements LockService {
         total ++;
     }
 
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#id", waitTime = 60, expireTime = 60, localQueue = true)
+    public void incrByLocalQueue(String id) {
+        total ++;
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.ZOOKEEPER, lockKey = "#id", waitTime = 60, expireTime = 60)
+    public void incrByZookeeper(String id) {
+        total ++;
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#id", waitTime = 60, expireTime = 60)
+    public CompletableFuture<Integer> incrAsyncByRedisson(String id) {
+        return CompletableFuture.supplyAsync(() -> ++total);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#id", waitTime = 60, expireTime = 60)
+    public CompletableFuture<Integer> incrAsyncByJedis(String id) {
+        return CompletableFuture.supplyAsync(() -> ++total);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.ZOOKEEPER, lockKey = "#id", waitTime = 60, expireTime = 60)
+    public CompletableFuture<Integer> incrAsyncByZookeeper(String id) {
+        return CompletableFuture.supplyAsync(() -> ++total);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", waitTime = 300, expireTime = 60)
+    public Boolean stressByRedisson(String key, int[] counter) {
+        counter[0]++;
+        return Boolean.TRUE;
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", waitTime = 300, expireTime = 60)
+    public Boolean stressByJedis(String key, int[] counter) {
+        counter[0]++;
+        return Boolean.TRUE;
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", waitTime = 300, expireTime = 60, waitStrategy = WaitStrategyType.EXPONENTIAL)
+    public Boolean stressByJedisBackoff(String key, int[] counter) {
+        counter[0]++;
+        return Boolean.TRUE;
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "{#from, #to}", lockPrefix = "account", waitTime = 60, expireTime = 60)
+    public void transferByRedisson(int from, int to, int[] balances) {
+        transfer(from, to, balances);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "{#from, #to}", lockPrefix = "account", waitTime = 60, expireTime = 60)
+    public void transferByJedis(int from, int to, int[] balances) {
+        transfer(from, to, balances);
+    }
+
+    private void transfer(int from, int to, int[] balances) {
+        int fromBalance = balances[from];
+        int toBalance = balances[to];
+        Thread.yield();
+        balances[from] = fromBalance - 1;
+        balances[to] = toBalance + 1;
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", mode = DistLockMode.READ, waitTime = 60, expireTime = 60)
+    public void readByRedisson(String key, AtomicIntegerArray state) {
+        read(state);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", mode = DistLockMode.WRITE, waitTime = 60, expireTime = 60)
+    public void writeByRedisson(String key, AtomicIntegerArray state) {
+        write(state);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", mode = DistLockMode.READ, waitTime = 60, expireTime = 60)
+    public void readByJedis(String key, AtomicIntegerArray state) {
+        read(state);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", mode = DistLockMode.WRITE, waitTime = 60, expireTime = 60)
+    public void writeByJedis(String key, AtomicIntegerArray state) {
+        write(state);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", waitTime = 60, expireTime = 60)
+    public void holdByRedisson(String key, int[] counter) {
+        counter[0]++;
+        sleep(2);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", fair = true, waitTime = 60, expireTime = 60)
+    public void holdFairByRedisson(String key, int[] counter) {
+        counter[0]++;
+        sleep(2);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", waitTime = 60, expireTime = 60)
+    public void holdByJedis(String key, int[] counter) {
+        counter[0]++;
+        sleep(2);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", fair = true, waitTime = 60, expireTime = 60)
+    public void holdFairByJedis(String key, int[] counter) {
+        counter[0]++;
+        sleep(2);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LOCAL, lockKey = "#key", waitTime = 60, expireTime = 60)
+    public void holdByLocal(String key, int[] counter) {
+        counter[0]++;
+        sleep(2);
+    }
+
+    @Override
+    @DistSemaphore(semaphoreType = DistLockType.REDISSON, key = "#key", permits = 4, waitTime = 60, leaseTime = 60)
+    public Boolean limitByRedisson(String key, AtomicIntegerArray state) {
+        limit(state);
+        return true;
+    }
+
+    @Override
+    @DistSemaphore(semaphoreType = DistLockType.LETTUCE, key = "#key", permits = 4, waitTime = 60, leaseTime = 60)
+    public Boolean limitByJedis(String key, AtomicIntegerArray state) {
+        limit(state);
+        return true;
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", optimistic = true, expireTime = 60)
+    public String optimisticByRedisson(String key) {
+        sleep(20);
+        return "done";
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", optimistic = true, expireTime = 60, fallbackMethod = "busy")
+    public String optimisticByJedis(String key) {
+        sleep(20);
+        return "done";
+    }
+
+    private String busy(String key) {
+        return "busy";
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", fencing = true, waitTime = 60000, expireTime = 100, timeUnit = TimeUnit.MILLISECONDS)
+    public Boolean fencedWriteByRedisson(String key, AtomicLong storage, @FencingToken long token) {
+        return fencedWrite(storage, token);
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", fencing = true, waitTime = 60000, expireTime = 100, timeUnit = TimeUnit.MILLISECONDS)
+    public Boolean fencedWriteByJedis(String key, AtomicLong storage) {
+        return fencedWrite(storage, DistLockContext.getFencingToken());
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.REDISSON, lockKey = "#key", waitTime = 60, expireTime = 60)
+    public Boolean reentrantByRedisson(String key, int depth, int[] counter) {
+        return reentrant(depth, counter, () -> self.reentrantByRedisson(key, depth - 1, counter));
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#key", waitTime = 60, expireTime = 60)
+    public Boolean reentrantByJedis(String key, int depth, int[] counter) {
+        return reentrant(depth, counter, () -> self.reentrantByJedis(key, depth - 1, counter));
+    }
+
+    /**
+     * 每层在嵌套调用前后各累加一次，内层释放时若提前释放了外层的锁，外层之后的累加会与他人并发而丢失
+     */
+    private Boolean reentrant(int depth, int[] counter, Supplier<Boolean> nested) {
+        counter[0]++;
+        Boolean result = depth <= 1 ? Boolean.TRUE : nested.get();
+        counter[0]++;
+        return result;
+    }
+
+    /**
+     * 约1/4的持有者执行时间超过租期，之后的持有者已写入更大的token，旧持有者的写入被拒绝
+     * storage为已写入的最大token
+     */
+    private boolean fencedWrite(AtomicLong storage, long token) {
+        sleep(ThreadLocalRandom.current().nextInt(4) == 0 ? 150 : 5);
+        return storage.getAndAccumulate(token, Math::max) < token;
+    }
+
+    /**
+     * state: 0-当前执行数 1-最大并发执行数
+     */
+    private void limit(AtomicIntegerArray state) {
+        int running = state.incrementAndGet(0);
+        state.accumulateAndGet(1, running, Math::max);
+        sleep(20);
+        state.decrementAndGet(0);
+    }
+
+    /**
+     * state: 0-当前读者数 1-当前写者数 2-互斥被破坏的次数 3-最大并行读者数
+     */
+    private void read(AtomicIntegerArray state) {
+        int readers = state.incrementAndGet(0);
+        if (state.get(1) > 0) {
+            state.incrementAndGet(2);
+        }
+        state.accumulateAndGet(3, readers, Math::max);
+        sleep(50);
+        state.decrementAndGet(0);
+    }
+
+    private void write(AtomicIntegerArray state) {
+        if (state.incrementAndGet(1) > 1 || state.get(0) > 0) {
+            state.incrementAndGet(2);
+        }
+        sleep(50);
+        state.decrementAndGet(1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     @DistLock(lockType = DistLockType.REDISSON, lockKey = "#t.id", waitTime = 60, expireTime = 60)
     public void testByRedisson(TestParam t) {
@@ -56,8 +321,22 @@ public class LockServiceImpl implements LockService {
     }
 
     @Override
-    @DistLock(lockType = "zookeeper", lockKey = "#t.id", waitTime = 60, expireTime = 60)
+    @DistLock(lockType = DistLockType.LETTUCE, lockKey = "#t.id", waitTime = 60, expireTime = -1)
+    public void testWatchdogByJedis(TestParam t) {
+        try {
+            Thread.sleep(t.getNum());
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    @DistLock(lockType = DistLockType.ZOOKEEPER, lockKey = "#t.id", waitTime = 60, expireTime = 60)
     public void testByZookeeper(TestParam t) {
-        System.out.println("zk");
+        try {
+            Thread.sleep(t.getNum());
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
     }
 }